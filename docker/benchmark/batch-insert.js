@@ -0,0 +1,39 @@
+// Ledger insert throughput through the batch transfer endpoint: every request carries ORDERS transfers
+// between the seeded wallets, and each completed transfer inserts two ledger rows.
+// Usage: k6 run -e CLIENTS=4 -e ORDERS=1000 -e DURATION=60s -e BASE_URL=http://localhost:8080 batch-insert.js
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+import { setupWallets, write } from './wallets.js';
+
+const ORDERS = Number(__ENV.ORDERS || 1000);
+const ledgerRows = new Counter('ledger_rows_inserted');
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.CLIENTS || 4),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: { checks: ['rate>0.99'] },
+};
+
+export function setup() {
+    return { wallets: setupWallets(1000000000) };
+}
+
+export default function ({ wallets }) {
+    const transfers = [];
+    for (let i = 0; i < ORDERS; i++) {
+        const from = i % wallets.length;
+        transfers.push({ fromWalletId: wallets[from], toWalletId: wallets[(from + 1) % wallets.length], amount: 1 });
+    }
+    const res = write('/transfers/batch', { mode: 'BEST_EFFORT', transfers });
+    const succeeded = res.status === 200;
+    if (succeeded) {
+        ledgerRows.add(2 * res.json('completed'));
+    }
+    check(res, { 'succeeded': () => succeeded });
+}
@@ -0,0 +1,65 @@
+-- Historical balance: full-history sum vs nearest checkpoint + delta, for wallets with 1k, 100k and
+-- 1M postings spread over three years with daily checkpoints.
+-- Usage: docker exec -i ws_database psql -U user -d walletdb < docker/benchmark/historical-balance.sql
+-- Everything runs in one transaction that is rolled back (the journal is append-only).
+
+\timing on
+BEGIN;
+
+CREATE TEMP TABLE bench_wallets (account_id uuid PRIMARY KEY, postings int NOT NULL);
+INSERT INTO bench_wallets VALUES (gen_random_uuid(), 1000), (gen_random_uuid(), 100000), (gen_random_uuid(), 1000000);
+
+CREATE TEMP TABLE bench_postings AS
+SELECT w.account_id,
+       gen_random_uuid() AS entry_id,
+       (now() - interval '1095 days' + g * (interval '1095 days' / w.postings))::timestamp AS created_at,
+       1.00::numeric(15, 2) AS amount
+FROM bench_wallets w, generate_series(1, w.postings) g;
+
+INSERT INTO journal_entries (id, entry_type, created_at)
+SELECT entry_id, 'DEPOSIT', created_at FROM bench_postings;
+
+INSERT INTO journal_postings (journal_entry_id, account_id, amount, created_at)
+SELECT entry_id, account_id, amount, created_at FROM bench_postings
+UNION ALL
+SELECT entry_id, '00000000-0000-0000-0000-000000000001', -amount, created_at FROM bench_postings;
+
+-- same rows the checkpoint job would have written, one per active day
+INSERT INTO wallet_balance_checkpoints (wallet_id, checkpoint_at, balance)
+SELECT account_id, day + interval '1 day', SUM(SUM(amount)) OVER (PARTITION BY account_id ORDER BY day)
+FROM (SELECT account_id, date_trunc('day', created_at) AS day, amount FROM bench_postings) d
+GROUP BY account_id, day;
+
+ANALYZE journal_postings;
+ANALYZE wallet_balance_checkpoints;
+
+SELECT account_id AS w1k FROM bench_wallets WHERE postings = 1000 \gset
+SELECT account_id AS w100k FROM bench_wallets WHERE postings = 100000 \gset
+SELECT account_id AS w1m FROM bench_wallets WHERE postings = 1000000 \gset
+SELECT (now() - interval '36 hours 7 minutes')::timestamp AS ts \gset
+
+\echo '== full-history sum'
+EXPLAIN (ANALYZE, BUFFERS) SELECT COALESCE(SUM(amount), 0) FROM journal_postings WHERE account_id = :'w1k' AND created_at <= :'ts';
+EXPLAIN (ANALYZE, BUFFERS) SELECT COALESCE(SUM(amount), 0) FROM journal_postings WHERE account_id = :'w100k' AND created_at <= :'ts';
+EXPLAIN (ANALYZE, BUFFERS) SELECT COALESCE(SUM(amount), 0) FROM journal_postings WHERE account_id = :'w1m' AND created_at <= :'ts';
+
+\echo '== nearest checkpoint + delta'
+PREPARE checkpointed(uuid, timestamp) AS
+SELECT COALESCE(c.balance, 0) + (
+    SELECT COALESCE(SUM(p.amount), 0)
+    FROM journal_postings p
+    WHERE p.account_id = $1
+      AND p.created_at >= COALESCE(c.checkpoint_at, '-infinity'::timestamp)
+      AND p.created_at <= $2)
+FROM (SELECT 1) AS one
+LEFT JOIN LATERAL (
+    SELECT checkpoint_at, balance
+    FROM wallet_balance_checkpoints
+    WHERE wallet_id = $1 AND checkpoint_at <= $2
+    ORDER BY checkpoint_at DESC
+    LIMIT 1) c ON true;
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE checkpointed(:'w1k', :'ts');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE checkpointed(:'w100k', :'ts');
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE checkpointed(:'w1m', :'ts');
+
+ROLLBACK;
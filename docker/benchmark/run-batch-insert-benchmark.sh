@@ -0,0 +1,26 @@
+#!/usr/bin/env bash
+# Ledger inserts/s at several Hibernate JDBC batch sizes. The service is restarted on a fresh database for
+# each size (this wipes the compose stack's volumes) and one k6 summary per size is written to ./results;
+# the rate of ledger_rows_inserted is the inserts/s.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+BATCH_SIZES=${BATCH_SIZES:-"1 10 100 1000"}
+ORDERS=${ORDERS:-1000}
+CLIENTS=${CLIENTS:-4}
+DURATION=${DURATION:-60s}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+COMPOSE="../docker-compose.yml"
+mkdir -p results
+
+for size in $BATCH_SIZES; do
+  docker compose -f "$COMPOSE" down -v
+  JAVA_OPTS="-Dspring.profiles.active=docker -Dspring.jpa.properties.hibernate.jdbc.batch_size=$size" \
+    docker compose -f "$COMPOSE" up -d --build wallet_service
+  until curl -sf "$BASE_URL/actuator/health" > /dev/null; do sleep 2; done
+
+  echo "== batch_size=$size, $ORDERS transfers per request, $CLIENTS clients"
+  k6 run --quiet -e BASE_URL="$BASE_URL" -e CLIENTS="$CLIENTS" -e ORDERS="$ORDERS" -e DURATION="$DURATION" \
+    --summary-export "results/batch-insert-$size.json" batch-insert.js || true
+done
+docker compose -f "$COMPOSE" down -v
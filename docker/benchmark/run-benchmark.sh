@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compares platform and virtual threads at 200, 2,000 and 20,000 concurrent clients.
+# Restarts the service in each mode and writes one k6 summary per run to ./results.
+# Wallets are created once, for the seeded users, and every run reuses them through WALLET_IDS;
+# pass WALLET_IDS yourself to benchmark wallets that already exist.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+DURATION=${DURATION:-60s}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+WALLET_IDS=${WALLET_IDS:-}
+SEED_USERS="7fec14cd-09b1-4d05-be31-c679a32b54df dcfe55ad-1955-471a-88eb-3632edb1401e 1d14403b-2f41-46f6-976f-b44f357f9564"
+mkdir -p results
+
+create_wallets() {
+  local ids=() id
+  for user in $SEED_USERS; do
+    if ! id=$(curl -sf -X POST "$BASE_URL/api/v1/wallets" -H 'Content-Type: application/json' \
+        -d "{\"userId\":\"$user\"}"); then
+      echo "Could not create a wallet for seeded user $user; it probably has one already." >&2
+      echo "Reset the database (docker compose -f ../docker-compose.yml down -v) or pass WALLET_IDS." >&2
+      exit 1
+    fi
+    ids+=("$(tr -d '"' <<< "$id")")
+  done
+  (IFS=,; echo "${ids[*]}")
+}
+
+for mode in platform virtual; do
+  virtual=false
+  [ "$mode" = virtual ] && virtual=true
+  JAVA_OPTS="-Dspring.profiles.active=docker -Dspring.threads.virtual.enabled=$virtual -Dserver.tomcat.threads.max=200" \
+    docker compose -f ../docker-compose.yml up -d --force-recreate wallet_service
+  until curl -sf "$BASE_URL/actuator/health" > /dev/null; do sleep 2; done
+
+  if [ -z "$WALLET_IDS" ]; then
+    WALLET_IDS=$(create_wallets)
+    echo "Created wallets $WALLET_IDS"
+  fi
+
+  for clients in 200 2000 20000; do
+    echo "== $mode threads, $clients clients"
+    k6 run --quiet -e BASE_URL="$BASE_URL" -e CLIENTS="$clients" -e DURATION="$DURATION" \
+      -e WALLET_IDS="$WALLET_IDS" --summary-export "results/$mode-$clients.json" wallet-load.js
+  done
+done
@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Transfer throughput between the seeded hot wallets, before and after transfers locked both wallets in
+# one ordered SELECT ... FOR UPDATE. Usage: run-transfer-benchmark.sh <before-ref> [after-ref, default HEAD]
+# Each ref is checked out into a temporary worktree, built, and started against a fresh database: this
+# wipes the compose stack's volumes. One k6 summary per ref is written to ./results; compare
+# transfers_completed (rate is transfers/s) and transfers_rejected by status.
+set -euo pipefail
+
+BEFORE_REF=${1:?usage: $0 <before-ref> [after-ref]}
+AFTER_REF=${2:-HEAD}
+cd "$(dirname "$0")"
+CLIENTS=${CLIENTS:-50}
+DURATION=${DURATION:-60s}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+ROOT=$(git rev-parse --show-toplevel)
+# resolve both refs before anything is torn down
+for ref in "$BEFORE_REF" "$AFTER_REF"; do
+  git -C "$ROOT" rev-parse --verify --quiet "$ref^{commit}" > /dev/null || { echo "unknown ref: $ref" >&2; exit 1; }
+done
+mkdir -p results
+
+run() {
+  local label=$1 ref=$2 tree compose
+  tree=$(mktemp -d)
+  git -C "$ROOT" worktree add --detach "$tree" "$ref" > /dev/null
+  compose="$tree/docker/docker-compose.yml"
+
+  docker compose -f "$compose" down -v
+  docker compose -f "$compose" up -d --build wallet_service
+  until curl -sf "$BASE_URL/actuator/health" > /dev/null; do sleep 2; done
+
+  echo "== $label ($ref), $CLIENTS clients"
+  # rejected transfers are part of the result, so a failed check must not stop the comparison
+  k6 run --quiet -e BASE_URL="$BASE_URL" -e CLIENTS="$CLIENTS" -e DURATION="$DURATION" \
+    --summary-export "results/transfer-$label.json" transfer-contention.js || true
+
+  docker compose -f "$compose" down -v
+  git -C "$ROOT" worktree remove --force "$tree"
+}
+
+run before "$BEFORE_REF"
+run after "$AFTER_REF"
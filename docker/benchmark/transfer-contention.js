@@ -0,0 +1,37 @@
+// Transfers between the few seeded wallets in both directions, so A->B and B->A run concurrently.
+// Usage: k6 run -e CLIENTS=50 -e DURATION=60s -e BASE_URL=http://localhost:8080 transfer-contention.js
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+import { setupWallets, write } from './wallets.js';
+
+const completed = new Counter('transfers_completed');
+const rejected = new Counter('transfers_rejected');
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.CLIENTS || 50),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    // no threshold: the run before ordered locking is expected to reject transfers, and that is the result
+};
+
+export function setup() {
+    return { wallets: setupWallets(1000000000) };
+}
+
+export default function ({ wallets }) {
+    const from = Math.floor(Math.random() * wallets.length);
+    const to = (from + 1 + Math.floor(Math.random() * (wallets.length - 1))) % wallets.length;
+    const res = write('/transfer', { fromWalletId: wallets[from], toWalletId: wallets[to], amount: 1 });
+    const succeeded = res.status >= 200 && res.status < 300;
+    if (succeeded) {
+        completed.add(1);
+    } else {
+        rejected.add(1, { status: String(res.status) });
+    }
+    check(res, { 'succeeded': () => succeeded });
+}
@@ -0,0 +1,39 @@
+// Mixed wallet workload: 60% balance reads, 25% deposits, 10% withdrawals, 5% transfers.
+// Usage: k6 run -e CLIENTS=2000 -e DURATION=60s -e BASE_URL=http://localhost:8080 wallet-load.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { WALLETS, setupWallets, write } from './wallets.js';
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.CLIENTS || 200),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    // a rejected request (409 duplicate, 400 insufficient funds, 404 unknown wallet) is not a result
+    thresholds: { checks: ['rate>0.99'] },
+};
+
+export function setup() {
+    return { wallets: setupWallets(1000000) };
+}
+
+export default function ({ wallets }) {
+    const walletId = wallets[Math.floor(Math.random() * wallets.length)];
+    const roll = Math.random();
+    let res;
+    if (roll < 0.60) {
+        res = http.get(`${WALLETS}/${walletId}/balance`, { tags: { name: '/balance' } });
+    } else if (roll < 0.85) {
+        res = write('/deposit', { walletId, amount: 1 });
+    } else if (roll < 0.95) {
+        res = write('/withdraw', { walletId, amount: 1 });
+    } else {
+        const toWalletId = wallets[(wallets.indexOf(walletId) + 1) % wallets.length];
+        res = write('/transfer', { fromWalletId: walletId, toWalletId, amount: 1 });
+    }
+    check(res, { 'succeeded': (r) => r.status >= 200 && r.status < 300 });
+}
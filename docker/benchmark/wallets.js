@@ -0,0 +1,41 @@
+// Wallet setup shared by the k6 scripts: one funded wallet per seeded user, or the ids in WALLET_IDS.
+import http from 'k6/http';
+import { fail } from 'k6';
+import { uuidv4 } from 'https://jslib.k6.io/k6-utils/1.4.0/index.js';
+
+export const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+export const WALLETS = `${BASE_URL}/api/v1/wallets`;
+const SEED_USERS = [
+    '7fec14cd-09b1-4d05-be31-c679a32b54df',
+    'dcfe55ad-1955-471a-88eb-3632edb1401e',
+    '1d14403b-2f41-46f6-976f-b44f357f9564',
+];
+
+const json = { headers: { 'Content-Type': 'application/json' } };
+
+export function write(path, body) {
+    return http.post(`${WALLETS}${path}`, JSON.stringify(body), {
+        headers: { 'Content-Type': 'application/json', 'X-Request-ID': uuidv4() },
+        tags: { name: path },
+    });
+}
+
+export function setupWallets(funding) {
+    // WALLET_IDS lets repeated runs reuse wallets; otherwise create one per seeded user
+    const wallets = __ENV.WALLET_IDS
+        ? __ENV.WALLET_IDS.split(',')
+        : SEED_USERS.map((userId) => {
+            const res = http.post(WALLETS, JSON.stringify({ userId }), json);
+            if (res.status !== 200) {
+                fail(`creating a wallet for ${userId} returned ${res.status}; pass WALLET_IDS or reset the database`);
+            }
+            return res.json();
+        });
+    wallets.forEach((walletId) => {
+        const res = write('/deposit', { walletId, amount: funding });
+        if (res.status < 200 || res.status >= 300) {
+            fail(`funding wallet ${walletId} returned ${res.status}`);
+        }
+    });
+    return wallets;
+}
@@ -0,0 +1,45 @@
+package com.rgs.wallet.application.service;
+
+import com.rgs.wallet.domain.exceptions.RequestIdReusedException;
+import com.rgs.wallet.domain.exceptions.WalletCommandNotFoundException;
+import com.rgs.wallet.domain.model.WalletCommand;
+import com.rgs.wallet.ports.in.WalletCommandPort;
+import com.rgs.wallet.ports.out.WalletCommandPersistencePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class WalletCommandService implements WalletCommandPort {
+
+    private final WalletCommandPersistencePort commandPersistence;
+
+    @Value("${app.wallet.async-commands.enabled}")
+    private boolean enabled;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public WalletCommand submit(WalletCommand command) {
+        if (command.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        WalletCommand stored = commandPersistence.enqueue(command);
+        if (!stored.isSameRequestAs(command)) {
+            throw new RequestIdReusedException();
+        }
+        return stored;
+    }
+
+    @Override
+    public WalletCommand getCommand(UUID commandId) {
+        return commandPersistence.findById(commandId)
+                .orElseThrow(WalletCommandNotFoundException::new);
+    }
+}
@@ -0,0 +1,96 @@
+package com.rgs.wallet.application.service;
+
+import com.rgs.wallet.application.service.concurrency.WalletStriping;
+import com.rgs.wallet.application.service.history.HistoricalBalanceWindow;
+import com.rgs.wallet.domain.exceptions.WalletNotFoundException;
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletBalance;
+import com.rgs.wallet.infrastructure.idempotency.ReactiveCacheService;
+import com.rgs.wallet.ports.in.WalletQueryPort;
+import com.rgs.wallet.ports.out.WalletReadPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read side of {@link WalletService} on R2DBC and reactive Redis: same cache entries and results,
+ * but no request thread is held while waiting on either store.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive-reads.enabled", havingValue = "true")
+public class WalletQueryService implements WalletQueryPort {
+
+    private final WalletReadPort walletRead;
+    private final ReactiveCacheService cacheService;
+    private final WalletStriping striping;
+    private final HistoricalBalanceWindow historicalWindow;
+
+    // a striped wallet's total is read through, as in WalletService: stripe writes do not version the cache
+    @Override
+    public Mono<BigDecimal> getBalance(UUID walletId) {
+        if (striping.isStriped(walletId)) {
+            return findWallet(walletId).map(Wallet::getBalance);
+        }
+        return cacheService.getCachedBalance(walletId)
+                .switchIfEmpty(Mono.defer(() -> findWallet(walletId)
+                        .flatMap(wallet -> cacheService.cacheBalance(walletId, WalletBalance.of(wallet))
+                                .thenReturn(wallet.getBalance()))));
+    }
+
+    @Override
+    public Mono<Wallet> getWallet(UUID walletId) {
+        if (striping.isStriped(walletId)) {
+            return findWallet(walletId);
+        }
+        return cacheService.getCachedWallet(walletId)
+                .switchIfEmpty(Mono.defer(() -> findWallet(walletId)
+                        .flatMap(wallet -> cacheService.cacheWallet(walletId, wallet).thenReturn(wallet))));
+    }
+
+    @Override
+    public Mono<BigDecimal> getHistoricalBalance(UUID walletId, Instant timestamp) {
+        Instant at = historicalWindow.resolve(timestamp);
+        if (!historicalWindow.isSettled(at) || !historicalWindow.isBucketed()) {
+            return findWallet(walletId).then(historicalBalance(walletId, at));
+        }
+        return cacheService.getCachedHistoricalBalance(walletId, at)
+                .switchIfEmpty(Mono.defer(() -> findWallet(walletId)
+                        .then(historicalBalance(walletId, at))
+                        .flatMap(balance -> cacheService.cacheHistoricalBalance(walletId, at, balance)
+                                .thenReturn(balance))));
+    }
+
+    @Override
+    public Flux<TransactionRecord> getTransactions(UUID walletId, Instant startDate, Instant endDate) {
+        Instant effectiveStartDate = (startDate != null) ? startDate : Instant.EPOCH;
+        Instant effectiveEndDate = (endDate != null) ? endDate : Instant.now();
+
+        if (effectiveStartDate.isAfter(effectiveEndDate)) {
+            return Flux.error(new IllegalArgumentException("Start date must be before end date"));
+        }
+
+        return findWallet(walletId)
+                .thenMany(walletRead.findByWalletIdAndPeriod(walletId, effectiveStartDate, effectiveEndDate));
+    }
+
+    private Mono<BigDecimal> historicalBalance(UUID walletId, Instant timestamp) {
+        if (striping.isStriped(walletId)) {
+            return walletRead.calculateBalanceUpTo(walletId, timestamp);
+        }
+        return walletRead.findBalanceAfter(walletId, timestamp)
+                .switchIfEmpty(Mono.defer(() -> walletRead.calculateBalanceUpTo(walletId, timestamp)));
+    }
+
+    private Mono<Wallet> findWallet(UUID walletId) {
+        return walletRead.findById(walletId)
+                .switchIfEmpty(Mono.error(WalletNotFoundException::new));
+    }
+}
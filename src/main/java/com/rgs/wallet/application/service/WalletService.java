@@ -1,25 +1,40 @@
 package com.rgs.wallet.application.service;
 
+import com.rgs.wallet.application.service.concurrency.WalletBalanceUpdater;
+import com.rgs.wallet.application.service.concurrency.WalletPartitionExecutor;
+import com.rgs.wallet.application.service.concurrency.WalletStriping;
 import com.rgs.wallet.application.service.fallback.WalletFallbackHandler;
+import com.rgs.wallet.application.service.history.HistoricalBalanceWindow;
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
 import com.rgs.wallet.domain.exceptions.*;
 import com.rgs.wallet.domain.model.*;
+import com.rgs.wallet.domain.utils.TimeOrderedUuid;
+import com.rgs.wallet.infrastructure.idempotency.CacheMissCoalescer;
 import com.rgs.wallet.infrastructure.idempotency.CacheService;
 import com.rgs.wallet.infrastructure.idempotency.IdempotencyService;
 import com.rgs.wallet.ports.in.WalletServicePort;
 import com.rgs.wallet.ports.out.TransactionPersistencePort;
+import com.rgs.wallet.ports.out.TransferBatchPersistencePort;
 import com.rgs.wallet.ports.out.UserPersistencePort;
+import com.rgs.wallet.ports.out.WalletCommandPersistencePort;
 import com.rgs.wallet.ports.out.WalletPersistencePort;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -29,9 +44,20 @@ public class WalletService implements WalletServicePort {
     private final WalletPersistencePort walletPersistence;
     private final UserPersistencePort userPersistence;
     private final TransactionPersistencePort transactionPersistence;
+    private final TransferBatchPersistencePort batchPersistence;
+    private final WalletCommandPersistencePort commandPersistence;
     private final IdempotencyService idempotencyService;
     private final CacheService cacheService;
+    private final CacheMissCoalescer missCoalescer;
+    private final HistoricalBalanceWindow historicalWindow;
     private final WalletFallbackHandler fallbackHandler;
+    private final WalletBalanceUpdater balanceUpdater;
+    private final WalletStriping striping;
+    private final WalletPartitionExecutor partitions;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.wallet.transactions.max-page-size}")
+    private int maxPageSize;
 
     @Override
     @Transactional
@@ -55,56 +81,78 @@ public class WalletService implements WalletServicePort {
         return walletPersistence.save(newWallet);
     }
 
+    /**
+     * Cache reads run outside a transaction: callers waiting on a coalesced miss must not each hold a
+     * pooled connection while one of them queries the database. A striped wallet's total is read
+     * through: stripe writes do not move the ledger sequence that versions cache entries, so a read
+     * racing one could put back a total older than the entry the write cleared.
+     */
     @Override
-    @Transactional(readOnly = true)
     public BigDecimal getBalance(UUID walletId) {
+        if (striping.isStriped(walletId)) {
+            return withStripes(walletId, walletPersistence.findBalance(walletId)
+                    .orElseThrow(WalletNotFoundException::new)
+                    .getBalance());
+        }
         BigDecimal cached = cacheService.getCachedBalance(walletId);
         if (cached != null) return cached;
 
-        Wallet wallet = findWallet(walletId);
-
-        BigDecimal balance = wallet.getBalance();
-        cacheService.cacheBalance(walletId, balance);
-        return balance;
+        return missCoalescer.load("balance:" + walletId, () -> cacheService.getCachedBalance(walletId), () -> {
+            WalletBalance row = walletPersistence.findBalance(walletId)
+                    .orElseThrow(WalletNotFoundException::new);
+            cacheService.cacheBalance(walletId, row);
+            return row.getBalance();
+        });
     }
 
 
     @Override
-    @Transactional(readOnly = true)
     public Wallet getWallet(UUID walletId) {
+        if (striping.isStriped(walletId)) {
+            Wallet wallet = findWallet(walletId);
+            wallet.setBalance(withStripes(walletId, wallet.getBalance()));
+            return wallet;
+        }
         Wallet cached = cacheService.getCachedWallet(walletId);
         if (cached != null) return cached;
 
-        Wallet wallet = findWallet(walletId);
-
-        cacheService.cacheWallet(walletId, wallet);
-        return wallet;
+        return missCoalescer.load("wallet:" + walletId, () -> cacheService.getCachedWallet(walletId), () -> {
+            Wallet wallet = findWallet(walletId);
+            cacheService.cacheWallet(walletId, wallet);
+            return wallet;
+        });
     }
 
     @Override
-    @Transactional(readOnly = true)
     public BigDecimal getHistoricalBalance(UUID walletId, Instant timestamp) {
-        var cached = cacheService.getCachedHistoricalBalance(walletId, timestamp);
+        Instant at = historicalWindow.resolve(timestamp);
+        if (!historicalWindow.isSettled(at)) {
+            // writes may still land at or before this instant: the answer is not cacheable yet
+            findWallet(walletId);
+            return historicalBalance(walletId, at, false);
+        }
+        if (!historicalWindow.isBucketed()) {
+            findWallet(walletId);
+            return historicalBalance(walletId, at, true);
+        }
+        var cached = cacheService.getCachedHistoricalBalance(walletId, at);
         if (cached != null) return cached;
-        findWallet(walletId);
-        BigDecimal balance = transactionPersistence.calculateBalanceUpTo(walletId, timestamp);
-        cacheService.cacheHistoricalBalance(walletId, timestamp, balance);
-        return balance;
+
+        return missCoalescer.load("historical-balance:" + walletId + ":" + at,
+                () -> cacheService.getCachedHistoricalBalance(walletId, at), () -> {
+                    findWallet(walletId);
+                    BigDecimal balance = historicalBalance(walletId, at, true);
+                    cacheService.cacheHistoricalBalance(walletId, at, balance);
+                    return balance;
+                });
     }
 
     @Override
-    @Transactional
     @Retry(name = "walletServiceRetry")
     @CircuitBreaker(name = "walletServiceCB")
     public void deposit(UUID walletId, BigDecimal amount, UUID requestId) {
         try {
-            idempotencyService.processWithIdempotency(requestId, () -> {
-                Wallet wallet = findWallet(walletId);
-                Transaction transaction = wallet.deposit(amount);
-                walletPersistence.save(wallet);
-                transactionPersistence.save(transaction);
-                cacheService.clearCache(walletId);
-            });
+            write(requestId, () -> balanceUpdater.apply(walletId, amount, TransactionType.DEPOSIT), walletId);
         } catch (BusinessException e) {
             throw e;
         } catch (Throwable t) {
@@ -114,20 +162,11 @@ public class WalletService implements WalletServicePort {
 
 
     @Override
-    @Transactional
     @Retry(name = "walletServiceRetry")
     @CircuitBreaker(name = "walletServiceCB")
     public void withdraw(UUID walletId, BigDecimal amount, UUID requestId) {
         try {
-            idempotencyService.processWithIdempotency(requestId, () -> {
-                Wallet wallet = findWallet(walletId);
-
-                Transaction withdrawalTransaction = wallet.withdraw(amount);
-
-                walletPersistence.save(wallet);
-                transactionPersistence.save(withdrawalTransaction);
-                cacheService.clearCache(walletId);
-            });
+            write(requestId, () -> balanceUpdater.apply(walletId, amount, TransactionType.WITHDRAWAL), walletId);
         } catch (BusinessException e) {
             throw e;
         } catch (Throwable t) {
@@ -136,53 +175,15 @@ public class WalletService implements WalletServicePort {
     }
 
     @Override
-    @Transactional
     @Retry(name = "walletServiceRetry")
     @CircuitBreaker(name = "walletServiceCB")
     public void transfer(UUID fromWalletId, UUID toWalletId, BigDecimal amount, UUID requestId) {
         try {
-            idempotencyService.processWithIdempotency(requestId, () -> {
-                if (fromWalletId.equals(toWalletId)) {
-                    throw new SameWalletTransferException();
-                }
-
-                Wallet source = findWallet(fromWalletId);
-                if (source.getBalance().compareTo(amount) < 0) {
-                    throw new InsufficientFundsException();
-                }
-                Wallet target = findWallet(toWalletId);
-
-                Transaction transferOut = Transaction.builder()
-                        .wallet(source)
-                        .amount(amount)
-                        .type(TransactionType.TRANSFER_OUT)
-                        .createdAt(Instant.now())
-                        .build();
-
-                Transaction transferIn = Transaction.builder()
-                        .wallet(target)
-                        .amount(amount)
-                        .type(TransactionType.TRANSFER_IN)
-                        .createdAt(Instant.now())
-                        .build();
-
-                transferOut = transactionPersistence.save(transferOut);
-                transferIn = transactionPersistence.save(transferIn);
-
-                transferOut.linkWithRelatedTransaction(transferIn.getId());
-                transferIn.linkWithRelatedTransaction(transferOut.getId());
-
-                source.setBalance(source.getBalance().subtract(amount));
-                target.setBalance(target.getBalance().add(amount));
-
-                transactionPersistence.save(transferOut);
-                transactionPersistence.save(transferIn);
-
-                walletPersistence.save(source);
-                walletPersistence.save(target);
-                cacheService.clearCache(fromWalletId);
-                cacheService.clearCache(toWalletId);
-            });
+            if (fromWalletId.equals(toWalletId)) {
+                throw new SameWalletTransferException();
+            }
+            write(requestId, () -> transactionTemplate.executeWithoutResult(status ->
+                    executeTransfer(fromWalletId, toWalletId, amount)), fromWalletId, toWalletId);
         } catch (BusinessException e){
             throw e;
         } catch (Throwable t) {
@@ -190,9 +191,71 @@ public class WalletService implements WalletServicePort {
         }
     }
 
+    /**
+     * The batch id is recorded in the batch's own transaction, which also serializes retries racing the
+     * first attempt. A batch that applied no leg rolls back with its id, so a corrected retry can reuse it.
+     * With single-writer partitions enabled the batch runs through the partitions of every wallet it
+     * touches, like any other write to them.
+     */
+    @Override
+    public List<TransferLegResult> transferBatch(List<TransferOrder> orders, BatchTransferMode mode, UUID batchId) {
+        List<TransferLegResult> results = new ArrayList<>(orders.size());
+        try {
+            writeBatch(batchId, orders, () -> {
+                results.addAll(transactionTemplate.execute(status -> {
+                    if (!batchPersistence.register(batchId)) {
+                        throw new DuplicateRequestException();
+                    }
+                    List<TransferLegResult> legs = executeBatch(orders, mode);
+                    if (!applied(legs)) {
+                        status.setRollbackOnly();
+                    }
+                    return legs;
+                }));
+                return applied(results);
+            });
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Throwable t) {
+            fallbackHandler.handleBatchTransferFallback(batchId, orders.size(), t);
+        }
+        return results;
+    }
+
+    /**
+     * The command row, not the request-id cache, guards against a second application: marking it
+     * completed locks it, so an attempt racing a reclaimed one waits for it and then finds nothing to do.
+     */
+    @Override
+    public void applyCommand(WalletCommand command) {
+        UUID walletId = command.getWalletId();
+        Runnable apply = () -> transactionTemplate.executeWithoutResult(status -> {
+            if (!commandPersistence.markCompleted(command.getId())) {
+                return;
+            }
+            switch (command.getType()) {
+                case DEPOSIT -> balanceUpdater.applyInTransaction(walletId, command.getAmount(), TransactionType.DEPOSIT);
+                case WITHDRAWAL -> balanceUpdater.applyInTransaction(walletId, command.getAmount(), TransactionType.WITHDRAWAL);
+                case TRANSFER -> {
+                    if (walletId.equals(command.getTargetWalletId())) {
+                        throw new SameWalletTransferException();
+                    }
+                    executeTransfer(walletId, command.getTargetWalletId(), command.getAmount());
+                }
+            }
+        });
+        if (partitions.isEnabled()) {
+            partitions.execute(apply, Stream.of(walletId, command.getTargetWalletId())
+                    .filter(Objects::nonNull)
+                    .toArray(UUID[]::new));
+        } else {
+            apply.run();
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public List<Transaction> getTransactions(UUID walletId, Instant startDate, Instant endDate) {
+    public List<TransactionRecord> getTransactions(UUID walletId, Instant startDate, Instant endDate) {
         findWallet(walletId);
         Instant effectiveStartDate = (startDate != null) ? startDate : Instant.EPOCH;
         Instant effectiveEndDate = (endDate != null) ? endDate : Instant.now();
@@ -204,6 +267,234 @@ public class WalletService implements WalletServicePort {
         return transactionPersistence.findByWalletIdAndPeriod(walletId, effectiveStartDate, effectiveEndDate);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTransactions(UUID walletId, Instant startDate, Instant endDate, Consumer<TransactionRecord> sink) {
+        transactionPersistence.forEachInPeriod(walletId, startDate, endDate, sink);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionPage(UUID walletId, TransactionCursor after, int pageSize, TransactionType type) {
+        findWallet(walletId);
+        int limit = Math.min(pageSize, maxPageSize);
+        // one row past the page tells whether there is a next one without a count query
+        List<TransactionRecord> rows = transactionPersistence.findPage(walletId, after, type, limit + 1);
+        if (rows.size() <= limit) {
+            return TransactionPage.builder().transactions(rows).build();
+        }
+        List<TransactionRecord> page = rows.subList(0, limit);
+        return TransactionPage.builder()
+                .transactions(page)
+                .nextCursor(TransactionCursor.of(page.get(limit - 1)))
+                .build();
+    }
+
+    /**
+     * Runs a write under its request's idempotency guard. With single-writer partitions enabled the
+     * write executes on the wallets' partition threads, which already serialize it, so the per-request
+     * Redis lock is skipped. Callers must not hold a transaction: the partition thread opens its own.
+     */
+    private void write(UUID requestId, Runnable operation, UUID... walletIds) {
+        if (partitions.isEnabled()) {
+            partitions.execute(() -> idempotencyService.processSerialized(requestId, operation), walletIds);
+        } else {
+            idempotencyService.processWithIdempotency(requestId, operation);
+        }
+    }
+
+    private void writeBatch(UUID batchId, List<TransferOrder> orders, BooleanSupplier operation) {
+        Runnable batch = () -> idempotencyService.processRecorded(batchId, operation);
+        if (partitions.isEnabled()) {
+            partitions.execute(batch, orders.stream()
+                    .flatMap(order -> Stream.of(order.getFromWalletId(), order.getToWalletId()))
+                    .toArray(UUID[]::new));
+        } else {
+            batch.run();
+        }
+    }
+
+    private void executeTransfer(UUID fromWalletId, UUID toWalletId, BigDecimal amount) {
+        Map<UUID, Wallet> locked = lockWallets(fromWalletId, toWalletId);
+        Wallet source = locked.get(fromWalletId);
+        Wallet target = locked.get(toWalletId);
+        if (source.getBalance().compareTo(amount) < 0 && walletPersistence.foldBalanceStripes(fromWalletId)) {
+            source = walletPersistence.findByIdForUpdate(fromWalletId)
+                    .orElseThrow(WalletNotFoundException::new);
+        }
+        if (source.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException();
+        }
+
+        List<Transaction> legs = moveFunds(source, target, amount);
+
+        walletPersistence.save(source);
+        walletPersistence.save(target);
+        transactionPersistence.saveAll(legs);
+        refreshCache(source);
+        refreshCache(target);
+    }
+
+    private List<TransferLegResult> executeBatch(List<TransferOrder> orders, BatchTransferMode mode) {
+        Set<UUID> walletIds = new HashSet<>();
+        Set<UUID> sourceIds = new HashSet<>();
+        for (TransferOrder order : orders) {
+            walletIds.add(order.getFromWalletId());
+            walletIds.add(order.getToWalletId());
+            sourceIds.add(order.getFromWalletId());
+        }
+
+        Map<UUID, Wallet> wallets = lockAllWallets(walletIds);
+        boolean folded = false;
+        for (UUID sourceId : sourceIds) {
+            if (striping.isStriped(sourceId) && wallets.containsKey(sourceId)) {
+                folded |= walletPersistence.foldBalanceStripes(sourceId);
+            }
+        }
+        if (folded) {
+            wallets = lockAllWallets(walletIds);
+        }
+
+        List<TransferLegResult> results = new ArrayList<>(orders.size());
+        List<Transaction> ledger = new ArrayList<>(orders.size() * 2);
+        Map<UUID, Wallet> touched = new LinkedHashMap<>();
+        boolean rejected = false;
+        for (int index = 0; index < orders.size(); index++) {
+            TransferOrder order = orders.get(index);
+            Wallet source = wallets.get(order.getFromWalletId());
+            Wallet target = wallets.get(order.getToWalletId());
+            ErrorCodeEnum rejection = validateLeg(order, source, target);
+            if (rejection != null) {
+                results.add(TransferLegResult.rejected(index, rejection));
+                rejected = true;
+                continue;
+            }
+            List<Transaction> legs = moveFunds(source, target, order.getAmount());
+            ledger.addAll(legs);
+            touched.put(source.getId(), source);
+            touched.put(target.getId(), target);
+            results.add(TransferLegResult.completed(index, legs.get(0).getId()));
+        }
+
+        if (rejected && mode == BatchTransferMode.ALL_OR_NOTHING) {
+            return results.stream()
+                    .map(result -> result.getStatus() == TransferLegStatus.COMPLETED
+                            ? TransferLegResult.notExecuted(result.getIndex())
+                            : result)
+                    .toList();
+        }
+        if (!ledger.isEmpty()) {
+            touched.values().forEach(walletPersistence::save);
+            transactionPersistence.saveAll(ledger);
+            touched.values().forEach(this::refreshCache);
+        }
+        return results;
+    }
+
+    private static boolean applied(List<TransferLegResult> results) {
+        return results.stream().anyMatch(result -> result.getStatus() == TransferLegStatus.COMPLETED);
+    }
+
+    // a striped wallet's cached balance includes stripe rows the ledger sequence does not version
+    private void refreshCache(Wallet wallet) {
+        if (striping.isStriped(wallet.getId())) {
+            cacheService.clearCache(wallet.getId());
+        } else {
+            cacheService.walletChanged(wallet.getId(), WalletBalance.of(wallet));
+        }
+    }
+
+    private ErrorCodeEnum validateLeg(TransferOrder order, Wallet source, Wallet target) {
+        if (order.getFromWalletId().equals(order.getToWalletId())) {
+            return ErrorCodeEnum.WS409003;
+        }
+        if (source == null || target == null) {
+            return ErrorCodeEnum.WS404001;
+        }
+        if (order.getAmount() == null || order.getAmount().signum() <= 0) {
+            return ErrorCodeEnum.WS400001;
+        }
+        if (source.getBalance().compareTo(order.getAmount()) < 0) {
+            return ErrorCodeEnum.WS400002;
+        }
+        return null;
+    }
+
+    private List<Transaction> moveFunds(Wallet source, Wallet target, BigDecimal amount) {
+        Transaction transferOut = Transaction.builder()
+                .id(TimeOrderedUuid.generate())
+                .wallet(source)
+                .amount(amount)
+                .type(TransactionType.TRANSFER_OUT)
+                .build();
+
+        Transaction transferIn = Transaction.builder()
+                .id(TimeOrderedUuid.generate())
+                .wallet(target)
+                .amount(amount)
+                .type(TransactionType.TRANSFER_IN)
+                .build();
+
+        transferOut.linkWithRelatedTransaction(transferIn.getId());
+        transferIn.linkWithRelatedTransaction(transferOut.getId());
+
+        source.setBalance(source.getBalance().subtract(amount));
+        target.setBalance(target.getBalance().add(amount));
+        record(source, transferOut);
+        record(target, transferIn);
+        return List.of(transferOut, transferIn);
+    }
+
+    private void record(Wallet wallet, Transaction transaction) {
+        if (striping.isStriped(wallet.getId())) {
+            wallet.recordUnsequenced(transaction);
+        } else {
+            wallet.record(transaction);
+        }
+    }
+
+    private Map<UUID, Wallet> lockAllWallets(Collection<UUID> walletIds) {
+        return walletPersistence.findAllByIdForUpdate(walletIds)
+                .stream()
+                .collect(Collectors.toMap(Wallet::getId, Function.identity()));
+    }
+
+    private Map<UUID, Wallet> lockWallets(UUID... walletIds) {
+        Map<UUID, Wallet> locked = lockAllWallets(List.of(walletIds));
+        if (locked.size() != walletIds.length) {
+            throw new WalletNotFoundException();
+        }
+        return locked;
+    }
+
+    /**
+     * Resolves the instant to the wallet's last ledger row at or before it: every instant up to the next
+     * row has that row's balance, so a settled sum over the journal is cached per row rather than per instant.
+     */
+    private BigDecimal historicalBalance(UUID walletId, Instant timestamp, boolean settled) {
+        var last = transactionPersistence.findLastUpTo(walletId, timestamp);
+        if (last.isEmpty()) {
+            return transactionPersistence.calculateBalanceUpTo(walletId, timestamp);
+        }
+        // no row of a striped wallet carries a running balance; neither do rows written before it existed
+        if (!striping.isStriped(walletId) && last.get().getBalanceAfter() != null) {
+            return last.get().getBalanceAfter();
+        }
+        UUID entryId = last.get().getId();
+        BigDecimal cached = settled ? cacheService.getCachedBalanceAfterEntry(walletId, entryId) : null;
+        if (cached != null) return cached;
+
+        BigDecimal balance = transactionPersistence.calculateBalanceUpTo(walletId, timestamp);
+        if (settled) {
+            cacheService.cacheBalanceAfterEntry(walletId, entryId, balance);
+        }
+        return balance;
+    }
+
+    private BigDecimal withStripes(UUID walletId, BigDecimal balance) {
+        return balance.add(walletPersistence.sumBalanceStripes(walletId));
+    }
+
     private Wallet findWallet(UUID walletId) {
         return walletPersistence.findById(walletId)
                 .orElseThrow(WalletNotFoundException::new);
@@ -0,0 +1,80 @@
+package com.rgs.wallet.application.service.checkpoint;
+
+import com.rgs.wallet.application.service.concurrency.WorkerThreads;
+import com.rgs.wallet.ports.out.BalanceCheckpointPersistencePort;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes an end-of-day (UTC) balance checkpoint for every wallet that had journal activity since the
+ * previous checkpoint, so historical balances only sum postings after the nearest checkpoint. A day
+ * is checkpointed once {@code settle-minutes} have passed after midnight, leaving time for
+ * transactions stamped before midnight to commit. Days missed while the service was down are folded
+ * into the next checkpoint.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceCheckpointJob {
+
+    private final BalanceCheckpointPersistencePort checkpointPersistence;
+
+    @Value("${app.wallet.checkpoints.enabled}")
+    private boolean enabled;
+    @Value("${app.wallet.checkpoints.interval-minutes}")
+    private long intervalMinutes;
+    @Value("${app.wallet.checkpoints.settle-minutes}")
+    private long settleMinutes;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(
+                WorkerThreads.builder(virtualThreads).name("wallet-balance-checkpoint").factory());
+        executor.scheduleWithFixedDelay(this::run, 0, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    void run() {
+        run(Instant.now());
+    }
+
+    void run(Instant now) {
+        try {
+            Instant checkpointAt = now
+                    .minus(Duration.ofMinutes(settleMinutes))
+                    .truncatedTo(ChronoUnit.DAYS);
+            Instant since = checkpointPersistence.findLatestCheckpoint().orElse(Instant.EPOCH);
+            if (!since.isBefore(checkpointAt)) {
+                return;
+            }
+            int written = checkpointPersistence.createCheckpoints(since, checkpointAt);
+            log.info("Wrote {} balance checkpoints at {}", written, checkpointAt);
+        } catch (RuntimeException e) {
+            log.error("Failed to write balance checkpoints", e);
+        }
+    }
+}
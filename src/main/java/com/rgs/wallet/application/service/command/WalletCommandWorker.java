@@ -0,0 +1,131 @@
+package com.rgs.wallet.application.service.command;
+
+import com.rgs.wallet.application.service.concurrency.WorkerThreads;
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import com.rgs.wallet.domain.exceptions.BusinessException;
+import com.rgs.wallet.domain.exceptions.ConcurrentRequestException;
+import com.rgs.wallet.domain.exceptions.WalletUpdateConflictException;
+import com.rgs.wallet.domain.model.WalletCommand;
+import com.rgs.wallet.ports.in.WalletServicePort;
+import com.rgs.wallet.ports.out.WalletCommandPersistencePort;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the durable command table. Each worker claims a batch with FOR UPDATE SKIP LOCKED and
+ * applies the commands through {@link WalletServicePort#applyCommand}, which marks each one completed
+ * in the transaction that applies it, so a command reclaimed after a crash is not applied twice.
+ * Finished commands are purged once they are older than {@code retention-hours}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WalletCommandWorker {
+
+    private final WalletCommandPersistencePort commandPersistence;
+    private final WalletServicePort walletService;
+
+    @Value("${app.wallet.async-commands.enabled}")
+    private boolean enabled;
+    @Value("${app.wallet.async-commands.workers}")
+    private int workers;
+    @Value("${app.wallet.async-commands.batch-size}")
+    private int batchSize;
+    @Value("${app.wallet.async-commands.poll-interval-ms}")
+    private long pollIntervalMs;
+    @Value("${app.wallet.async-commands.lease-seconds}")
+    private long leaseSeconds;
+    @Value("${app.wallet.async-commands.max-attempts}")
+    private int maxAttempts;
+    @Value("${app.wallet.async-commands.retention-hours}")
+    private long retentionHours;
+    @Value("${app.wallet.async-commands.purge-interval-minutes}")
+    private long purgeIntervalMinutes;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newScheduledThreadPool(workers + 1,
+                WorkerThreads.builder(virtualThreads).name("wallet-command-worker-", 0).factory());
+        for (int i = 0; i < workers; i++) {
+            executor.scheduleWithFixedDelay(this::drain, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        executor.scheduleWithFixedDelay(this::purge, purgeIntervalMinutes, purgeIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    void drain() {
+        try {
+            List<WalletCommand> batch;
+            do {
+                batch = commandPersistence.claimBatch(batchSize, leaseSeconds);
+                batch.forEach(this::process);
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Failed to drain wallet commands", e);
+        }
+    }
+
+    void purge() {
+        try {
+            int purged = commandPersistence.purgeFinished(Instant.now().minus(Duration.ofHours(retentionHours)));
+            log.info("Purged {} finished wallet commands", purged);
+        } catch (RuntimeException e) {
+            log.error("Failed to purge wallet commands", e);
+        }
+    }
+
+    void process(WalletCommand command) {
+        try {
+            walletService.applyCommand(command);
+        } catch (BusinessException e) {
+            if (isTransient(e)) {
+                retryLater(command);
+            } else {
+                commandPersistence.markFailed(command.getId(), e.getErrorCode());
+            }
+        } catch (IllegalArgumentException e) {
+            commandPersistence.markFailed(command.getId(), ErrorCodeEnum.WS400001);
+        } catch (RuntimeException e) {
+            log.warn("Wallet command {} failed on attempt {}", command.getId(), command.getAttempts(), e);
+            retryLater(command);
+        }
+    }
+
+    private boolean isTransient(BusinessException e) {
+        return e.getStatus().is5xxServerError()
+                || e instanceof ConcurrentRequestException
+                || e instanceof WalletUpdateConflictException;
+    }
+
+    private void retryLater(WalletCommand command) {
+        if (command.getAttempts() >= maxAttempts) {
+            commandPersistence.markFailed(command.getId(), ErrorCodeEnum.WS500001);
+        } else {
+            commandPersistence.release(command.getId());
+        }
+    }
+}
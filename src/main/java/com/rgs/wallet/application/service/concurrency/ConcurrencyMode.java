@@ -0,0 +1,7 @@
+package com.rgs.wallet.application.service.concurrency;
+
+public enum ConcurrencyMode {
+    ATOMIC_DELTA,
+    PESSIMISTIC,
+    OPTIMISTIC
+}
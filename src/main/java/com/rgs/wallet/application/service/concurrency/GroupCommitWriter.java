@@ -0,0 +1,199 @@
+package com.rgs.wallet.application.service.concurrency;
+
+import com.rgs.wallet.domain.exceptions.InsufficientFundsException;
+import com.rgs.wallet.domain.exceptions.WalletNotFoundException;
+import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletBalance;
+import com.rgs.wallet.infrastructure.idempotency.CacheService;
+import com.rgs.wallet.ports.out.TransactionPersistencePort;
+import com.rgs.wallet.ports.out.WalletPersistencePort;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups deposits and withdrawals queued for the same wallet and commits each group in one
+ * transaction: a single locked read, one balance update for the net delta and one batched ledger
+ * insert. Writes are applied in arrival order, so a withdrawal can be rejected for insufficient
+ * funds while the rest of its group commits; each caller blocks until its own outcome is known.
+ * <p>
+ * Each wallet is pinned to one single-threaded writer (hash of the wallet id), so its groups commit one
+ * after another in the order they closed. Groups lock the wallet row whatever the concurrency mode; the
+ * writes that still bypass them (transfers, striped wallets) take the same row lock or bump its version.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GroupCommitWriter {
+
+    private final WalletPersistencePort walletPersistence;
+    private final TransactionPersistencePort transactionPersistence;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final CacheService cacheService;
+
+    private final ConcurrentHashMap<UUID, Batch> openBatches = new ConcurrentHashMap<>();
+
+    @Value("${app.wallet.group-commit.enabled}")
+    private boolean enabled;
+    @Value("${app.wallet.group-commit.max-batch-size}")
+    private int maxBatchSize;
+    @Value("${app.wallet.group-commit.max-wait-micros}")
+    private long maxWaitMicros;
+    @Value("${app.wallet.group-commit.writer-threads}")
+    private int writerThreads;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ScheduledExecutorService[] executors;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        executors = new ScheduledExecutorService[writerThreads];
+        for (int i = 0; i < writerThreads; i++) {
+            executors[i] = Executors.newSingleThreadScheduledExecutor(
+                    WorkerThreads.builder(virtualThreads).name("wallet-group-commit-" + i).factory());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executors != null) {
+            Arrays.stream(executors).forEach(ScheduledExecutorService::shutdown);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void apply(UUID walletId, BigDecimal amount, TransactionType type) {
+        PendingWrite write = new PendingWrite(amount, type, new CompletableFuture<>());
+        Batch[] opened = new Batch[1];
+        Batch[] full = new Batch[1];
+        // compute holds the bin's monitor, which pins a virtual carrier thread: only touch the batch
+        // in here and hand it to the executor once the monitor is released
+        openBatches.compute(walletId, (id, batch) -> {
+            Batch open = batch;
+            if (open == null) {
+                open = new Batch();
+                opened[0] = open;
+            }
+            open.writes.add(write);
+            if (open.writes.size() < maxBatchSize) {
+                return open;
+            }
+            full[0] = open;
+            return null;
+        });
+        if (full[0] != null) {
+            writerOf(walletId).execute(() -> commit(walletId, full[0]));
+        } else if (opened[0] != null) {
+            scheduleFlush(walletId, opened[0]);
+        }
+        await(write.result());
+    }
+
+    int writerIndexOf(UUID walletId) {
+        return Math.floorMod(walletId.hashCode(), writerThreads);
+    }
+
+    private ScheduledExecutorService writerOf(UUID walletId) {
+        return executors[writerIndexOf(walletId)];
+    }
+
+    private void scheduleFlush(UUID walletId, Batch batch) {
+        writerOf(walletId).schedule(() -> {
+            if (openBatches.remove(walletId, batch)) {
+                commit(walletId, batch);
+            }
+        }, maxWaitMicros, TimeUnit.MICROSECONDS);
+    }
+
+    private void commit(UUID walletId, Batch batch) {
+        DistributionSummary.builder("wallet.balance.batch.size")
+                .register(meterRegistry)
+                .record(batch.writes.size());
+        List<RuntimeException> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> write(walletId, batch.writes));
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} writes to wallet {} failed", batch.writes.size(), walletId, e);
+            batch.writes.forEach(write -> write.result().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.writes.size(); i++) {
+            CompletableFuture<Void> result = batch.writes.get(i).result();
+            RuntimeException rejection = outcomes.get(i);
+            if (rejection == null) {
+                result.complete(null);
+            } else {
+                result.completeExceptionally(rejection);
+            }
+        }
+    }
+
+    private List<RuntimeException> write(UUID walletId, List<PendingWrite> writes) {
+        Wallet wallet = walletPersistence.findByIdForUpdate(walletId)
+                .orElseThrow(WalletNotFoundException::new);
+        List<Transaction> accepted = new ArrayList<>(writes.size());
+        List<RuntimeException> outcomes = new ArrayList<>(writes.size());
+        for (PendingWrite write : writes) {
+            try {
+                accepted.add(write.type() == TransactionType.DEPOSIT
+                        ? wallet.deposit(write.amount())
+                        : wallet.withdraw(write.amount()));
+                outcomes.add(null);
+            } catch (InsufficientFundsException e) {
+                outcomes.add(e);
+            }
+        }
+        if (!accepted.isEmpty()) {
+            walletPersistence.save(wallet);
+            transactionPersistence.saveAll(accepted);
+            cacheService.walletChanged(walletId, WalletBalance.of(wallet));
+        }
+        return outcomes;
+    }
+
+    private void await(CompletableFuture<Void> result) {
+        try {
+            result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record PendingWrite(BigDecimal amount, TransactionType type, CompletableFuture<Void> result) {
+    }
+
+    private static final class Batch {
+        private final List<PendingWrite> writes = new ArrayList<>();
+    }
+}
@@ -0,0 +1,169 @@
+package com.rgs.wallet.application.service.concurrency;
+
+import com.rgs.wallet.domain.exceptions.InsufficientFundsException;
+import com.rgs.wallet.domain.exceptions.WalletNotFoundException;
+import com.rgs.wallet.domain.exceptions.WalletUpdateConflictException;
+import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletBalance;
+import com.rgs.wallet.infrastructure.idempotency.CacheService;
+import com.rgs.wallet.ports.out.TransactionPersistencePort;
+import com.rgs.wallet.ports.out.WalletPersistencePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WalletBalanceUpdater {
+
+    private final WalletPersistencePort walletPersistence;
+    private final TransactionPersistencePort transactionPersistence;
+    private final MeterRegistry meterRegistry;
+    private final WalletStriping striping;
+    private final GroupCommitWriter groupCommitWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheService cacheService;
+
+    @Value("${app.wallet.concurrency.mode}")
+    private ConcurrencyMode mode;
+    @Value("${app.wallet.concurrency.optimistic-max-attempts}")
+    private int optimisticMaxAttempts;
+    @Value("${app.wallet.concurrency.optimistic-backoff-ms}")
+    private long optimisticBackoffMs;
+
+    /**
+     * Runs in its own transaction rather than the caller's so that, with group commit enabled,
+     * callers waiting on a batch do not each hold a pooled connection. The wallet's cache entries are
+     * brought up to date once that transaction commits.
+     */
+    public void apply(UUID walletId, BigDecimal amount, TransactionType type) {
+        if (groupCommitWriter.isEnabled() && !striping.isStriped(walletId)) {
+            requirePositive(amount);
+            counter("wallet.balance.updates", "GROUP_COMMIT").increment();
+            groupCommitWriter.apply(walletId, amount, type);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> applyInTransaction(walletId, amount, type));
+    }
+
+    /**
+     * Applies the write in the caller's transaction, never through group commit, for callers that must
+     * commit it together with writes of their own.
+     */
+    public void applyInTransaction(UUID walletId, BigDecimal amount, TransactionType type) {
+        if (striping.isStriped(walletId)) {
+            counter("wallet.balance.updates", "STRIPED").increment();
+            applyStriped(walletId, amount, type);
+            cacheService.clearCache(walletId);
+            return;
+        }
+        counter("wallet.balance.updates").increment();
+        cacheService.walletChanged(walletId, switch (mode) {
+            case ATOMIC_DELTA -> applyAtomicDelta(walletId, amount, type);
+            case PESSIMISTIC -> applyPessimistic(walletId, amount, type);
+            case OPTIMISTIC -> applyOptimistic(walletId, amount, type);
+        });
+    }
+
+    private void applyStriped(UUID walletId, BigDecimal amount, TransactionType type) {
+        requirePositive(amount);
+        BigDecimal delta = type.toDelta(amount);
+        if (walletPersistence.applyStripeDelta(walletId, striping.pickStripe(), delta, type).isPresent()) {
+            return;
+        }
+        // the picked stripe cannot cover the debit: borrow from all of them via the wallet row
+        counter("wallet.balance.stripe.folds", "STRIPED").increment();
+        walletPersistence.foldBalanceStripes(walletId);
+        if (walletPersistence.applyStripedWalletDelta(walletId, delta, type).isEmpty()) {
+            findWallet(walletId);
+            throw new InsufficientFundsException();
+        }
+    }
+
+    private WalletBalance applyAtomicDelta(UUID walletId, BigDecimal amount, TransactionType type) {
+        requirePositive(amount);
+        var newBalance = walletPersistence.applyBalanceDelta(walletId, type.toDelta(amount), type);
+        if (newBalance.isEmpty()) {
+            findWallet(walletId);
+            throw new InsufficientFundsException();
+        }
+        return newBalance.get();
+    }
+
+    private WalletBalance applyPessimistic(UUID walletId, BigDecimal amount, TransactionType type) {
+        Wallet wallet = walletPersistence.findByIdForUpdate(walletId)
+                .orElseThrow(WalletNotFoundException::new);
+        Transaction transaction = mutate(wallet, amount, type);
+        walletPersistence.save(wallet);
+        transactionPersistence.save(transaction);
+        return WalletBalance.of(wallet);
+    }
+
+    private WalletBalance applyOptimistic(UUID walletId, BigDecimal amount, TransactionType type) {
+        for (int attempt = 1; ; attempt++) {
+            Wallet wallet = findWallet(walletId);
+            Transaction transaction = mutate(wallet, amount, type);
+            if (walletPersistence.updateBalanceWithVersionCheck(wallet)) {
+                transactionPersistence.save(transaction);
+                return WalletBalance.of(wallet);
+            }
+
+            counter("wallet.balance.conflicts").increment();
+            if (attempt >= optimisticMaxAttempts) {
+                log.warn("Giving up on wallet {} after {} optimistic conflicts", walletId, attempt);
+                throw new WalletUpdateConflictException();
+            }
+            backoff(attempt);
+        }
+    }
+
+    private void requirePositive(BigDecimal amount) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+    }
+
+    private Transaction mutate(Wallet wallet, BigDecimal amount, TransactionType type) {
+        return switch (type) {
+            case DEPOSIT -> wallet.deposit(amount);
+            case WITHDRAWAL -> wallet.withdraw(amount);
+            default -> throw new IllegalArgumentException("Unsupported single wallet operation: " + type);
+        };
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = optimisticBackoffMs << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WalletUpdateConflictException();
+        }
+    }
+
+    private Counter counter(String name) {
+        return counter(name, mode.name());
+    }
+
+    private Counter counter(String name, String modeTag) {
+        return Counter.builder(name)
+                .tag("mode", modeTag)
+                .register(meterRegistry);
+    }
+
+    private Wallet findWallet(UUID walletId) {
+        return walletPersistence.findById(walletId)
+                .orElseThrow(WalletNotFoundException::new);
+    }
+}
@@ -0,0 +1,95 @@
+package com.rgs.wallet.application.service.concurrency;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Routes every write for a wallet to one of a fixed set of single-threaded partitions (hash of the
+ * wallet id), so writes to the same wallet are serialized in memory. Work spanning several wallets
+ * hops through their partitions in ascending index order: each partition thread only ever waits on
+ * a higher one, so cross-partition transfers cannot deadlock.
+ * <p>
+ * Group commit hands writes to its own writer threads, outside the partitions, so the two cannot be
+ * enabled together.
+ */
+@Component
+public class WalletPartitionExecutor {
+
+    @Value("${app.wallet.single-writer.enabled}")
+    private boolean enabled;
+    @Value("${app.wallet.single-writer.partitions}")
+    private int partitions;
+    @Value("${app.wallet.group-commit.enabled}")
+    private boolean groupCommit;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ExecutorService[] executors;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (groupCommit) {
+            throw new IllegalStateException(
+                    "app.wallet.single-writer and app.wallet.group-commit cannot be enabled together");
+        }
+        executors = new ExecutorService[partitions];
+        for (int i = 0; i < partitions; i++) {
+            executors[i] = Executors.newSingleThreadExecutor(
+                    WorkerThreads.builder(virtualThreads).name("wallet-writer-" + i).factory());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executors != null) {
+            Arrays.stream(executors).forEach(ExecutorService::shutdown);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void execute(Runnable operation, UUID... walletIds) {
+        int[] owners = Arrays.stream(walletIds)
+                .mapToInt(this::partitionOf)
+                .distinct()
+                .sorted()
+                .toArray();
+        await(submit(owners, 0, operation));
+    }
+
+    int partitionOf(UUID walletId) {
+        return Math.floorMod(walletId.hashCode(), partitions);
+    }
+
+    private CompletableFuture<Void> submit(int[] owners, int next, Runnable operation) {
+        Runnable step = next == owners.length - 1
+                ? operation
+                : () -> await(submit(owners, next + 1, operation));
+        return CompletableFuture.runAsync(step, executors[owners[next]]);
+    }
+
+    private void await(CompletableFuture<Void> result) {
+        try {
+            result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
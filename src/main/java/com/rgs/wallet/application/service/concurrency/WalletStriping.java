@@ -0,0 +1,29 @@
+package com.rgs.wallet.application.service.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opt-in list of hot wallets whose single-wallet writes are spread over {@code stripes}
+ * sub-balance rows instead of contending on the wallet row.
+ */
+@Component
+public class WalletStriping {
+
+    @Value("${app.wallet.striping.stripes}")
+    private int stripes;
+    @Value("${app.wallet.striping.wallet-ids}")
+    private Set<UUID> stripedWalletIds;
+
+    public boolean isStriped(UUID walletId) {
+        return stripedWalletIds.contains(walletId);
+    }
+
+    public int pickStripe() {
+        return ThreadLocalRandom.current().nextInt(stripes);
+    }
+}
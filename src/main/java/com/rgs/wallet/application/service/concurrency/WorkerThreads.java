@@ -0,0 +1,15 @@
+package com.rgs.wallet.application.service.concurrency;
+
+/**
+ * Thread builder for the service's internal executors. Follows {@code spring.threads.virtual.enabled}
+ * so background writers run on virtual threads whenever request handling does.
+ */
+public final class WorkerThreads {
+
+    private WorkerThreads() {
+    }
+
+    public static Thread.Builder builder(boolean virtual) {
+        return virtual ? Thread.ofVirtual() : Thread.ofPlatform();
+    }
+}
@@ -27,4 +27,9 @@ public class WalletFallbackHandler {
         log.error("Fallback triggered for transfer. From: {}, To: {}, Reason: {}", fromWalletId, toWalletId, t.getMessage());
         throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, ErrorCodeEnum.WS500001);
     }
+
+    public void handleBatchTransferFallback(UUID batchId, int legs, Throwable t) {
+        log.error("Fallback triggered for batch transfer. Batch: {}, Legs: {}, Reason: {}", batchId, legs, t.getMessage());
+        throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, ErrorCodeEnum.WS500001);
+    }
 }
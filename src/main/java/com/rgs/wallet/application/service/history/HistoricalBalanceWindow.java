@@ -0,0 +1,44 @@
+package com.rgs.wallet.application.service.history;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Decides which instant a historical balance is looked up at and whether its answer can still change.
+ * Ledger rows are stamped from the database clock while their writer holds the wallet row, so an
+ * instant older than {@code settle-minutes} only gains rows from a transaction left open that long after
+ * stamping; its balance is treated as immutable and cached without expiry.
+ */
+@Component
+public class HistoricalBalanceWindow {
+
+    @Value("${app.cache.historical.bucket-millis}")
+    private long bucketMillis;
+    @Value("${app.cache.historical.settle-minutes}")
+    private long settleMinutes;
+
+    /**
+     * Rounds the requested instant down to the configured bucket, so nearby requests share one lookup.
+     */
+    public Instant resolve(Instant requested) {
+        if (!isBucketed()) {
+            return requested;
+        }
+        return Instant.ofEpochMilli(Math.floorDiv(requested.toEpochMilli(), bucketMillis) * bucketMillis);
+    }
+
+    /**
+     * Whether requests are rounded to buckets. Only then do enough of them share an instant for a cache
+     * keyed by instant to pay off; exact instants are cached by the ledger row they resolve to.
+     */
+    public boolean isBucketed() {
+        return bucketMillis > 0;
+    }
+
+    public boolean isSettled(Instant at) {
+        return at.isBefore(Instant.now().minus(Duration.ofMinutes(settleMinutes)));
+    }
+}
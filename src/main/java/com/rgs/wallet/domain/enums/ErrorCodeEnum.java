@@ -6,12 +6,18 @@ import java.util.ResourceBundle;
 public enum ErrorCodeEnum {
     WS400001,
     WS400002,
+    WS400003,
+    WS400004,
     WS404001,
     WS404002,
+    WS404003,
     WS409001,
     WS409002,
     WS409003,
+    WS409004,
+    WS409005,
     WS429001,
+    WS429002,
     WS500001;
 
     public String getMessage(final Locale messageLocale){
@@ -0,0 +1,12 @@
+package com.rgs.wallet.domain.exceptions;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends BusinessException {
+    public InvalidCursorException() {
+        super(HttpStatus.BAD_REQUEST, ErrorCodeEnum.WS400003);
+    }
+}
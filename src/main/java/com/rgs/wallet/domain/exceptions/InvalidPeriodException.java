@@ -0,0 +1,10 @@
+package com.rgs.wallet.domain.exceptions;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import org.springframework.http.HttpStatus;
+
+public class InvalidPeriodException extends BusinessException {
+    public InvalidPeriodException() {
+        super(HttpStatus.BAD_REQUEST, ErrorCodeEnum.WS400004);
+    }
+}
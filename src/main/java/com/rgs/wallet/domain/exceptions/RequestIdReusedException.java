@@ -0,0 +1,10 @@
+package com.rgs.wallet.domain.exceptions;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import org.springframework.http.HttpStatus;
+
+public class RequestIdReusedException extends BusinessException {
+    public RequestIdReusedException() {
+        super(HttpStatus.CONFLICT, ErrorCodeEnum.WS409005);
+    }
+}
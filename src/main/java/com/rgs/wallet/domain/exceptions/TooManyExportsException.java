@@ -0,0 +1,10 @@
+package com.rgs.wallet.domain.exceptions;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import org.springframework.http.HttpStatus;
+
+public class TooManyExportsException extends BusinessException {
+    public TooManyExportsException() {
+        super(HttpStatus.TOO_MANY_REQUESTS, ErrorCodeEnum.WS429002);
+    }
+}
@@ -0,0 +1,15 @@
+package com.rgs.wallet.domain.exceptions;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class WalletCommandNotFoundException extends BusinessException {
+    public WalletCommandNotFoundException() {
+        super(
+                HttpStatus.NOT_FOUND,
+                ErrorCodeEnum.WS404003
+        );
+    }
+}
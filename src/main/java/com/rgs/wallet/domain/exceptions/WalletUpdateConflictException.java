@@ -0,0 +1,12 @@
+package com.rgs.wallet.domain.exceptions;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class WalletUpdateConflictException extends BusinessException {
+    public WalletUpdateConflictException() {
+        super(HttpStatus.CONFLICT, ErrorCodeEnum.WS409004);
+    }
+}
@@ -0,0 +1,6 @@
+package com.rgs.wallet.domain.model;
+
+public enum BatchTransferMode {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
@@ -0,0 +1,89 @@
+package com.rgs.wallet.domain.model;
+
+import com.rgs.wallet.domain.utils.TimeOrderedUuid;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class JournalEntry {
+
+    public static final UUID EXTERNAL_CLEARING_ACCOUNT = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private UUID id;
+    private JournalEntryType type;
+    private Instant createdAt;
+    private List<JournalPosting> postings;
+
+    public static List<JournalEntry> fromTransactions(List<Transaction> transactions) {
+        List<JournalEntry> entries = new ArrayList<>();
+        Map<UUID, List<Transaction>> transfers = new LinkedHashMap<>();
+
+        for (Transaction transaction : transactions) {
+            switch (transaction.getType()) {
+                case DEPOSIT -> entries.add(externalEntry(JournalEntryType.DEPOSIT, transaction));
+                case WITHDRAWAL -> entries.add(externalEntry(JournalEntryType.WITHDRAWAL, transaction));
+                case TRANSFER_OUT -> transfers.computeIfAbsent(transaction.getId(), id -> new ArrayList<>())
+                        .add(transaction);
+                case TRANSFER_IN -> transfers.computeIfAbsent(transaction.getRelatedTransactionId(), id -> new ArrayList<>())
+                        .add(transaction);
+            }
+        }
+
+        transfers.values().forEach(legs -> entries.add(newEntry(
+                JournalEntryType.TRANSFER,
+                legs.get(0).getCreatedAt(),
+                legs.stream().map(JournalEntry::walletPosting).toList())));
+
+        entries.forEach(JournalEntry::assertBalanced);
+        return entries;
+    }
+
+    public void assertBalanced() {
+        BigDecimal total = postings.stream()
+                .map(JournalPosting::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (postings.size() < 2 || total.signum() != 0) {
+            throw new IllegalStateException("Journal entry " + id + " does not balance");
+        }
+    }
+
+    private static JournalEntry externalEntry(JournalEntryType type, Transaction transaction) {
+        JournalPosting walletPosting = walletPosting(transaction);
+        JournalPosting clearingPosting = JournalPosting.builder()
+                .id(TimeOrderedUuid.generate())
+                .accountId(EXTERNAL_CLEARING_ACCOUNT)
+                .transactionId(transaction.getId())
+                .amount(walletPosting.getAmount().negate())
+                .createdAt(transaction.getCreatedAt())
+                .build();
+        return newEntry(type, transaction.getCreatedAt(), List.of(walletPosting, clearingPosting));
+    }
+
+    private static JournalPosting walletPosting(Transaction transaction) {
+        return JournalPosting.builder()
+                .id(TimeOrderedUuid.generate())
+                .accountId(transaction.getWallet().getId())
+                .transactionId(transaction.getId())
+                .amount(transaction.getType().toDelta(transaction.getAmount()))
+                .createdAt(transaction.getCreatedAt())
+                .build();
+    }
+
+    private static JournalEntry newEntry(JournalEntryType type, Instant createdAt, List<JournalPosting> postings) {
+        return JournalEntry.builder()
+                .id(TimeOrderedUuid.generate())
+                .type(type)
+                .createdAt(createdAt)
+                .postings(postings)
+                .build();
+    }
+}
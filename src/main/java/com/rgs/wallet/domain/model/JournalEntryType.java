@@ -0,0 +1,7 @@
+package com.rgs.wallet.domain.model;
+
+public enum JournalEntryType {
+    DEPOSIT,
+    WITHDRAWAL,
+    TRANSFER
+}
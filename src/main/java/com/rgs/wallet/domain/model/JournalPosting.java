@@ -0,0 +1,18 @@
+package com.rgs.wallet.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class JournalPosting {
+    private UUID id;
+    private UUID accountId;
+    private UUID transactionId;
+    private BigDecimal amount;
+    private Instant createdAt;
+}
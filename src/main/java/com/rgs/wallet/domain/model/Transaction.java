@@ -18,6 +18,8 @@ public class Transaction {
     private TransactionType type;
     private Instant createdAt;
     private UUID relatedTransactionId;
+    private Long sequence;
+    private BigDecimal balanceAfter;
 
     public void linkWithRelatedTransaction(UUID relatedId) {
         if (this.type != TransactionType.TRANSFER_IN && this.type != TransactionType.TRANSFER_OUT) {
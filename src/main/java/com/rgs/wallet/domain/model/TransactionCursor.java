@@ -0,0 +1,25 @@
+package com.rgs.wallet.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Position in a wallet's transaction history, newest first: the next page starts strictly after the
+ * transaction with this {@code (createdAt, id)}.
+ */
+@Getter
+@Builder
+public class TransactionCursor {
+    private Instant createdAt;
+    private UUID id;
+
+    public static TransactionCursor of(TransactionRecord transaction) {
+        return TransactionCursor.builder()
+                .createdAt(transaction.getCreatedAt())
+                .id(transaction.getId())
+                .build();
+    }
+}
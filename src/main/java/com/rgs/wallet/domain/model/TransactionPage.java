@@ -0,0 +1,13 @@
+package com.rgs.wallet.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class TransactionPage {
+    private List<TransactionRecord> transactions;
+    private TransactionCursor nextCursor;
+}
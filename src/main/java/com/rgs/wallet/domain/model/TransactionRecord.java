@@ -0,0 +1,27 @@
+package com.rgs.wallet.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read-only view of a ledger row that references its wallet by id instead of carrying the wallet and
+ * its owner, for reads that only list transactions.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class TransactionRecord {
+    private UUID id;
+    private UUID walletId;
+    private BigDecimal amount;
+    private TransactionType type;
+    private Instant createdAt;
+    private UUID relatedTransactionId;
+    private Long sequence;
+    private BigDecimal balanceAfter;
+}
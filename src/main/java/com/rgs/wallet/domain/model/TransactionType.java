@@ -1,8 +1,18 @@
 package com.rgs.wallet.domain.model;
 
+import java.math.BigDecimal;
+
 public enum TransactionType {
     DEPOSIT,
     WITHDRAWAL,
     TRANSFER_IN,
-    TRANSFER_OUT
-}
\ No newline at end of file
+    TRANSFER_OUT;
+
+    public boolean isCredit() {
+        return this == DEPOSIT || this == TRANSFER_IN;
+    }
+
+    public BigDecimal toDelta(BigDecimal amount) {
+        return isCredit() ? amount : amount.negate();
+    }
+}
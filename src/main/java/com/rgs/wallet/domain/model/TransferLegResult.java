@@ -0,0 +1,39 @@
+package com.rgs.wallet.domain.model;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+public class TransferLegResult {
+    private int index;
+    private TransferLegStatus status;
+    private ErrorCodeEnum errorCode;
+    private UUID transactionId;
+
+    public static TransferLegResult completed(int index, UUID transactionId) {
+        return TransferLegResult.builder()
+                .index(index)
+                .status(TransferLegStatus.COMPLETED)
+                .transactionId(transactionId)
+                .build();
+    }
+
+    public static TransferLegResult rejected(int index, ErrorCodeEnum errorCode) {
+        return TransferLegResult.builder()
+                .index(index)
+                .status(TransferLegStatus.REJECTED)
+                .errorCode(errorCode)
+                .build();
+    }
+
+    public static TransferLegResult notExecuted(int index) {
+        return TransferLegResult.builder()
+                .index(index)
+                .status(TransferLegStatus.NOT_EXECUTED)
+                .build();
+    }
+}
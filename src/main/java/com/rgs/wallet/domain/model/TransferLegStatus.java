@@ -0,0 +1,7 @@
+package com.rgs.wallet.domain.model;
+
+public enum TransferLegStatus {
+    COMPLETED,
+    REJECTED,
+    NOT_EXECUTED
+}
@@ -0,0 +1,15 @@
+package com.rgs.wallet.domain.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class TransferOrder {
+    private UUID fromWalletId;
+    private UUID toWalletId;
+    private BigDecimal amount;
+}
@@ -1,6 +1,7 @@
 package com.rgs.wallet.domain.model;
 
 import com.rgs.wallet.domain.exceptions.InsufficientFundsException;
+import com.rgs.wallet.domain.utils.TimeOrderedUuid;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -21,6 +22,13 @@ public class Wallet {
     private WalletStatus status;
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
+    private long ledgerSequence;
+    /**
+     * Instant this wallet's ledger rows are stamped with, read from the database clock together with the
+     * locked wallet row and never earlier than its latest row, so rows sort by (createdAt, sequence).
+     */
+    private Instant ledgerAt;
     @Builder.Default
     private List<Transaction> transactions = new ArrayList<>();
 
@@ -30,12 +38,13 @@ public class Wallet {
         this.updatedAt = Instant.now();
 
         Transaction transaction = Transaction.builder()
+                .id(TimeOrderedUuid.generate())
                 .wallet(this)
                 .amount(amount)
                 .type(TransactionType.DEPOSIT)
-                .createdAt(Instant.now())
                 .build();
 
+        record(transaction);
         this.transactions.add(transaction);
         return transaction;
     }
@@ -49,16 +58,36 @@ public class Wallet {
         this.updatedAt = Instant.now();
 
         Transaction transaction = Transaction.builder()
+                .id(TimeOrderedUuid.generate())
                 .wallet(this)
                 .amount(amount)
                 .type(TransactionType.WITHDRAWAL)
-                .createdAt(Instant.now())
                 .build();
 
+        record(transaction);
         this.transactions.add(transaction);
         return transaction;
     }
 
+    /**
+     * Stamps a ledger row with this wallet's next sequence number, the balance it leaves behind and
+     * {@link #ledgerAt}. Call once the balance change the row records has been applied.
+     */
+    public void record(Transaction transaction) {
+        this.ledgerSequence++;
+        transaction.setSequence(ledgerSequence);
+        transaction.setBalanceAfter(balance);
+        transaction.setCreatedAt(ledgerAt);
+    }
+
+    /**
+     * Stamps a ledger row of a striped wallet with {@link #ledgerAt} only: the wallet row holds just part
+     * of its balance, so like the stripe writes the row carries no running balance or sequence.
+     */
+    public void recordUnsequenced(Transaction transaction) {
+        transaction.setCreatedAt(ledgerAt);
+    }
+
     public void activate() {
         this.status = WalletStatus.ACTIVE;
         this.updatedAt = Instant.now();
@@ -0,0 +1,24 @@
+package com.rgs.wallet.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A wallet's row balance together with the ledger sequence it was read or written at, so copies of it
+ * can be ordered: a higher sequence is always the newer balance. {@code updatedAt} is the row's
+ * timestamp at that sequence.
+ */
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class WalletBalance {
+    private final BigDecimal balance;
+    private final long sequence;
+    private final Instant updatedAt;
+
+    public static WalletBalance of(Wallet wallet) {
+        return of(wallet.getBalance(), wallet.getLedgerSequence(), wallet.getUpdatedAt());
+    }
+}
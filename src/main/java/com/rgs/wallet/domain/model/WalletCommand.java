@@ -0,0 +1,72 @@
+package com.rgs.wallet.domain.model;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A write accepted for asynchronous execution. The id is the client's X-Request-ID; a worker marks the
+ * command COMPLETED in the same transaction that applies it, so the row itself is what keeps a
+ * reclaimed command from being applied twice.
+ */
+@Getter
+@Setter
+@Builder
+public class WalletCommand {
+    private UUID id;
+    private WalletCommandType type;
+    private UUID walletId;
+    private UUID targetWalletId;
+    private BigDecimal amount;
+    @Builder.Default
+    private WalletCommandStatus status = WalletCommandStatus.PENDING;
+    private ErrorCodeEnum errorCode;
+    private int attempts;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    /**
+     * Whether {@code other} asks for the same write, i.e. is a retry of this command rather than a
+     * different request reusing its id.
+     */
+    public boolean isSameRequestAs(WalletCommand other) {
+        return type == other.type
+                && Objects.equals(walletId, other.walletId)
+                && Objects.equals(targetWalletId, other.targetWalletId)
+                && amount.compareTo(other.amount) == 0;
+    }
+
+    public static WalletCommand deposit(UUID requestId, UUID walletId, BigDecimal amount) {
+        return WalletCommand.builder()
+                .id(requestId)
+                .type(WalletCommandType.DEPOSIT)
+                .walletId(walletId)
+                .amount(amount)
+                .build();
+    }
+
+    public static WalletCommand withdrawal(UUID requestId, UUID walletId, BigDecimal amount) {
+        return WalletCommand.builder()
+                .id(requestId)
+                .type(WalletCommandType.WITHDRAWAL)
+                .walletId(walletId)
+                .amount(amount)
+                .build();
+    }
+
+    public static WalletCommand transfer(UUID requestId, UUID fromWalletId, UUID toWalletId, BigDecimal amount) {
+        return WalletCommand.builder()
+                .id(requestId)
+                .type(WalletCommandType.TRANSFER)
+                .walletId(fromWalletId)
+                .targetWalletId(toWalletId)
+                .amount(amount)
+                .build();
+    }
+}
@@ -0,0 +1,8 @@
+package com.rgs.wallet.domain.model;
+
+public enum WalletCommandStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
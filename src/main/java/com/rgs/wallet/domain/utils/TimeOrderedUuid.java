@@ -0,0 +1,21 @@
+package com.rgs.wallet.domain.utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RFC 9562 version 7 UUIDs: a 48-bit millisecond timestamp followed by random bits, so ids generated
+ * close together sort together and new ledger rows land on the right-hand edge of the primary key index.
+ */
+public final class TimeOrderedUuid {
+
+    private TimeOrderedUuid() {
+    }
+
+    public static UUID generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (System.currentTimeMillis() << 16) | 0x7000L | (random.nextInt() & 0x0FFFL);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -1,16 +1,33 @@
 package com.rgs.wallet.infrastructure.api.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgs.wallet.domain.exceptions.InvalidPeriodException;
+import com.rgs.wallet.domain.model.TransactionType;
 import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletCommand;
 import com.rgs.wallet.infrastructure.api.controllers.docs.WalletControllerDocs;
 import com.rgs.wallet.infrastructure.api.dtos.*;
+import com.rgs.wallet.infrastructure.api.export.StatementExportLimiter;
+import com.rgs.wallet.infrastructure.api.export.StatementFormat;
+import com.rgs.wallet.infrastructure.api.export.StatementWriter;
+import com.rgs.wallet.ports.in.WalletCommandPort;
 import com.rgs.wallet.ports.in.WalletServicePort;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -20,6 +37,9 @@ import java.util.UUID;
 public class WalletController implements WalletControllerDocs {
 
     private final WalletServicePort walletService;
+    private final WalletCommandPort commandService;
+    private final ObjectMapper objectMapper;
+    private final StatementExportLimiter exportLimiter;
 
     @Override
     @PostMapping
@@ -40,10 +60,57 @@ public class WalletController implements WalletControllerDocs {
         return ResponseEntity.ok(WalletResponse.fromDomain(walletService.getWallet(walletId)));
     }
 
+    @Override
+    @GetMapping("/{walletId}/transactions")
+    public ResponseEntity<TransactionPageResponse> getTransactions(@PathVariable UUID walletId,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "50") @Positive int limit,
+                                                                   @RequestParam(required = false) TransactionType type) {
+        var page = walletService.getTransactionPage(walletId, TransactionCursorToken.decode(cursor), limit, type);
+        return ResponseEntity.ok(TransactionPageResponse.fromDomain(page));
+    }
+
+    @Override
+    @GetMapping("/{walletId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable UUID walletId,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(defaultValue = "NDJSON") StatementFormat format,
+            NativeWebRequest request) {
+        // answer 400/404/429 now: once the body starts streaming the status is already committed
+        if (startDate.isAfter(endDate)) {
+            throw new InvalidPeriodException();
+        }
+        walletService.getWallet(walletId);
+        StatementExportLimiter.Permit permit = exportLimiter.acquire();
+        // the end of the async request releases it too, should the body time out before it runs
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(permit, permit);
+        StreamingResponseBody body = out -> {
+            try {
+                StatementWriter writer = format.open(out, objectMapper);
+                walletService.exportTransactions(walletId, startDate, endDate, writer::write);
+                writer.finish();
+            } finally {
+                permit.release();
+            }
+        };
+        ContentDisposition attachment = ContentDisposition.attachment()
+                .filename("wallet-" + walletId + "." + format.getExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment.toString())
+                .body(body);
+    }
+
     @Override
     @PostMapping("/deposit")
     public ResponseEntity<Void> deposit(@RequestBody @Valid SingleWalletOperationRequest request,
                                         @RequestHeader("X-Request-ID") @NotNull UUID requestId) {
+        if (commandService.isEnabled()) {
+            return accepted(commandService.submit(WalletCommand.deposit(requestId, request.walletId(), request.amount())));
+        }
         walletService.deposit(request.walletId(), request.amount(), requestId);
         return ResponseEntity.accepted().build();
     }
@@ -52,6 +119,9 @@ public class WalletController implements WalletControllerDocs {
     @PostMapping("/withdraw")
     public ResponseEntity<Void> withdraw(@RequestBody @Valid SingleWalletOperationRequest request,
                                          @RequestHeader("X-Request-ID") @NotNull UUID requestId) {
+        if (commandService.isEnabled()) {
+            return accepted(commandService.submit(WalletCommand.withdrawal(requestId, request.walletId(), request.amount())));
+        }
         walletService.withdraw(request.walletId(), request.amount(), requestId);
         return ResponseEntity.accepted().build();
     }
@@ -60,14 +130,40 @@ public class WalletController implements WalletControllerDocs {
     @PostMapping("/transfer")
     public ResponseEntity<Void> transfer(@RequestBody @Valid TransferBetweenWalletsRequest request,
                                          @RequestHeader("X-Request-ID") @NotNull UUID requestId) {
+        if (commandService.isEnabled()) {
+            return accepted(commandService.submit(WalletCommand.transfer(
+                    requestId, request.fromWalletId(), request.toWalletId(), request.amount())));
+        }
         walletService.transfer(request.fromWalletId(), request.toWalletId(), request.amount(), requestId);
         return ResponseEntity.accepted().build();
     }
 
+    @Override
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<BatchTransferResponse> transferBatch(@RequestBody @Valid BatchTransferRequest request,
+                                                               @RequestHeader("X-Request-ID") @NotNull UUID batchId) {
+        var results = walletService.transferBatch(request.toOrders(), request.effectiveMode(), batchId);
+        return ResponseEntity.ok(BatchTransferResponse.fromDomain(batchId, results));
+    }
+
+    @Override
+    @GetMapping("/commands/{commandId}")
+    public ResponseEntity<WalletCommandResponse> getCommand(@PathVariable UUID commandId) {
+        return ResponseEntity.ok(WalletCommandResponse.fromDomain(commandService.getCommand(commandId)));
+    }
+
     @Override
     @GetMapping("/{walletId}/historical-balance")
     public ResponseEntity<WalletHistoricalBalanceResponse> getHistoricalBalance(UUID walletId, Instant timestamp) {
         BigDecimal balance = walletService.getHistoricalBalance(walletId, timestamp);
         return ResponseEntity.ok(new WalletHistoricalBalanceResponse(balance, timestamp, walletId));
     }
+
+    private ResponseEntity<Void> accepted(WalletCommand command) {
+        URI status = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/wallets/commands/{commandId}")
+                .buildAndExpand(command.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(status).build();
+    }
 }
@@ -0,0 +1,62 @@
+package com.rgs.wallet.infrastructure.api.controllers;
+
+import com.rgs.wallet.infrastructure.api.controllers.docs.WalletQueryControllerDocs;
+import com.rgs.wallet.infrastructure.api.dtos.TransactionResponse;
+import com.rgs.wallet.infrastructure.api.dtos.WalletBalanceResponse;
+import com.rgs.wallet.infrastructure.api.dtos.WalletHistoricalBalanceResponse;
+import com.rgs.wallet.infrastructure.api.dtos.WalletResponse;
+import com.rgs.wallet.ports.in.WalletQueryPort;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read-only endpoints for high-volume pollers. Spring MVC subscribes to the returned publishers and
+ * releases the servlet thread until they complete, so waiting on Postgres or Redis holds no thread.
+ */
+@RestController
+@RequestMapping("/api/v2/wallets")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive-reads.enabled", havingValue = "true")
+public class WalletQueryController implements WalletQueryControllerDocs {
+
+    private final WalletQueryPort walletQuery;
+
+    @Override
+    @GetMapping("/{walletId}/balance")
+    public Mono<WalletBalanceResponse> getBalance(@PathVariable UUID walletId) {
+        return walletQuery.getBalance(walletId)
+                .map(balance -> new WalletBalanceResponse(balance, walletId));
+    }
+
+    @Override
+    @GetMapping("/{walletId}")
+    public Mono<WalletResponse> getWallet(@PathVariable UUID walletId) {
+        return walletQuery.getWallet(walletId).map(WalletResponse::fromDomain);
+    }
+
+    @Override
+    @GetMapping("/{walletId}/historical-balance")
+    public Mono<WalletHistoricalBalanceResponse> getHistoricalBalance(
+            @PathVariable UUID walletId,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant timestamp) {
+        return walletQuery.getHistoricalBalance(walletId, timestamp)
+                .map(balance -> new WalletHistoricalBalanceResponse(balance, timestamp, walletId));
+    }
+
+    @Override
+    @GetMapping("/{walletId}/transactions")
+    public Flux<TransactionResponse> getTransactions(
+            @PathVariable UUID walletId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate) {
+        return walletQuery.getTransactions(walletId, startDate, endDate).map(TransactionResponse::fromRecord);
+    }
+}
@@ -1,6 +1,8 @@
 package com.rgs.wallet.infrastructure.api.controllers.docs;
 
+import com.rgs.wallet.domain.model.TransactionType;
 import com.rgs.wallet.infrastructure.api.dtos.*;
+import com.rgs.wallet.infrastructure.api.export.StatementFormat;
 import com.rgs.wallet.infrastructure.api.exceptions.ExceptionResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,12 +10,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -41,6 +46,47 @@ public interface WalletControllerDocs {
     @Operation(summary = "Get wallet details", description = "Retrieves the details of a specified wallet.")
     ResponseEntity<WalletResponse> getWallet(@PathVariable UUID walletId);
 
+    @Operation(summary = "List wallet transactions",
+            description = "Returns the wallet's transactions newest first, one page at a time. Pass the nextCursor " +
+                    "of a page as cursor to fetch the following one; it is null on the last page. limit is capped " +
+                    "at app.wallet.transactions.max-page-size.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page of transactions",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = TransactionPageResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor, limit or type",
+                            content = @Content(schema = @Schema(implementation = ExceptionResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Wallet not found",
+                            content = @Content(schema = @Schema(implementation = ExceptionResponse.class)))
+            }
+    )
+    ResponseEntity<TransactionPageResponse> getTransactions(@PathVariable UUID walletId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "50") @Positive int limit,
+                                                            @RequestParam(required = false) TransactionType type);
+
+    @Operation(summary = "Export a wallet statement",
+            description = "Streams every transaction of the wallet between startDate and endDate, oldest first, as " +
+                    "NDJSON (one TransactionResponse per line) or CSV. Rows are read through a database cursor and " +
+                    "written as they arrive, so the period may span millions of transactions. Only a few exports " +
+                    "stream at once; further requests are refused with 429 until one finishes.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Statement stream",
+                            content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+                    @ApiResponse(responseCode = "400", description = "Missing or invalid period or format, or startDate after endDate",
+                            content = @Content(schema = @Schema(implementation = ExceptionResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Wallet not found",
+                            content = @Content(schema = @Schema(implementation = ExceptionResponse.class))),
+                    @ApiResponse(responseCode = "429", description = "Too many exports in progress",
+                            content = @Content(schema = @Schema(implementation = ExceptionResponse.class)))
+            }
+    )
+    ResponseEntity<StreamingResponseBody> exportTransactions(
+            @PathVariable UUID walletId,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+            @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate,
+            @RequestParam(defaultValue = "NDJSON") StatementFormat format,
+            NativeWebRequest request);
+
     @Operation(summary = "Deposit funds into a wallet", description = "Deposits a specified amount into the wallet.")
     ResponseEntity<Void> deposit(@RequestBody @Valid SingleWalletOperationRequest request,
                                  @RequestHeader("X-Request-ID") @NotNull UUID requestId);
@@ -53,6 +99,34 @@ public interface WalletControllerDocs {
     ResponseEntity<Void> transfer(@RequestBody @Valid TransferBetweenWalletsRequest request,
                                   @RequestHeader("X-Request-ID") @NotNull UUID requestId);
 
+    @Operation(summary = "Transfer between many wallets in one request",
+            description = "Executes up to 10,000 transfer legs in a single transaction under one X-Request-ID. " +
+                    "In ALL_OR_NOTHING mode (default) any rejected leg leaves every leg NOT_EXECUTED; " +
+                    "in BEST_EFFORT mode valid legs are committed and rejected ones are reported.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch evaluated, per-leg results returned",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchTransferResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid request data",
+                            content = @Content(schema = @Schema(implementation = ExceptionResponse.class))),
+                    @ApiResponse(responseCode = "409", description = "Batch already processed",
+                            content = @Content(schema = @Schema(implementation = ExceptionResponse.class)))
+            }
+    )
+    ResponseEntity<BatchTransferResponse> transferBatch(@RequestBody @Valid BatchTransferRequest request,
+                                                        @RequestHeader("X-Request-ID") @NotNull UUID batchId);
+
+    @Operation(summary = "Get the status of an accepted write",
+            description = "When asynchronous commands are enabled, deposit, withdraw and transfer return 202 with a " +
+                    "Location header pointing here; the command moves from PENDING to COMPLETED or FAILED.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Command found",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = WalletCommandResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Command not found",
+                            content = @Content(schema = @Schema(implementation = ExceptionResponse.class)))
+            }
+    )
+    ResponseEntity<WalletCommandResponse> getCommand(@PathVariable UUID commandId);
+
     @Operation(summary = "Get historical wallet balance", description = "Retrieves balance at specific timestamp.")
     ResponseEntity<WalletHistoricalBalanceResponse> getHistoricalBalance(@PathVariable UUID walletId,
                                                                          @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant timestamp);
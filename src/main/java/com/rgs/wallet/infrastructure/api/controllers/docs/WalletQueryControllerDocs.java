@@ -0,0 +1,37 @@
+package com.rgs.wallet.infrastructure.api.controllers.docs;
+
+import com.rgs.wallet.infrastructure.api.dtos.TransactionResponse;
+import com.rgs.wallet.infrastructure.api.dtos.WalletBalanceResponse;
+import com.rgs.wallet.infrastructure.api.dtos.WalletHistoricalBalanceResponse;
+import com.rgs.wallet.infrastructure.api.dtos.WalletResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface WalletQueryControllerDocs {
+
+    @Operation(summary = "Get wallet balance (non-blocking)",
+            description = "Same result as GET /api/v1/wallets/{walletId}/balance, served on R2DBC and reactive Redis.")
+    Mono<WalletBalanceResponse> getBalance(@PathVariable UUID walletId);
+
+    @Operation(summary = "Get wallet details (non-blocking)",
+            description = "Same result as GET /api/v1/wallets/{walletId}, served on R2DBC and reactive Redis.")
+    Mono<WalletResponse> getWallet(@PathVariable UUID walletId);
+
+    @Operation(summary = "Get historical wallet balance (non-blocking)", description = "Retrieves balance at specific timestamp.")
+    Mono<WalletHistoricalBalanceResponse> getHistoricalBalance(@PathVariable UUID walletId,
+                                                               @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant timestamp);
+
+    @Operation(summary = "List wallet transactions (non-blocking)",
+            description = "Lists the wallet's transactions created between startDate (default: epoch) and endDate (default: now).")
+    Flux<TransactionResponse> getTransactions(@PathVariable UUID walletId,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startDate,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endDate);
+}
@@ -0,0 +1,29 @@
+package com.rgs.wallet.infrastructure.api.dtos;
+
+import com.rgs.wallet.domain.model.BatchTransferMode;
+import com.rgs.wallet.domain.model.TransferOrder;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchTransferRequest(
+        BatchTransferMode mode,
+        @NotEmpty @Size(max = 10_000) List<@NotNull @Valid TransferBetweenWalletsRequest> transfers
+) {
+    public BatchTransferMode effectiveMode() {
+        return mode != null ? mode : BatchTransferMode.ALL_OR_NOTHING;
+    }
+
+    public List<TransferOrder> toOrders() {
+        return transfers.stream()
+                .map(transfer -> TransferOrder.builder()
+                        .fromWalletId(transfer.fromWalletId())
+                        .toWalletId(transfer.toWalletId())
+                        .amount(transfer.amount())
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,23 @@
+package com.rgs.wallet.infrastructure.api.dtos;
+
+import com.rgs.wallet.domain.model.TransferLegResult;
+import com.rgs.wallet.domain.model.TransferLegStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchTransferResponse(
+        UUID batchId,
+        long completed,
+        long rejected,
+        List<TransferLegResponse> legs
+) {
+    public static BatchTransferResponse fromDomain(UUID batchId, List<TransferLegResult> results) {
+        return new BatchTransferResponse(
+                batchId,
+                results.stream().filter(result -> result.getStatus() == TransferLegStatus.COMPLETED).count(),
+                results.stream().filter(result -> result.getStatus() == TransferLegStatus.REJECTED).count(),
+                results.stream().map(TransferLegResponse::fromDomain).toList()
+        );
+    }
+}
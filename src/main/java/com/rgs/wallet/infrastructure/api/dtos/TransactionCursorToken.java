@@ -0,0 +1,44 @@
+package com.rgs.wallet.infrastructure.api.dtos;
+
+import com.rgs.wallet.domain.exceptions.InvalidCursorException;
+import com.rgs.wallet.domain.model.TransactionCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque form of a {@link TransactionCursor} handed to clients: base64url of {@code createdAt|id}.
+ */
+public final class TransactionCursorToken {
+
+    private static final String SEPARATOR = "|";
+
+    private TransactionCursorToken() {
+    }
+
+    public static String encode(TransactionCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String raw = cursor.getCreatedAt() + SEPARATOR + cursor.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return TransactionCursor.builder()
+                    .createdAt(Instant.parse(raw.substring(0, separator)))
+                    .id(UUID.fromString(raw.substring(separator + 1)))
+                    .build();
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.rgs.wallet.infrastructure.api.dtos;
+
+import com.rgs.wallet.domain.model.TransactionPage;
+
+import java.util.List;
+
+public record TransactionPageResponse(
+        List<TransactionResponse> transactions,
+        String nextCursor
+) {
+    public static TransactionPageResponse fromDomain(TransactionPage page) {
+        return new TransactionPageResponse(
+                page.getTransactions().stream().map(TransactionResponse::fromRecord).toList(),
+                TransactionCursorToken.encode(page.getNextCursor())
+        );
+    }
+}
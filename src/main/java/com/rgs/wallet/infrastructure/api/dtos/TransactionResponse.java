@@ -1,7 +1,7 @@
 package com.rgs.wallet.infrastructure.api.dtos;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
-import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionRecord;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -14,16 +14,20 @@ public record TransactionResponse(
         String type,
         @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
         Instant createdAt,
-        UUID relatedTransactionId
+        UUID relatedTransactionId,
+        Long sequence,
+        BigDecimal balanceAfter
 ) {
-    public static TransactionResponse fromDomain(Transaction transaction) {
+    public static TransactionResponse fromRecord(TransactionRecord transaction) {
         return new TransactionResponse(
                 transaction.getId(),
-                transaction.getWallet().getId(),
-                transaction.getSignedAmount().abs(),
+                transaction.getWalletId(),
+                transaction.getAmount().abs(),
                 transaction.getType().name(),
                 transaction.getCreatedAt(),
-                transaction.getRelatedTransactionId()
+                transaction.getRelatedTransactionId(),
+                transaction.getSequence(),
+                transaction.getBalanceAfter()
         );
     }
 }
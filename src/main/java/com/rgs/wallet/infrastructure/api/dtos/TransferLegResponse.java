@@ -0,0 +1,22 @@
+package com.rgs.wallet.infrastructure.api.dtos;
+
+import com.rgs.wallet.domain.model.TransferLegResult;
+import com.rgs.wallet.domain.model.TransferLegStatus;
+
+import java.util.UUID;
+
+public record TransferLegResponse(
+        int index,
+        TransferLegStatus status,
+        String errorCode,
+        UUID transactionId
+) {
+    public static TransferLegResponse fromDomain(TransferLegResult result) {
+        return new TransferLegResponse(
+                result.getIndex(),
+                result.getStatus(),
+                result.getErrorCode() != null ? result.getErrorCode().name() : null,
+                result.getTransactionId()
+        );
+    }
+}
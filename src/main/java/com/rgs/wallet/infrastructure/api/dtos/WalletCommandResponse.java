@@ -0,0 +1,37 @@
+package com.rgs.wallet.infrastructure.api.dtos;
+
+import com.rgs.wallet.domain.model.WalletCommand;
+import com.rgs.wallet.domain.model.WalletCommandStatus;
+import com.rgs.wallet.domain.model.WalletCommandType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record WalletCommandResponse(
+        UUID id,
+        WalletCommandType type,
+        UUID walletId,
+        UUID targetWalletId,
+        BigDecimal amount,
+        WalletCommandStatus status,
+        String errorCode,
+        int attempts,
+        Instant createdAt,
+        Instant updatedAt
+) {
+    public static WalletCommandResponse fromDomain(WalletCommand command) {
+        return new WalletCommandResponse(
+                command.getId(),
+                command.getType(),
+                command.getWalletId(),
+                command.getTargetWalletId(),
+                command.getAmount(),
+                command.getStatus(),
+                command.getErrorCode() != null ? command.getErrorCode().name() : null,
+                command.getAttempts(),
+                command.getCreatedAt(),
+                command.getUpdatedAt()
+        );
+    }
+}
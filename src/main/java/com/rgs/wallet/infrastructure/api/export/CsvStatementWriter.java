@@ -0,0 +1,50 @@
+package com.rgs.wallet.infrastructure.api.export;
+
+import com.rgs.wallet.domain.model.TransactionRecord;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Every column is a UUID, enum name, decimal or ISO-8601 instant, so no value ever needs quoting.
+ */
+class CsvStatementWriter implements StatementWriter {
+
+    static final String HEADER = "id,wallet_id,type,amount,created_at,related_transaction_id,sequence,balance_after";
+
+    private final BufferedWriter out;
+
+    CsvStatementWriter(OutputStream out) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.out.write(HEADER);
+        this.out.write('\n');
+    }
+
+    @Override
+    public void write(TransactionRecord transaction) {
+        try {
+            out.write(String.join(",",
+                    transaction.getId().toString(),
+                    transaction.getWalletId().toString(),
+                    transaction.getType().name(),
+                    transaction.getAmount().abs().toPlainString(),
+                    transaction.getCreatedAt().toString(),
+                    Objects.toString(transaction.getRelatedTransactionId(), ""),
+                    Objects.toString(transaction.getSequence(), ""),
+                    transaction.getBalanceAfter() != null ? transaction.getBalanceAfter().toPlainString() : ""));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+}
@@ -0,0 +1,59 @@
+package com.rgs.wallet.infrastructure.api.export;
+
+import com.rgs.wallet.domain.exceptions.TooManyExportsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the statement exports streaming at once. Each one holds a pooled connection for as long as the
+ * client keeps reading, so without a cap a few slow downloads could take the pool from every other request.
+ */
+@Component
+public class StatementExportLimiter {
+
+    private final Semaphore permits;
+
+    public StatementExportLimiter(@Value("${app.wallet.transactions.max-concurrent-exports}") int maxConcurrentExports) {
+        this.permits = new Semaphore(maxConcurrentExports);
+    }
+
+    /**
+     * Takes a permit without waiting.
+     */
+    public Permit acquire() {
+        if (!permits.tryAcquire()) {
+            throw new TooManyExportsException();
+        }
+        return new Permit();
+    }
+
+    /**
+     * One export's permit, given back by the first {@link #release()}. Registered with the async request
+     * the export streams on, it is also released when that request completes, times out or fails, so an
+     * export whose body never ran does not keep it.
+     */
+    public final class Permit implements CallableProcessingInterceptor {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+            release();
+        }
+    }
+}
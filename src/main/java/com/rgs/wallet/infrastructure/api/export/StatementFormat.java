@@ -0,0 +1,31 @@
+package com.rgs.wallet.infrastructure.api.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@Getter
+@RequiredArgsConstructor
+public enum StatementFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson") {
+        @Override
+        public StatementWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            return new NdjsonStatementWriter(out, objectMapper);
+        }
+    },
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv") {
+        @Override
+        public StatementWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            return new CsvStatementWriter(out);
+        }
+    };
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    public abstract StatementWriter open(OutputStream out, ObjectMapper objectMapper) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.rgs.wallet.infrastructure.api.export;
+
+import com.rgs.wallet.domain.model.TransactionRecord;
+
+import java.io.IOException;
+
+/**
+ * Serializes statement lines one at a time onto a response stream. Lines are buffered, never
+ * collected: {@link #finish()} flushes whatever is left.
+ */
+public interface StatementWriter {
+
+    void write(TransactionRecord transaction);
+
+    void finish() throws IOException;
+}
@@ -0,0 +1,28 @@
+package com.rgs.wallet.infrastructure.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Drops this node's in-process entries for wallets written on any node, including this one.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+    private final CacheService cacheService;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String walletIds = new String(message.getBody(), StandardCharsets.UTF_8);
+        cacheService.evictLocal(Arrays.stream(walletIds.split(CacheService.INVALIDATION_SEPARATOR))
+                .map(UUID::fromString)
+                .toList());
+    }
+}
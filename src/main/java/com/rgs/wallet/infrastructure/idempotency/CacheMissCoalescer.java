@@ -0,0 +1,112 @@
+package com.rgs.wallet.infrastructure.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent cache misses on the same key into one load. On each node only the first caller
+ * runs the loader and the others wait for its result; with a lease configured, the node that takes the
+ * Redis lease loads while the others poll the cache for up to the lease before loading themselves.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheMissCoalescer {
+
+    static final String LEASE_PREFIX = "cache-load-lease:";
+    private static final long LEASE_POLL_MILLIS = 10;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${app.cache.coalescing.lease-millis}")
+    private long leaseMillis;
+
+    /**
+     * @param cached  re-reads the cache; a load that just finished, here or on another node, is served from it
+     * @param loader  reads the source and fills the cache
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Supplier<T> cached, Supplier<T> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            counter("follower").increment();
+            return (T) await(running);
+        }
+        try {
+            T value = cached.get();
+            if (value == null) {
+                value = leaseMillis > 0 ? loadUnderLease(key, cached, loader) : runLoader(loader);
+            }
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private <T> T loadUnderLease(String key, Supplier<T> cached, Supplier<T> loader) {
+        Boolean acquired = redisTemplate.opsForValue()
+                .setIfAbsent(LEASE_PREFIX + key, "1", Duration.ofMillis(leaseMillis));
+        if (Boolean.TRUE.equals(acquired)) {
+            return runLoader(loader);
+        }
+        long deadline = System.currentTimeMillis() + leaseMillis;
+        while (System.currentTimeMillis() < deadline) {
+            sleep();
+            T value = cached.get();
+            if (value != null) {
+                counter("lease-follower").increment();
+                return value;
+            }
+        }
+        // the lease holder did not fill the cache in time: load rather than wait any longer
+        return runLoader(loader);
+    }
+
+    private <T> T runLoader(Supplier<T> loader) {
+        counter("loader").increment();
+        return loader.get();
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(LEASE_POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a cache load", e);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String role) {
+        return Counter.builder("wallet.cache.miss.loads")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
@@ -1,81 +1,250 @@
 package com.rgs.wallet.infrastructure.idempotency;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletBalance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
-
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Balances and wallets are served from one entry per wallet (see {@link WalletCacheEntry}), versioned by
+ * the wallet's ledger sequence so a reader that loaded an older row can never overwrite what a writer
+ * stored after it. Writers maintain the entries once their transaction commits, never before.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CacheService {
 
     private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
-    private static final String BALANCE_PREFIX = "wallet-balance:";
-    private static final String HISTORICAL_PREFIX = "historical-balance:";
-    private static final String WALLET_PREFIX = "wallet:";
+    // in-process tier only: in Redis both are read from the wallet's entry
+    static final String BALANCE_PREFIX = "wallet-balance:";
+    static final String WALLET_PREFIX = "wallet:";
+    static final String HISTORICAL_PREFIX = "historical-balance:";
+    static final String ENTRY_SEGMENT = "entry:";
+    static final String INVALIDATION_CHANNEL = "wallet-cache-invalidation";
+    static final String INVALIDATION_SEPARATOR = ",";
 
-    @Value("${app.cache.balance-ttl-seconds}")
-    private long balanceTtl;
     @Value("${app.cache.historical-balance-ttl-seconds}")
     private long historicalTtl;
     @Value("${app.cache.wallet-ttl-seconds}")
     private long walletTtl;
-
+    @Value("${app.cache.local.maximum-size}")
+    private long localMaximumSize;
+    @Value("${app.cache.local.ttl-millis}")
+    private long localTtlMillis;
+    @Value("${app.cache.historical.local-maximum-size}")
+    private long historicalMaximumSize;
+
+    private Cache<String, Object> local;
+    // settled historical balances never change, so this tier needs no expiry or invalidation
+    private Cache<String, BigDecimal> historical;
+    // bumped by every eviction: a Redis read that raced one must not repopulate the local tier
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(localTtlMillis))
+                .build();
+        historical = Caffeine.newBuilder()
+                .maximumSize(historicalMaximumSize)
+                .build();
+    }
 
     public BigDecimal getCachedBalance(UUID walletId) {
-        String value = redisTemplate.opsForValue().get(BALANCE_PREFIX + walletId);
-        return value != null ? new BigDecimal(value) : null;
+        String key = BALANCE_PREFIX + walletId;
+        if (local.getIfPresent(key) instanceof BigDecimal balance) {
+            return balance;
+        }
+        long seen = evictions.get();
+        BigDecimal balance = WalletCacheEntry.balance(redisTemplate.<String, String>opsForHash()
+                .get(WalletCacheEntry.key(walletId), WalletCacheEntry.BALANCE));
+        if (balance == null) return null;
+
+        putLocal(key, balance, seen);
+        return balance;
     }
 
-    public void cacheBalance(UUID walletId, BigDecimal balance) {
-        redisTemplate.opsForValue().set(BALANCE_PREFIX + walletId, balance.toPlainString(), Duration.ofSeconds(balanceTtl));
+    public void cacheBalance(UUID walletId, WalletBalance balance) {
+        long seen = evictions.get();
+        if (putIfNotOlder(walletId, WalletCacheEntry.balanceArgs(balance, walletTtl))) {
+            putLocal(BALANCE_PREFIX + walletId, balance.getBalance(), seen);
+        }
     }
 
+    /**
+     * Only for settled instants: entries are kept locally without expiry.
+     */
     public BigDecimal getCachedHistoricalBalance(UUID walletId, Instant timestamp) {
-        String key = HISTORICAL_PREFIX + walletId + ":" + timestamp;
-        String value = redisTemplate.opsForValue().get(key);
-        return value != null ? new BigDecimal(value) : null;
+        return getHistorical(HISTORICAL_PREFIX + walletId + ":" + timestamp, "instant");
     }
 
     public void cacheHistoricalBalance(UUID walletId, Instant timestamp, BigDecimal balance) {
-        String key = HISTORICAL_PREFIX + walletId + ":" + timestamp;
-        redisTemplate.opsForValue().set(key, balance.toPlainString(), Duration.ofSeconds(historicalTtl));
+        putHistorical(HISTORICAL_PREFIX + walletId + ":" + timestamp, balance);
+    }
+
+    /**
+     * Balance right after the given ledger row, shared by every settled instant that resolves to it.
+     */
+    public BigDecimal getCachedBalanceAfterEntry(UUID walletId, UUID transactionId) {
+        return getHistorical(HISTORICAL_PREFIX + walletId + ":" + ENTRY_SEGMENT + transactionId, "entry");
+    }
+
+    public void cacheBalanceAfterEntry(UUID walletId, UUID transactionId, BigDecimal balance) {
+        putHistorical(HISTORICAL_PREFIX + walletId + ":" + ENTRY_SEGMENT + transactionId, balance);
     }
 
     public Wallet getCachedWallet(UUID walletId) {
         String key = WALLET_PREFIX + walletId;
-        String json = redisTemplate.opsForValue().get(key);
-        if (json == null) return null;
-
-        try {
-            return objectMapper.readValue(json, Wallet.class);
-        } catch (JsonProcessingException e) {
-            return null;
+        if (local.getIfPresent(key) instanceof Wallet wallet) {
+            return wallet;
         }
+        long seen = evictions.get();
+        Wallet wallet = WalletCacheEntry.decode(walletId, redisTemplate.<String, String>opsForHash()
+                .multiGet(WalletCacheEntry.key(walletId), WalletCacheEntry.WALLET_FIELDS));
+        if (wallet == null) return null;
+
+        putLocal(key, wallet, seen);
+        return wallet;
     }
 
     public void cacheWallet(UUID walletId, Wallet wallet) {
-        try {
-            String json = objectMapper.writeValueAsString(wallet);
-            redisTemplate.opsForValue().set(WALLET_PREFIX + walletId, json, Duration.ofSeconds(walletTtl));
-        } catch (JsonProcessingException ignored) {
+        long seen = evictions.get();
+        if (putIfNotOlder(walletId, WalletCacheEntry.walletArgs(wallet, walletTtl))) {
+            putLocal(WALLET_PREFIX + walletId, wallet, seen);
         }
     }
 
+    /**
+     * Once the current transaction commits, writes the wallet's new balance and timestamp through to
+     * its entry. Only for wallets whose cached balance is the row balance, i.e. not striped.
+     */
+    public void walletChanged(UUID walletId, WalletBalance balance) {
+        afterCommit(() -> {
+            putIfNotOlder(walletId, WalletCacheEntry.balanceArgs(balance, walletTtl));
+            invalidateLocal(List.of(walletId));
+        });
+    }
+
     public void clearCache(UUID walletId) {
-        redisTemplate.delete(BALANCE_PREFIX + walletId);
-        redisTemplate.delete(WALLET_PREFIX + walletId);
+        clearCache(List.of(walletId));
+    }
+
+    /**
+     * Deletes the wallets' entries once the current transaction commits; for writes the ledger sequence
+     * does not version, such as stripe updates.
+     */
+    public void clearCache(Collection<UUID> walletIds) {
+        List<String> keys = walletIds.stream()
+                .map(WalletCacheEntry::key)
+                .toList();
+        afterCommit(() -> {
+            redisTemplate.delete(keys);
+            invalidateLocal(walletIds);
+        });
+    }
+
+    /**
+     * Drops the in-process entries of the given wallets; Redis is left alone.
+     */
+    public void evictLocal(Collection<UUID> walletIds) {
+        evictions.incrementAndGet();
+        local.invalidateAll(walletIds.stream()
+                .flatMap(walletId -> Stream.of(BALANCE_PREFIX + walletId, WALLET_PREFIX + walletId))
+                .toList());
     }
 
+    private BigDecimal getHistorical(String key, String keyType) {
+        BigDecimal balance = historical.getIfPresent(key);
+        if (balance != null) {
+            historicalLookup(keyType, "local").increment();
+            return balance;
+        }
+        String value = redisTemplate.opsForValue().get(key);
+        if (value == null) {
+            historicalLookup(keyType, "miss").increment();
+            return null;
+        }
+        balance = new BigDecimal(value);
+        historical.put(key, balance);
+        historicalLookup(keyType, "redis").increment();
+        return balance;
+    }
+
+    private void putHistorical(String key, BigDecimal balance) {
+        redisTemplate.opsForValue().set(key, balance.toPlainString(), Duration.ofSeconds(historicalTtl));
+        historical.put(key, balance);
+    }
+
+    private Counter historicalLookup(String keyType, String result) {
+        return Counter.builder("wallet.cache.historical.lookups")
+                .tag("key", keyType)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private boolean putIfNotOlder(UUID walletId, List<String> args) {
+        Long applied = redisTemplate.execute(WalletCacheEntry.PUT_IF_NOT_OLDER,
+                List.of(WalletCacheEntry.key(walletId)), args.toArray());
+        return applied != null && applied == 1;
+    }
+
+    private void invalidateLocal(Collection<UUID> walletIds) {
+        evictLocal(walletIds);
+        redisTemplate.convertAndSend(INVALIDATION_CHANNEL, walletIds.stream()
+                .map(UUID::toString)
+                .collect(Collectors.joining(INVALIDATION_SEPARATOR)));
+    }
+
+    // the committed state is already durable: a failed cache update only leaves entries to expire
+    private void afterCommit(Runnable maintenance) {
+        Runnable guarded = () -> {
+            try {
+                maintenance.run();
+            } catch (RuntimeException e) {
+                log.warn("Cache maintenance failed, entries will expire on their TTL", e);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            guarded.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                guarded.run();
+            }
+        });
+    }
+
+    private void putLocal(String key, Object value, long seen) {
+        local.put(key, value);
+        if (evictions.get() != seen) {
+            local.invalidate(key);
+        }
+    }
 }
 
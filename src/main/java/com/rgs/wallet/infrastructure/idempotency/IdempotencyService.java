@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
 
 @Service
 @RequiredArgsConstructor
@@ -39,6 +40,28 @@ public class IdempotencyService {
         registerSuccess(requestId);
     }
 
+    /**
+     * Variant without the per-request Redis lock, for callers that already run every request for a
+     * wallet on a single thread.
+     */
+    public void processSerialized(UUID requestId, Runnable operation) {
+        checkDuplicate(requestId);
+        operation.run();
+        registerSuccess(requestId);
+    }
+
+    /**
+     * Variant for writes that record their request id in the database within their own transaction,
+     * which already rejects a repeated or concurrent request however long the write runs. No Redis lock
+     * is taken, and the id is registered only once {@code operation} has committed and returned true.
+     */
+    public void processRecorded(UUID requestId, BooleanSupplier operation) {
+        checkDuplicate(requestId);
+        if (operation.getAsBoolean()) {
+            registerSuccess(requestId);
+        }
+    }
+
     private void checkDuplicate(UUID requestId) {
         if (redisTemplate.hasKey(IDEMPOTENCY_PREFIX + requestId)) {
             throw new DuplicateRequestException();
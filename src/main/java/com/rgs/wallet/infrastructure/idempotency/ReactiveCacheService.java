@@ -0,0 +1,71 @@
+package com.rgs.wallet.infrastructure.idempotency;
+
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletBalance;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static com.rgs.wallet.infrastructure.idempotency.CacheService.HISTORICAL_PREFIX;
+
+/**
+ * Non-blocking view of the entries {@link CacheService} maintains: same keys, same {@link WalletCacheEntry}
+ * layout and TTLs, so both read paths share one cache and the write path's maintenance covers them both.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive-reads.enabled", havingValue = "true")
+public class ReactiveCacheService {
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @Value("${app.cache.historical-balance-ttl-seconds}")
+    private long historicalTtl;
+    @Value("${app.cache.wallet-ttl-seconds}")
+    private long walletTtl;
+
+    public Mono<BigDecimal> getCachedBalance(UUID walletId) {
+        return redisTemplate.<String, String>opsForHash()
+                .get(WalletCacheEntry.key(walletId), WalletCacheEntry.BALANCE)
+                .map(WalletCacheEntry::balance);
+    }
+
+    public Mono<Boolean> cacheBalance(UUID walletId, WalletBalance balance) {
+        return putIfNotOlder(walletId, WalletCacheEntry.balanceArgs(balance, walletTtl));
+    }
+
+    public Mono<BigDecimal> getCachedHistoricalBalance(UUID walletId, Instant timestamp) {
+        return redisTemplate.opsForValue().get(HISTORICAL_PREFIX + walletId + ":" + timestamp).map(BigDecimal::new);
+    }
+
+    public Mono<Boolean> cacheHistoricalBalance(UUID walletId, Instant timestamp, BigDecimal balance) {
+        return redisTemplate.opsForValue().set(HISTORICAL_PREFIX + walletId + ":" + timestamp,
+                balance.toPlainString(), Duration.ofSeconds(historicalTtl));
+    }
+
+    public Mono<Wallet> getCachedWallet(UUID walletId) {
+        return redisTemplate.<String, String>opsForHash()
+                .multiGet(WalletCacheEntry.key(walletId), WalletCacheEntry.WALLET_FIELDS)
+                .mapNotNull(values -> WalletCacheEntry.decode(walletId, values));
+    }
+
+    public Mono<Boolean> cacheWallet(UUID walletId, Wallet wallet) {
+        return putIfNotOlder(walletId, WalletCacheEntry.walletArgs(wallet, walletTtl));
+    }
+
+    private Mono<Boolean> putIfNotOlder(UUID walletId, List<String> args) {
+        return redisTemplate.execute(WalletCacheEntry.PUT_IF_NOT_OLDER, List.of(WalletCacheEntry.key(walletId)), args)
+                .next()
+                .map(applied -> applied == 1)
+                .defaultIfEmpty(false);
+    }
+}
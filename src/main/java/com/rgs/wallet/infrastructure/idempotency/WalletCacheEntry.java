@@ -0,0 +1,151 @@
+package com.rgs.wallet.infrastructure.idempotency;
+
+import com.rgs.wallet.domain.model.User;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletBalance;
+import com.rgs.wallet.domain.model.WalletStatus;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Layout of the one cache entry per wallet, a Redis hash both the balance and the wallet reads are
+ * served from: {@code v} is the ledger sequence it was written at, {@code b} the balance and {@code u}
+ * the wallet's updatedAt; the remaining fields only change with the wallet itself. Instants are epoch
+ * microseconds, the database's precision, and an empty value is a null.
+ * <p>
+ * Entries are written through {@link #PUT_IF_NOT_OLDER}, which refuses a write older than the stored
+ * {@code v}. A balance write sets {@code v}, {@code b} and {@code u} in place and leaves the other
+ * fields as they are, so the wallet read keeps hitting across writes; a hash holding no wallet fields
+ * yet serves the balance read only.
+ */
+final class WalletCacheEntry {
+
+    static final String PREFIX = "wallet-entry:";
+
+    static final String SEQUENCE = "v";
+    static final String BALANCE = "b";
+    static final String UPDATED_AT = "u";
+    static final String STATUS = "s";
+    static final String CREATED_AT = "c";
+    static final String USER_ID = "o";
+    static final String USER_NAME = "on";
+    static final String USER_TAX_ID = "ot";
+    static final String USER_CREATED_AT = "oc";
+    static final String USER_UPDATED_AT = "ou";
+
+    /**
+     * Fields the wallet read fetches, in the order {@link #decode} expects them.
+     */
+    static final List<String> WALLET_FIELDS = List.of(SEQUENCE, BALANCE, UPDATED_AT, STATUS, CREATED_AT,
+            USER_ID, USER_NAME, USER_TAX_ID, USER_CREATED_AT, USER_UPDATED_AT);
+
+    /**
+     * KEYS[1] the entry; ARGV[1] the sequence, ARGV[2] the TTL in milliseconds, then field/value pairs.
+     */
+    static final RedisScript<Long> PUT_IF_NOT_OLDER = RedisScript.of("""
+            local current = tonumber(redis.call('HGET', KEYS[1], 'v'))
+            if current and current > tonumber(ARGV[1]) then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'v', ARGV[1], unpack(ARGV, 3))
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private WalletCacheEntry() {
+    }
+
+    static String key(UUID walletId) {
+        return PREFIX + walletId;
+    }
+
+    static List<String> balanceArgs(WalletBalance balance, long ttlSeconds) {
+        List<String> args = header(balance.getSequence(), ttlSeconds);
+        put(args, BALANCE, balance.getBalance().toPlainString());
+        put(args, UPDATED_AT, micros(balance.getUpdatedAt()));
+        return args;
+    }
+
+    static List<String> walletArgs(Wallet wallet, long ttlSeconds) {
+        List<String> args = header(wallet.getLedgerSequence(), ttlSeconds);
+        put(args, BALANCE, wallet.getBalance().toPlainString());
+        put(args, UPDATED_AT, micros(wallet.getUpdatedAt()));
+        put(args, STATUS, wallet.getStatus().name());
+        put(args, CREATED_AT, micros(wallet.getCreatedAt()));
+        User user = wallet.getUser();
+        put(args, USER_ID, user.getId().toString());
+        put(args, USER_NAME, nullToEmpty(user.getName()));
+        put(args, USER_TAX_ID, nullToEmpty(user.getTaxId()));
+        put(args, USER_CREATED_AT, micros(user.getCreatedAt()));
+        put(args, USER_UPDATED_AT, micros(user.getUpdatedAt()));
+        return args;
+    }
+
+    static BigDecimal balance(String value) {
+        return value == null ? null : new BigDecimal(value);
+    }
+
+    /**
+     * @param values the {@link #WALLET_FIELDS}, in order
+     * @return null unless every field is present
+     */
+    static Wallet decode(UUID walletId, List<String> values) {
+        if (values == null || values.size() != WALLET_FIELDS.size() || values.contains(null)) {
+            return null;
+        }
+        User user = User.builder()
+                .id(UUID.fromString(values.get(5)))
+                .name(emptyToNull(values.get(6)))
+                .taxId(emptyToNull(values.get(7)))
+                .createdAt(instant(values.get(8)))
+                .updatedAt(instant(values.get(9)))
+                .build();
+        return Wallet.builder()
+                .id(walletId)
+                .user(user)
+                .ledgerSequence(Long.parseLong(values.get(0)))
+                .balance(new BigDecimal(values.get(1)))
+                .updatedAt(instant(values.get(2)))
+                .status(WalletStatus.valueOf(values.get(3)))
+                .createdAt(instant(values.get(4)))
+                .build();
+    }
+
+    private static List<String> header(long sequence, long ttlSeconds) {
+        List<String> args = new ArrayList<>(2 + 2 * WALLET_FIELDS.size());
+        args.add(String.valueOf(sequence));
+        args.add(String.valueOf(Duration.ofSeconds(ttlSeconds).toMillis()));
+        return args;
+    }
+
+    private static void put(List<String> args, String field, String value) {
+        args.add(field);
+        args.add(value);
+    }
+
+    private static String micros(Instant instant) {
+        if (instant == null) return "";
+        return String.valueOf(Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L),
+                instant.getNano() / 1_000));
+    }
+
+    private static Instant instant(String micros) {
+        if (micros.isEmpty()) return null;
+        long value = Long.parseLong(micros);
+        return Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000L), Math.floorMod(value, 1_000_000L) * 1_000);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
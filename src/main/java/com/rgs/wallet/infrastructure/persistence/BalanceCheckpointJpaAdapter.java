@@ -0,0 +1,29 @@
+package com.rgs.wallet.infrastructure.persistence;
+
+import com.rgs.wallet.domain.model.JournalEntry;
+import com.rgs.wallet.infrastructure.persistence.repository.JournalPostingJpaRepository;
+import com.rgs.wallet.ports.out.BalanceCheckpointPersistencePort;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class BalanceCheckpointJpaAdapter implements BalanceCheckpointPersistencePort {
+
+    private final JournalPostingJpaRepository journalPostingRepository;
+
+    @Override
+    public Optional<Instant> findLatestCheckpoint() {
+        return journalPostingRepository.findLatestCheckpoint();
+    }
+
+    @Override
+    @Transactional
+    public int createCheckpoints(Instant since, Instant checkpointAt) {
+        return journalPostingRepository.createCheckpoints(since, checkpointAt, JournalEntry.EXTERNAL_CLEARING_ACCOUNT);
+    }
+}
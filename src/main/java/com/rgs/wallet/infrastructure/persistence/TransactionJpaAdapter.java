@@ -1,17 +1,34 @@
 package com.rgs.wallet.infrastructure.persistence;
 
+import com.rgs.wallet.domain.model.JournalEntry;
 import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionCursor;
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.infrastructure.persistence.entity.JournalEntryEntity;
 import com.rgs.wallet.infrastructure.persistence.entity.TransactionEntity;
+import com.rgs.wallet.infrastructure.persistence.mapper.JournalEntryMapper;
 import com.rgs.wallet.infrastructure.persistence.mapper.TransactionMapper;
+import com.rgs.wallet.infrastructure.persistence.projection.TransactionRow;
+import com.rgs.wallet.infrastructure.persistence.repository.JournalPostingJpaRepository;
 import com.rgs.wallet.infrastructure.persistence.repository.TransactionJpaRepository;
 import com.rgs.wallet.ports.out.TransactionPersistencePort;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
@@ -19,27 +36,89 @@ public class TransactionJpaAdapter implements TransactionPersistencePort {
 
     private final TransactionJpaRepository transactionRepository;
     private final TransactionMapper mapper;
+    private final JournalPostingJpaRepository journalPostingRepository;
+    private final JournalEntryMapper journalMapper;
+    private final EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
 
     @Override
     public Transaction save(Transaction transaction) {
         TransactionEntity entity = mapper.toEntity(transaction);
         TransactionEntity saved = transactionRepository.save(entity);
+        JournalEntry.fromTransactions(List.of(transaction))
+                .forEach(entry -> entityManager.persist(journalMapper.toEntity(entry)));
         return mapper.toDomain(saved);
     }
 
     @Override
-    public List<Transaction> findByWalletIdAndPeriod(UUID walletId, Instant startDate, Instant endDate) {
+    public List<Transaction> saveAll(List<Transaction> transactions) {
+        List<JournalEntry> journal = JournalEntry.fromTransactions(transactions);
+        List<Transaction> saved = new ArrayList<>(transactions.size());
+
+        writeInBatches(transactions, chunk -> {
+            List<TransactionEntity> entities = chunk.stream()
+                    .map(mapper::toEntity)
+                    .toList();
+            transactionRepository.saveAll(entities)
+                    .forEach(entity -> saved.add(mapper.toDomain(entity)));
+            return entities;
+        });
+        writeInBatches(journal, chunk -> {
+            List<JournalEntryEntity> entities = chunk.stream()
+                    .map(journalMapper::toEntity)
+                    .toList();
+            entities.forEach(entityManager::persist);
+            return entities;
+        });
+        return saved;
+    }
+
+    @Override
+    public List<TransactionRecord> findByWalletIdAndPeriod(UUID walletId, Instant startDate, Instant endDate) {
         return transactionRepository
-                .findByWalletIdAndCreatedAtBetween(walletId, startDate, endDate)
+                .findRowsByWalletIdAndPeriod(walletId, startDate, endDate)
                 .stream()
-                .map(mapper::toDomain)
+                .map(mapper::toRecord)
                 .toList();
     }
 
+    @Override
+    public void forEachInPeriod(UUID walletId, Instant startDate, Instant endDate, Consumer<TransactionRecord> action) {
+        try (Stream<TransactionRow> rows = transactionRepository.streamByWalletIdAndPeriod(walletId, startDate, endDate)) {
+            rows.map(mapper::toRecord).forEach(action);
+        }
+    }
+
+    @Override
+    public List<TransactionRecord> findPage(UUID walletId, TransactionCursor after, TransactionType type, int limit) {
+        Pageable first = PageRequest.ofSize(limit);
+        List<TransactionRow> page = after == null
+                ? transactionRepository.findFirstPage(walletId, type, first)
+                : transactionRepository.findPageAfter(walletId, type, after.getCreatedAt(), after.getId(), first);
+        return page.stream()
+                .map(mapper::toRecord)
+                .toList();
+    }
+
+    @Override
+    public Optional<TransactionRecord> findLastUpTo(UUID walletId, Instant timestamp) {
+        return transactionRepository.findLatestUpTo(walletId, timestamp, PageRequest.ofSize(1)).stream()
+                .findFirst()
+                .map(mapper::toRecord);
+    }
 
     @Override
     public BigDecimal calculateBalanceUpTo(UUID walletId, Instant timestamp) {
-        return transactionRepository.calculateBalanceUpTo(walletId, timestamp);
+        return journalPostingRepository.balanceUpTo(walletId, timestamp);
     }
 
+    private <T> void writeInBatches(List<T> items, Function<List<T>, List<?>> writer) {
+        for (int from = 0; from < items.size(); from += batchSize) {
+            List<?> written = writer.apply(items.subList(from, Math.min(from + batchSize, items.size())));
+            entityManager.flush();
+            written.forEach(entityManager::detach);
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package com.rgs.wallet.infrastructure.persistence;
+
+import com.rgs.wallet.infrastructure.persistence.repository.TransferBatchJpaRepository;
+import com.rgs.wallet.ports.out.TransferBatchPersistencePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class TransferBatchJpaAdapter implements TransferBatchPersistencePort {
+
+    private final TransferBatchJpaRepository batchRepository;
+
+    @Override
+    public boolean register(UUID batchId) {
+        return batchRepository.insertIfAbsent(batchId) == 1;
+    }
+}
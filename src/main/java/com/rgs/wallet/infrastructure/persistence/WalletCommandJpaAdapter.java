@@ -0,0 +1,72 @@
+package com.rgs.wallet.infrastructure.persistence;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import com.rgs.wallet.domain.model.WalletCommand;
+import com.rgs.wallet.domain.model.WalletCommandStatus;
+import com.rgs.wallet.infrastructure.persistence.mapper.WalletCommandMapper;
+import com.rgs.wallet.infrastructure.persistence.repository.WalletCommandJpaRepository;
+import com.rgs.wallet.ports.out.WalletCommandPersistencePort;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class WalletCommandJpaAdapter implements WalletCommandPersistencePort {
+
+    private final WalletCommandJpaRepository commandRepository;
+    private final WalletCommandMapper mapper;
+
+    @Override
+    @Transactional
+    public WalletCommand enqueue(WalletCommand command) {
+        commandRepository.insertIfAbsent(
+                command.getId(),
+                command.getType().name(),
+                command.getWalletId(),
+                command.getTargetWalletId(),
+                command.getAmount());
+        return commandRepository.findById(command.getId())
+                .map(mapper::toDomain)
+                .orElseThrow();
+    }
+
+    @Override
+    public Optional<WalletCommand> findById(UUID commandId) {
+        return commandRepository.findById(commandId)
+                .map(mapper::toDomain);
+    }
+
+    @Override
+    public List<WalletCommand> claimBatch(int batchSize, long leaseSeconds) {
+        return commandRepository.claimBatch(batchSize, leaseSeconds)
+                .stream()
+                .map(mapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public boolean markCompleted(UUID commandId) {
+        return commandRepository.updateStatus(commandId, WalletCommandStatus.COMPLETED, null) == 1;
+    }
+
+    @Override
+    public void markFailed(UUID commandId, ErrorCodeEnum errorCode) {
+        commandRepository.updateStatus(commandId, WalletCommandStatus.FAILED, errorCode);
+    }
+
+    @Override
+    public void release(UUID commandId) {
+        commandRepository.updateStatus(commandId, WalletCommandStatus.PENDING, null);
+    }
+
+    @Override
+    public int purgeFinished(Instant before) {
+        return commandRepository.purgeFinished(before);
+    }
+}
@@ -1,9 +1,14 @@
 package com.rgs.wallet.infrastructure.persistence;
 
+import com.rgs.wallet.domain.model.JournalEntry;
+import com.rgs.wallet.domain.model.TransactionType;
 import com.rgs.wallet.domain.model.User;
 import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletBalance;
+import com.rgs.wallet.domain.utils.TimeOrderedUuid;
 import com.rgs.wallet.infrastructure.persistence.entity.WalletEntity;
 import com.rgs.wallet.infrastructure.persistence.mapper.WalletMapper;
+import com.rgs.wallet.infrastructure.persistence.projection.BalanceRow;
 import com.rgs.wallet.infrastructure.persistence.repository.TransactionJpaRepository;
 import com.rgs.wallet.infrastructure.persistence.repository.WalletJpaRepository;
 import com.rgs.wallet.ports.out.WalletPersistencePort;
@@ -11,6 +16,11 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,6 +28,12 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class WalletJpaAdapter implements WalletPersistencePort {
 
+    private static final int LOCK_CHUNK_SIZE = 1_000;
+    // Postgres orders uuids as unsigned bytes; chunking in that order keeps a single global lock order
+    private static final Comparator<UUID> POSTGRES_UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
     private final WalletJpaRepository walletRepository;
     private final WalletMapper mapper;
 
@@ -36,10 +52,108 @@ public class WalletJpaAdapter implements WalletPersistencePort {
                 .map(mapper::toDomain);
     }
 
+    @Override
+    public Optional<WalletBalance> findBalance(UUID walletId) {
+        return walletRepository.findBalanceById(walletId)
+                .map(row -> WalletBalance.of(row.getBalance(), row.getSequence(), row.getUpdatedAt()));
+    }
+
+    @Override
+    public Optional<Wallet> findByIdForUpdate(UUID walletId) {
+        return walletRepository.findByIdWithLock(walletId)
+                .map(mapper::toDomain);
+    }
+
+    @Override
+    public List<Wallet> findAllByIdForUpdate(Collection<UUID> walletIds) {
+        List<UUID> ordered = walletIds.stream()
+                .distinct()
+                .sorted(POSTGRES_UUID_ORDER)
+                .toList();
+        List<Wallet> locked = new ArrayList<>(ordered.size());
+        for (int from = 0; from < ordered.size(); from += LOCK_CHUNK_SIZE) {
+            List<UUID> chunk = ordered.subList(from, Math.min(from + LOCK_CHUNK_SIZE, ordered.size()));
+            walletRepository.findAllByIdInOrderByIdWithLock(chunk)
+                    .forEach(entity -> locked.add(mapper.toDomain(entity)));
+        }
+        return locked;
+    }
+
     @Override
     public boolean existsByUser(User user) {
         return walletRepository.findByUserId(user.getId())
                 .isPresent();
     }
 
+    @Override
+    public Optional<WalletBalance> applyBalanceDelta(UUID walletId, BigDecimal delta, TransactionType type) {
+        return walletRepository.applyBalanceDelta(
+                TimeOrderedUuid.generate(),
+                TimeOrderedUuid.generate(),
+                JournalEntry.EXTERNAL_CLEARING_ACCOUNT,
+                walletId,
+                delta,
+                delta.abs(),
+                type.name(),
+                true)
+                .map(row -> WalletBalance.of(row.getBalance(), row.getSequence(), row.getUpdatedAt()));
+    }
+
+    @Override
+    public Optional<BigDecimal> applyStripedWalletDelta(UUID walletId, BigDecimal delta, TransactionType type) {
+        return walletRepository.applyBalanceDelta(
+                TimeOrderedUuid.generate(),
+                TimeOrderedUuid.generate(),
+                JournalEntry.EXTERNAL_CLEARING_ACCOUNT,
+                walletId,
+                delta,
+                delta.abs(),
+                type.name(),
+                false)
+                .map(BalanceRow::getBalance);
+    }
+
+    @Override
+    public boolean updateBalanceWithVersionCheck(Wallet wallet) {
+        return walletRepository.updateBalanceIfVersionMatches(
+                wallet.getId(), wallet.getBalance(), wallet.getLedgerSequence(), wallet.getLedgerAt(),
+                wallet.getUpdatedAt(), wallet.getVersion()) == 1;
+    }
+
+    @Override
+    public Optional<BigDecimal> applyStripeDelta(UUID walletId, int stripe, BigDecimal delta, TransactionType type) {
+        if (delta.signum() > 0) {
+            return walletRepository.creditBalanceStripe(
+                    TimeOrderedUuid.generate(),
+                    TimeOrderedUuid.generate(),
+                    JournalEntry.EXTERNAL_CLEARING_ACCOUNT,
+                    walletId,
+                    (short) stripe,
+                    delta,
+                    delta,
+                    type.name())
+                    .map(BalanceRow::getBalance);
+        }
+        return walletRepository.debitBalanceStripe(
+                TimeOrderedUuid.generate(),
+                TimeOrderedUuid.generate(),
+                JournalEntry.EXTERNAL_CLEARING_ACCOUNT,
+                walletId,
+                (short) stripe,
+                delta,
+                delta.abs(),
+                type.name())
+                .map(BalanceRow::getBalance);
+    }
+
+    @Override
+    public boolean foldBalanceStripes(UUID walletId) {
+        return walletRepository.foldBalanceStripes(walletId) == 1;
+    }
+
+    @Override
+    public BigDecimal sumBalanceStripes(UUID walletId) {
+        return walletRepository.sumBalanceStripes(walletId);
+    }
+
 }
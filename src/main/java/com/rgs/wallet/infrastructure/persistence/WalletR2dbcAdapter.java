@@ -0,0 +1,150 @@
+package com.rgs.wallet.infrastructure.persistence;
+
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.model.User;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletStatus;
+import com.rgs.wallet.ports.out.WalletReadPort;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Non-blocking reads over the same tables the JPA adapters write. Timestamps are stored as UTC
+ * {@code timestamp} columns: both connection pools pin the session zone to UTC, whatever the JVM zone.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive-reads.enabled", havingValue = "true")
+public class WalletR2dbcAdapter implements WalletReadPort {
+
+    private static final String FIND_WALLET = """
+            SELECT w.id, w.status, w.version, w.ledger_sequence, w.created_at, w.updated_at,
+                   w.balance + COALESCE((SELECT SUM(s.balance) FROM wallet_balance_stripes s WHERE s.wallet_id = w.id), 0) AS balance,
+                   u.id AS user_id, u.name AS user_name, u.tax_id AS user_tax_id,
+                   u.created_at AS user_created_at, u.updated_at AS user_updated_at
+            FROM wallets w
+            JOIN users u ON u.id = w.user_id
+            WHERE w.id = :walletId
+            """;
+
+    // same order as TransactionJpaRepository.findLatestUpTo: created_at follows the sequence per wallet
+    private static final String BALANCE_AFTER = """
+            SELECT balance_after
+            FROM transactions
+            WHERE wallet_id = :walletId AND created_at <= :timestamp
+            ORDER BY created_at DESC, sequence DESC
+            LIMIT 1
+            """;
+
+    private static final String BALANCE_UP_TO = """
+            SELECT COALESCE(c.balance, 0) + (
+                SELECT COALESCE(SUM(p.amount), 0)
+                FROM journal_postings p
+                WHERE p.account_id = :walletId
+                  AND p.created_at >= COALESCE(c.checkpoint_at, '-infinity'::timestamp)
+                  AND p.created_at <= :timestamp) AS balance
+            FROM (SELECT 1) AS one
+            LEFT JOIN LATERAL (
+                SELECT checkpoint_at, balance
+                FROM wallet_balance_checkpoints
+                WHERE wallet_id = :walletId AND checkpoint_at <= :timestamp
+                ORDER BY checkpoint_at DESC
+                LIMIT 1) c ON true
+            """;
+
+    private static final String FIND_TRANSACTIONS = """
+            SELECT id, amount, type, created_at, related_transaction_id, sequence, balance_after
+            FROM transactions
+            WHERE wallet_id = :walletId AND created_at BETWEEN :startDate AND :endDate
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Wallet> findById(UUID walletId) {
+        return databaseClient.sql(FIND_WALLET)
+                .bind("walletId", walletId)
+                .map(this::toWallet)
+                .one();
+    }
+
+    @Override
+    public Mono<BigDecimal> findBalanceAfter(UUID walletId, Instant timestamp) {
+        return databaseClient.sql(BALANCE_AFTER)
+                .bind("walletId", walletId)
+                .bind("timestamp", toTimestamp(timestamp))
+                .map(row -> Optional.ofNullable(row.get("balance_after", BigDecimal.class)))
+                .one()
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Mono<BigDecimal> calculateBalanceUpTo(UUID walletId, Instant timestamp) {
+        return databaseClient.sql(BALANCE_UP_TO)
+                .bind("walletId", walletId)
+                .bind("timestamp", toTimestamp(timestamp))
+                .map(row -> row.get("balance", BigDecimal.class))
+                .one();
+    }
+
+    @Override
+    public Flux<TransactionRecord> findByWalletIdAndPeriod(UUID walletId, Instant startDate, Instant endDate) {
+        return databaseClient.sql(FIND_TRANSACTIONS)
+                .bind("walletId", walletId)
+                .bind("startDate", toTimestamp(startDate))
+                .bind("endDate", toTimestamp(endDate))
+                .map(row -> TransactionRecord.builder()
+                        .id(row.get("id", UUID.class))
+                        .walletId(walletId)
+                        .amount(row.get("amount", BigDecimal.class))
+                        .type(TransactionType.valueOf(row.get("type", String.class)))
+                        .createdAt(toInstant(row, "created_at"))
+                        .relatedTransactionId(row.get("related_transaction_id", UUID.class))
+                        .sequence(row.get("sequence", Long.class))
+                        .balanceAfter(row.get("balance_after", BigDecimal.class))
+                        .build())
+                .all();
+    }
+
+    private Wallet toWallet(Readable row) {
+        User user = User.builder()
+                .id(row.get("user_id", UUID.class))
+                .name(row.get("user_name", String.class))
+                .taxId(row.get("user_tax_id", String.class))
+                .createdAt(toInstant(row, "user_created_at"))
+                .updatedAt(toInstant(row, "user_updated_at"))
+                .build();
+        return Wallet.builder()
+                .id(row.get("id", UUID.class))
+                .user(user)
+                .balance(row.get("balance", BigDecimal.class))
+                .status(WalletStatus.valueOf(row.get("status", String.class)))
+                .version(row.get("version", Long.class))
+                .ledgerSequence(row.get("ledger_sequence", Long.class))
+                .createdAt(toInstant(row, "created_at"))
+                .updatedAt(toInstant(row, "updated_at"))
+                .build();
+    }
+
+    private static Instant toInstant(Readable row, String column) {
+        LocalDateTime value = row.get(column, LocalDateTime.class);
+        return value != null ? value.toInstant(ZoneOffset.UTC) : null;
+    }
+
+    private static LocalDateTime toTimestamp(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
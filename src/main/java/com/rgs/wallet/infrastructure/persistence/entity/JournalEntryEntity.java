@@ -0,0 +1,33 @@
+package com.rgs.wallet.infrastructure.persistence.entity;
+
+import com.rgs.wallet.domain.model.JournalEntryType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "journal_entries")
+public class JournalEntryEntity {
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 20, updatable = false)
+    private JournalEntryType type;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @OneToMany(mappedBy = "journalEntry", cascade = CascadeType.ALL)
+    @Builder.Default
+    private List<JournalPostingEntity> postings = new ArrayList<>();
+}
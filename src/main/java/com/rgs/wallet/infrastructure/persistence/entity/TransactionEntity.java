@@ -1,9 +1,10 @@
 package com.rgs.wallet.infrastructure.persistence.entity;
 
 import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.utils.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -16,9 +17,8 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "transactions")
-public class TransactionEntity {
+public class TransactionEntity implements Persistable<UUID> {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,7 +35,34 @@ public class TransactionEntity {
     @Column(name = "related_transaction_id")
     private UUID relatedTransactionId;
 
-    @CreationTimestamp
+    @Column(name = "sequence")
+    private Long sequence;
+
+    @Column(name = "balance_after", precision = 15, scale = 2)
+    private BigDecimal balanceAfter;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
+
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PrePersist
+    void assignId() {
+        if (id == null) {
+            id = TimeOrderedUuid.generate();
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
 }
@@ -0,0 +1,53 @@
+package com.rgs.wallet.infrastructure.persistence.entity;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import com.rgs.wallet.domain.model.WalletCommandStatus;
+import com.rgs.wallet.domain.model.WalletCommandType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "wallet_commands")
+public class WalletCommandEntity {
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "command_type", nullable = false, length = 20, updatable = false)
+    private WalletCommandType type;
+
+    @Column(name = "wallet_id", nullable = false, updatable = false)
+    private UUID walletId;
+
+    @Column(name = "target_wallet_id", updatable = false)
+    private UUID targetWalletId;
+
+    @Column(nullable = false, precision = 15, scale = 2, updatable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WalletCommandStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "error_code", length = 20)
+    private ErrorCodeEnum errorCode;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -47,6 +48,20 @@ public class WalletEntity {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "ledger_sequence", nullable = false)
+    private long ledgerSequence;
+
+    @Column(name = "ledger_at")
+    private Instant ledgerAt;
+
+    // the instant the next ledger row is stamped with: the database clock, never behind the latest row
+    @Formula("GREATEST(ledger_at, CAST(clock_timestamp() AS timestamp))")
+    private Instant nextLedgerAt;
+
     @OneToMany(mappedBy = "wallet", cascade = CascadeType.ALL)
     @Builder.Default
     private List<TransactionEntity> transactions = new ArrayList<>();
@@ -0,0 +1,32 @@
+package com.rgs.wallet.infrastructure.persistence.mapper;
+
+import com.rgs.wallet.domain.model.JournalEntry;
+import com.rgs.wallet.domain.model.JournalPosting;
+import com.rgs.wallet.infrastructure.persistence.entity.JournalEntryEntity;
+import com.rgs.wallet.infrastructure.persistence.entity.JournalPostingEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JournalEntryMapper {
+
+    public JournalEntryEntity toEntity(JournalEntry entry) {
+        JournalEntryEntity entity = JournalEntryEntity.builder()
+                .id(entry.getId())
+                .type(entry.getType())
+                .createdAt(entry.getCreatedAt())
+                .build();
+        entry.getPostings().forEach(posting -> entity.getPostings().add(toEntity(entity, posting)));
+        return entity;
+    }
+
+    private JournalPostingEntity toEntity(JournalEntryEntity entry, JournalPosting posting) {
+        return JournalPostingEntity.builder()
+                .id(posting.getId())
+                .journalEntry(entry)
+                .accountId(posting.getAccountId())
+                .transactionId(posting.getTransactionId())
+                .amount(posting.getAmount())
+                .createdAt(posting.getCreatedAt())
+                .build();
+    }
+}
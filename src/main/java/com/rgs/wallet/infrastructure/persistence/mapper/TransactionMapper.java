@@ -1,7 +1,9 @@
 package com.rgs.wallet.infrastructure.persistence.mapper;
 
 import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionRecord;
 import com.rgs.wallet.infrastructure.persistence.entity.TransactionEntity;
+import com.rgs.wallet.infrastructure.persistence.projection.TransactionRow;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -19,9 +21,23 @@ public class TransactionMapper {
                 .type(entity.getType())
                 .createdAt(entity.getCreatedAt())
                 .relatedTransactionId(entity.getRelatedTransactionId())
+                .sequence(entity.getSequence())
+                .balanceAfter(entity.getBalanceAfter())
                 .build();
     }
 
+    public TransactionRecord toRecord(TransactionRow row) {
+        return new TransactionRecord(
+                row.id(),
+                row.walletId(),
+                row.amount(),
+                row.type(),
+                row.createdAt(),
+                row.relatedTransactionId(),
+                row.sequence(),
+                row.balanceAfter());
+    }
+
     public TransactionEntity toEntity(Transaction transaction) {
         return TransactionEntity.builder()
                 .id(transaction.getId())
@@ -30,6 +46,8 @@ public class TransactionMapper {
                 .type(transaction.getType())
                 .relatedTransactionId(transaction.getRelatedTransactionId())
                 .createdAt(transaction.getCreatedAt())
+                .sequence(transaction.getSequence())
+                .balanceAfter(transaction.getBalanceAfter())
                 .build();
     }
 }
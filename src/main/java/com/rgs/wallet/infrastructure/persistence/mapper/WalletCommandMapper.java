@@ -0,0 +1,24 @@
+package com.rgs.wallet.infrastructure.persistence.mapper;
+
+import com.rgs.wallet.domain.model.WalletCommand;
+import com.rgs.wallet.infrastructure.persistence.entity.WalletCommandEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WalletCommandMapper {
+
+    public WalletCommand toDomain(WalletCommandEntity entity) {
+        return WalletCommand.builder()
+                .id(entity.getId())
+                .type(entity.getType())
+                .walletId(entity.getWalletId())
+                .targetWalletId(entity.getTargetWalletId())
+                .amount(entity.getAmount())
+                .status(entity.getStatus())
+                .errorCode(entity.getErrorCode())
+                .attempts(entity.getAttempts())
+                .createdAt(entity.getCreatedAt())
+                .updatedAt(entity.getUpdatedAt())
+                .build();
+    }
+}
@@ -19,6 +19,9 @@ public class WalletMapper {
                 .status(entity.getStatus())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
+                .version(entity.getVersion())
+                .ledgerSequence(entity.getLedgerSequence())
+                .ledgerAt(entity.getNextLedgerAt())
                 .build();
     }
 
@@ -30,6 +33,9 @@ public class WalletMapper {
                 .status(wallet.getStatus())
                 .createdAt(wallet.getCreatedAt())
                 .updatedAt(wallet.getUpdatedAt())
+                .version(wallet.getVersion())
+                .ledgerSequence(wallet.getLedgerSequence())
+                .ledgerAt(wallet.getLedgerAt())
                 .build();
     }
 }
@@ -0,0 +1,16 @@
+package com.rgs.wallet.infrastructure.persistence.projection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Balance columns returned by the wallet balance reads and delta statements; {@code sequence} and
+ * {@code updatedAt} are null for stripe writes.
+ */
+public interface BalanceRow {
+    BigDecimal getBalance();
+
+    Long getSequence();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,23 @@
+package com.rgs.wallet.infrastructure.persistence.projection;
+
+import com.rgs.wallet.domain.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Columns of a {@code transactions} row selected straight into a DTO: nothing is managed by the
+ * persistence context and the wallet is never joined.
+ */
+public record TransactionRow(
+        UUID id,
+        UUID walletId,
+        BigDecimal amount,
+        TransactionType type,
+        Instant createdAt,
+        UUID relatedTransactionId,
+        Long sequence,
+        BigDecimal balanceAfter
+) {
+}
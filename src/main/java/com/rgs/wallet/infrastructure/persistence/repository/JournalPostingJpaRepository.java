@@ -0,0 +1,73 @@
+package com.rgs.wallet.infrastructure.persistence.repository;
+
+import com.rgs.wallet.infrastructure.persistence.entity.JournalPostingEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface JournalPostingJpaRepository extends JpaRepository<JournalPostingEntity, UUID> {
+
+    /**
+     * Balance at {@code timestamp}: the nearest checkpoint at or before it plus the postings since.
+     * A checkpoint holds the sum of every posting strictly before its {@code checkpoint_at}.
+     */
+    @Query(value = """
+            SELECT COALESCE(c.balance, 0) + (
+                SELECT COALESCE(SUM(p.amount), 0)
+                FROM journal_postings p
+                WHERE p.account_id = :accountId
+                  AND p.created_at >= COALESCE(c.checkpoint_at, '-infinity'::timestamp)
+                  AND p.created_at <= :timestamp)
+            FROM (SELECT 1) AS one
+            LEFT JOIN LATERAL (
+                SELECT checkpoint_at, balance
+                FROM wallet_balance_checkpoints
+                WHERE wallet_id = :accountId AND checkpoint_at <= :timestamp
+                ORDER BY checkpoint_at DESC
+                LIMIT 1) c ON true
+            """, nativeQuery = true)
+    BigDecimal balanceUpTo(@Param("accountId") UUID accountId,
+                           @Param("timestamp") Instant timestamp);
+
+    @Query(value = "SELECT MAX(checkpoint_at) FROM wallet_balance_checkpoints", nativeQuery = true)
+    Optional<Instant> findLatestCheckpoint();
+
+    /**
+     * Writes a checkpoint at {@code checkpointAt} for every account with postings in
+     * [{@code since}, {@code checkpointAt}), rolling its previous checkpoint forward by those postings.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO wallet_balance_checkpoints (wallet_id, checkpoint_at, balance)
+            SELECT a.account_id, :checkpointAt, COALESCE(c.balance, 0) + d.delta
+            FROM (
+                SELECT DISTINCT account_id
+                FROM journal_postings
+                WHERE created_at >= :since AND created_at < :checkpointAt
+                  AND account_id <> :clearingAccount) a
+            LEFT JOIN LATERAL (
+                SELECT checkpoint_at, balance
+                FROM wallet_balance_checkpoints
+                WHERE wallet_id = a.account_id AND checkpoint_at < :checkpointAt
+                ORDER BY checkpoint_at DESC
+                LIMIT 1) c ON true
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(SUM(p.amount), 0) AS delta
+                FROM journal_postings p
+                WHERE p.account_id = a.account_id
+                  AND p.created_at >= COALESCE(c.checkpoint_at, '-infinity'::timestamp)
+                  AND p.created_at < :checkpointAt) d
+            ON CONFLICT (wallet_id, checkpoint_at) DO NOTHING
+            """, nativeQuery = true)
+    int createCheckpoints(@Param("since") Instant since,
+                          @Param("checkpointAt") Instant checkpointAt,
+                          @Param("clearingAccount") UUID clearingAccount);
+}
@@ -1,27 +1,102 @@
 package com.rgs.wallet.infrastructure.persistence.repository;
 
+import com.rgs.wallet.domain.model.TransactionType;
 import com.rgs.wallet.infrastructure.persistence.entity.TransactionEntity;
+import com.rgs.wallet.infrastructure.persistence.projection.TransactionRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionJpaRepository extends JpaRepository<TransactionEntity, UUID> {
 
-    @Query("SELECT COALESCE(SUM(CASE WHEN t.type = 'DEPOSIT' OR t.type = 'TRANSFER_IN' THEN t.amount ELSE -t.amount END), 0) " +
-            "FROM TransactionEntity t " +
-            "WHERE t.wallet.id = :walletId AND t.createdAt <= :timestamp")
-    BigDecimal calculateBalanceUpTo(@Param("walletId") UUID walletId,
-                                    @Param("timestamp") Instant timestamp);
-
-    List<TransactionEntity> findByWalletIdAndCreatedAtBetween(
-            UUID walletId,
-            Instant startDate,
-            Instant endDate);
-}
\ No newline at end of file
+    @Query("""
+            SELECT new com.rgs.wallet.infrastructure.persistence.projection.TransactionRow(
+                t.id, t.wallet.id, t.amount, t.type, t.createdAt, t.relatedTransactionId, t.sequence, t.balanceAfter)
+            FROM TransactionEntity t
+            WHERE t.wallet.id = :walletId AND t.createdAt BETWEEN :startDate AND :endDate
+            """)
+    List<TransactionRow> findRowsByWalletIdAndPeriod(@Param("walletId") UUID walletId,
+                                                     @Param("startDate") Instant startDate,
+                                                     @Param("endDate") Instant endDate);
+
+    /**
+     * Oldest-first rows of a wallet in a period, fetched from a server-side cursor in chunks of the fetch
+     * size. Must be consumed, and closed, inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.rgs.wallet.infrastructure.persistence.projection.TransactionRow(
+                t.id, t.wallet.id, t.amount, t.type, t.createdAt, t.relatedTransactionId, t.sequence, t.balanceAfter)
+            FROM TransactionEntity t
+            WHERE t.wallet.id = :walletId AND t.createdAt BETWEEN :startDate AND :endDate
+            ORDER BY t.createdAt, t.id
+            """)
+    Stream<TransactionRow> streamByWalletIdAndPeriod(@Param("walletId") UUID walletId,
+                                                     @Param("startDate") Instant startDate,
+                                                     @Param("endDate") Instant endDate);
+
+    /**
+     * First page of a wallet's history, newest first; {@code type} is optional and {@code page} only
+     * carries the row limit.
+     */
+    @Query("""
+            SELECT new com.rgs.wallet.infrastructure.persistence.projection.TransactionRow(
+                t.id, t.wallet.id, t.amount, t.type, t.createdAt, t.relatedTransactionId, t.sequence, t.balanceAfter)
+            FROM TransactionEntity t
+            WHERE t.wallet.id = :walletId
+              AND (:type IS NULL OR t.type = :type)
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    List<TransactionRow> findFirstPage(@Param("walletId") UUID walletId,
+                                       @Param("type") TransactionType type,
+                                       Pageable page);
+
+    /**
+     * Seeks past the {@code (createdAt, id)} cursor instead of skipping rows, so every page costs the same.
+     * The redundant {@code createdAt <= :createdAt} keeps the bound on the indexed column; {@code id} only
+     * breaks ties between rows written in the same instant.
+     */
+    @Query("""
+            SELECT new com.rgs.wallet.infrastructure.persistence.projection.TransactionRow(
+                t.id, t.wallet.id, t.amount, t.type, t.createdAt, t.relatedTransactionId, t.sequence, t.balanceAfter)
+            FROM TransactionEntity t
+            WHERE t.wallet.id = :walletId
+              AND (:type IS NULL OR t.type = :type)
+              AND t.createdAt <= :createdAt
+              AND (t.createdAt < :createdAt OR t.id < :id)
+            ORDER BY t.createdAt DESC, t.id DESC
+            """)
+    List<TransactionRow> findPageAfter(@Param("walletId") UUID walletId,
+                                       @Param("type") TransactionType type,
+                                       @Param("createdAt") Instant createdAt,
+                                       @Param("id") UUID id,
+                                       Pageable page);
+
+    /**
+     * The wallet's last ledger rows at or before {@code timestamp}, newest first; the first one fixes the
+     * wallet's balance at that instant. Writers stamp rows from {@code wallets.ledger_at} under the wallet
+     * lock, so created_at never decreases as the sequence grows and this order is the sequence order.
+     */
+    @Query("""
+            SELECT new com.rgs.wallet.infrastructure.persistence.projection.TransactionRow(
+                t.id, t.wallet.id, t.amount, t.type, t.createdAt, t.relatedTransactionId, t.sequence, t.balanceAfter)
+            FROM TransactionEntity t
+            WHERE t.wallet.id = :walletId
+              AND t.createdAt <= :timestamp
+            ORDER BY t.createdAt DESC, t.sequence DESC
+            """)
+    List<TransactionRow> findLatestUpTo(@Param("walletId") UUID walletId,
+                                        @Param("timestamp") Instant timestamp,
+                                        Pageable page);
+}
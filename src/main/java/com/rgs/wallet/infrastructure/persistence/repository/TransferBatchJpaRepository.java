@@ -0,0 +1,22 @@
+package com.rgs.wallet.infrastructure.persistence.repository;
+
+import com.rgs.wallet.infrastructure.persistence.entity.TransferBatchEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface TransferBatchJpaRepository extends JpaRepository<TransferBatchEntity, UUID> {
+
+    /**
+     * Joins the caller's transaction: a second insert of the same id blocks on the primary key until
+     * the first transaction ends, then inserts nothing if it committed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transfer_batches (id) VALUES (:id) ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id);
+}
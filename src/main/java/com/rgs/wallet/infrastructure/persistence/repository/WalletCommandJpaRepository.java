@@ -0,0 +1,78 @@
+package com.rgs.wallet.infrastructure.persistence.repository;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import com.rgs.wallet.domain.model.WalletCommandStatus;
+import com.rgs.wallet.infrastructure.persistence.entity.WalletCommandEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WalletCommandJpaRepository extends JpaRepository<WalletCommandEntity, UUID> {
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO wallet_commands (id, command_type, wallet_id, target_wallet_id, amount)
+            VALUES (:id, :type, :walletId, :targetWalletId, :amount)
+            ON CONFLICT (id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("type") String type,
+                       @Param("walletId") UUID walletId,
+                       @Param("targetWalletId") UUID targetWalletId,
+                       @Param("amount") BigDecimal amount);
+
+    /**
+     * Claims up to {@code batchSize} pending commands, oldest first, plus any left in PROCESSING by a
+     * worker that died more than {@code leaseSeconds} ago. SKIP LOCKED lets concurrent workers claim
+     * disjoint batches without waiting on each other.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE wallet_commands c
+               SET status = 'PROCESSING',
+                   attempts = c.attempts + 1,
+                   updated_at = CURRENT_TIMESTAMP
+              FROM (
+                    SELECT id
+                      FROM wallet_commands
+                     WHERE status = 'PENDING'
+                        OR (status = 'PROCESSING'
+                            AND updated_at < CURRENT_TIMESTAMP - make_interval(secs => :leaseSeconds))
+                     ORDER BY created_at
+                     LIMIT :batchSize
+                       FOR UPDATE SKIP LOCKED
+                   ) claimable
+             WHERE c.id = claimable.id
+            RETURNING c.*
+            """, nativeQuery = true)
+    List<WalletCommandEntity> claimBatch(@Param("batchSize") int batchSize,
+                                         @Param("leaseSeconds") long leaseSeconds);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE WalletCommandEntity c SET c.status = :status, c.errorCode = :errorCode, " +
+            "c.updatedAt = CURRENT_TIMESTAMP WHERE c.id = :id " +
+            "AND c.status = com.rgs.wallet.domain.model.WalletCommandStatus.PROCESSING")
+    int updateStatus(@Param("id") UUID id,
+                     @Param("status") WalletCommandStatus status,
+                     @Param("errorCode") ErrorCodeEnum errorCode);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM wallet_commands
+             WHERE status IN ('COMPLETED', 'FAILED')
+               AND updated_at < :before
+            """, nativeQuery = true)
+    int purgeFinished(@Param("before") Instant before);
+}
@@ -1,12 +1,20 @@
 package com.rgs.wallet.infrastructure.persistence.repository;
 
 import com.rgs.wallet.infrastructure.persistence.entity.WalletEntity;
+import com.rgs.wallet.infrastructure.persistence.projection.BalanceRow;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,7 +22,139 @@ import java.util.UUID;
 public interface WalletJpaRepository extends JpaRepository<WalletEntity, UUID> {
     Optional<WalletEntity> findByUserId(UUID userId);
 
+    @Query("SELECT w.balance AS balance, w.ledgerSequence AS sequence, w.updatedAt AS updatedAt " +
+            "FROM WalletEntity w WHERE w.id = :id")
+    Optional<BalanceRow> findBalanceById(@Param("id") UUID id);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT w FROM WalletEntity w WHERE w.id = :id")
     Optional<WalletEntity> findByIdWithLock(UUID id);
-}
\ No newline at end of file
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WalletEntity w JOIN FETCH w.user WHERE w.id IN :ids ORDER BY w.id")
+    List<WalletEntity> findAllByIdInOrderByIdWithLock(@Param("ids") Collection<UUID> ids);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE WalletEntity w SET w.balance = :balance, w.ledgerSequence = :ledgerSequence, " +
+            "w.ledgerAt = :ledgerAt, w.updatedAt = :updatedAt, w.version = w.version + 1 " +
+            "WHERE w.id = :id AND w.version = :version")
+    int updateBalanceIfVersionMatches(@Param("id") UUID id,
+                                      @Param("balance") BigDecimal balance,
+                                      @Param("ledgerSequence") long ledgerSequence,
+                                      @Param("ledgerAt") Instant ledgerAt,
+                                      @Param("updatedAt") Instant updatedAt,
+                                      @Param("version") Long version);
+
+    /**
+     * Ledger writes shared by the single-row delta statements below. Each statement opens with an
+     * {@code updated} CTE returning {@code (id, balance, balance_after, sequence, created_at, updated_at)}
+     * for the wallet it changed, or no row when the delta was rejected, in which case nothing is written.
+     * {@code created_at} stamps the ledger row and its journal entry. Writes to a striped wallet leave its
+     * running balance unknown and return nulls for balance_after and sequence; stripe writes also for
+     * updated_at.
+     * The new balance, sequence and timestamp are returned as a {@link BalanceRow}.
+     */
+    String LEDGER_FOR_UPDATED = """
+            , ledger AS (
+                INSERT INTO transactions (id, wallet_id, amount, type, balance_after, sequence, created_at)
+                SELECT :transactionId, id, :amount, :type, balance_after, sequence, created_at FROM updated
+            ), journal_entry AS (
+                INSERT INTO journal_entries (id, entry_type, created_at)
+                SELECT :journalEntryId, :type, created_at FROM updated
+            ), journal_postings AS (
+                INSERT INTO journal_postings (journal_entry_id, account_id, transaction_id, amount, created_at)
+                SELECT :journalEntryId, id, :transactionId, :delta, created_at FROM updated
+                UNION ALL
+                SELECT :journalEntryId, :clearingAccountId, :transactionId, 0 - :delta, created_at FROM updated
+            )
+            SELECT balance, sequence, updated_at AS "updatedAt" FROM updated
+            """;
+
+    @Transactional
+    @Query(value = """
+            WITH updated AS (
+                UPDATE wallets
+                   SET balance = balance + :delta,
+                       ledger_sequence = ledger_sequence + CASE WHEN :sequenced THEN 1 ELSE 0 END,
+                       version = version + 1,
+                       ledger_at = GREATEST(ledger_at, CAST(clock_timestamp() AS timestamp)),
+                       updated_at = CURRENT_TIMESTAMP
+                 WHERE id = :walletId
+                   AND balance + :delta >= 0
+                RETURNING id, balance,
+                          CASE WHEN :sequenced THEN balance END AS balance_after,
+                          CASE WHEN :sequenced THEN ledger_sequence END AS sequence,
+                          ledger_at AS created_at, updated_at
+            )
+            """ + LEDGER_FOR_UPDATED, nativeQuery = true)
+    Optional<BalanceRow> applyBalanceDelta(@Param("transactionId") UUID transactionId,
+                                           @Param("journalEntryId") UUID journalEntryId,
+                                           @Param("clearingAccountId") UUID clearingAccountId,
+                                           @Param("walletId") UUID walletId,
+                                           @Param("delta") BigDecimal delta,
+                                           @Param("amount") BigDecimal amount,
+                                           @Param("type") String type,
+                                           @Param("sequenced") boolean sequenced);
+
+    @Transactional
+    @Query(value = """
+            WITH updated AS (
+                INSERT INTO wallet_balance_stripes AS s (wallet_id, stripe, balance)
+                VALUES (:walletId, :stripe, :delta)
+                ON CONFLICT (wallet_id, stripe) DO UPDATE SET balance = s.balance + EXCLUDED.balance
+                RETURNING wallet_id AS id, balance, NULL::numeric AS balance_after, NULL::int8 AS sequence,
+                          CAST(clock_timestamp() AS timestamp) AS created_at, NULL::timestamp AS updated_at
+            )
+            """ + LEDGER_FOR_UPDATED, nativeQuery = true)
+    Optional<BalanceRow> creditBalanceStripe(@Param("transactionId") UUID transactionId,
+                                             @Param("journalEntryId") UUID journalEntryId,
+                                             @Param("clearingAccountId") UUID clearingAccountId,
+                                             @Param("walletId") UUID walletId,
+                                             @Param("stripe") short stripe,
+                                             @Param("delta") BigDecimal delta,
+                                             @Param("amount") BigDecimal amount,
+                                             @Param("type") String type);
+
+    @Transactional
+    @Query(value = """
+            WITH updated AS (
+                UPDATE wallet_balance_stripes
+                   SET balance = balance + :delta
+                 WHERE wallet_id = :walletId
+                   AND stripe = :stripe
+                   AND balance + :delta >= 0
+                RETURNING wallet_id AS id, balance, NULL::numeric AS balance_after, NULL::int8 AS sequence,
+                          CAST(clock_timestamp() AS timestamp) AS created_at, NULL::timestamp AS updated_at
+            )
+            """ + LEDGER_FOR_UPDATED, nativeQuery = true)
+    Optional<BalanceRow> debitBalanceStripe(@Param("transactionId") UUID transactionId,
+                                            @Param("journalEntryId") UUID journalEntryId,
+                                            @Param("clearingAccountId") UUID clearingAccountId,
+                                            @Param("walletId") UUID walletId,
+                                            @Param("stripe") short stripe,
+                                            @Param("delta") BigDecimal delta,
+                                            @Param("amount") BigDecimal amount,
+                                            @Param("type") String type);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = """
+            WITH drained AS (
+                DELETE FROM wallet_balance_stripes
+                 WHERE wallet_id = :walletId
+                RETURNING balance
+            )
+            UPDATE wallets
+               SET balance = balance + (SELECT SUM(balance) FROM drained),
+                   version = version + 1,
+                   updated_at = CURRENT_TIMESTAMP
+             WHERE id = :walletId
+               AND EXISTS (SELECT 1 FROM drained)
+            """, nativeQuery = true)
+    int foldBalanceStripes(@Param("walletId") UUID walletId);
+
+    @Query(value = "SELECT COALESCE(SUM(balance), 0) FROM wallet_balance_stripes WHERE wallet_id = :walletId",
+            nativeQuery = true)
+    BigDecimal sumBalanceStripes(@Param("walletId") UUID walletId);
+}
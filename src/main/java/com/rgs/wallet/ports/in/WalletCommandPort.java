@@ -0,0 +1,13 @@
+package com.rgs.wallet.ports.in;
+
+import com.rgs.wallet.domain.model.WalletCommand;
+
+import java.util.UUID;
+
+public interface WalletCommandPort {
+    boolean isEnabled();
+
+    WalletCommand submit(WalletCommand command);
+
+    WalletCommand getCommand(UUID commandId);
+}
@@ -0,0 +1,20 @@
+package com.rgs.wallet.ports.in;
+
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.Wallet;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public interface WalletQueryPort {
+    Mono<BigDecimal> getBalance(UUID walletId);
+
+    Mono<Wallet> getWallet(UUID walletId);
+
+    Mono<BigDecimal> getHistoricalBalance(UUID walletId, Instant timestamp);
+
+    Flux<TransactionRecord> getTransactions(UUID walletId, Instant startDate, Instant endDate);
+}
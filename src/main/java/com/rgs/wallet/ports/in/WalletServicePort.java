@@ -1,20 +1,40 @@
 package com.rgs.wallet.ports.in;
 
 import com.rgs.wallet.domain.exceptions.InsufficientFundsException;
-import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.BatchTransferMode;
+import com.rgs.wallet.domain.model.TransactionCursor;
+import com.rgs.wallet.domain.model.TransactionPage;
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.model.TransferLegResult;
+import com.rgs.wallet.domain.model.TransferOrder;
 import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletCommand;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface WalletServicePort {
     Wallet createWallet(UUID userId);
 
     BigDecimal getBalance(UUID walletId);
     Wallet getWallet(UUID walletId);
-    List<Transaction> getTransactions(UUID walletId, Instant startDate, Instant endDate);
+    List<TransactionRecord> getTransactions(UUID walletId, Instant startDate, Instant endDate);
+
+    /**
+     * Newest-first page of a wallet's transactions after {@code after} (or from the latest when null),
+     * optionally restricted to one {@code type}; {@code pageSize} is capped by configuration.
+     */
+    TransactionPage getTransactionPage(UUID walletId, TransactionCursor after, int pageSize, TransactionType type);
+
+    /**
+     * Streams every transaction of the wallet in the period to {@code sink}, oldest first, in constant
+     * memory. Does not check that the wallet exists: callers that must answer 404 do so before streaming.
+     */
+    void exportTransactions(UUID walletId, Instant startDate, Instant endDate, Consumer<TransactionRecord> sink);
 
     BigDecimal getHistoricalBalance(UUID walletId, Instant timestamp);
 
@@ -23,4 +43,12 @@ public interface WalletServicePort {
     void withdraw(UUID walletId, BigDecimal amount, UUID requestId);
 
     void transfer(UUID fromWalletId, UUID toWalletId, BigDecimal amount, UUID requestId) throws InsufficientFundsException;
+
+    List<TransferLegResult> transferBatch(List<TransferOrder> orders, BatchTransferMode mode, UUID batchId);
+
+    /**
+     * Applies a claimed asynchronous command in the transaction that marks it completed. Does nothing
+     * when the command is no longer PROCESSING, i.e. an earlier attempt already committed it.
+     */
+    void applyCommand(WalletCommand command);
 }
@@ -0,0 +1,10 @@
+package com.rgs.wallet.ports.out;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface BalanceCheckpointPersistencePort {
+    Optional<Instant> findLatestCheckpoint();
+
+    int createCheckpoints(Instant since, Instant checkpointAt);
+}
@@ -0,0 +1,37 @@
+package com.rgs.wallet.ports.out;
+
+import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionCursor;
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface TransactionPersistencePort {
+    Transaction save(Transaction transaction);
+
+    List<Transaction> saveAll(List<Transaction> transactions);
+
+    List<TransactionRecord> findByWalletIdAndPeriod(UUID walletId, Instant startDate, Instant endDate);
+
+    /**
+     * Hands every transaction of the wallet in the period to {@code action}, oldest first, without holding
+     * more than one fetch of rows in memory. Runs within the caller's transaction.
+     */
+    void forEachInPeriod(UUID walletId, Instant startDate, Instant endDate, Consumer<TransactionRecord> action);
+
+    List<TransactionRecord> findPage(UUID walletId, TransactionCursor after, TransactionType type, int limit);
+
+    /**
+     * The wallet's last ledger row at or before {@code timestamp}: every instant from it up to the next row
+     * shares the balance right after it. {@code balanceAfter} is null on rows that carry no running balance.
+     */
+    Optional<TransactionRecord> findLastUpTo(UUID walletId, Instant timestamp);
+
+    BigDecimal calculateBalanceUpTo(UUID walletId, Instant timestamp);
+}
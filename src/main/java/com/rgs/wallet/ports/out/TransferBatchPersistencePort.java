@@ -0,0 +1,10 @@
+package com.rgs.wallet.ports.out;
+
+import java.util.UUID;
+
+public interface TransferBatchPersistencePort {
+    /**
+     * @return false when a batch with this id was already applied
+     */
+    boolean register(UUID batchId);
+}
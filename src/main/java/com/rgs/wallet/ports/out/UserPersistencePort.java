@@ -0,0 +1,10 @@
+package com.rgs.wallet.ports.out;
+
+import com.rgs.wallet.domain.model.User;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserPersistencePort {
+    Optional<User> findById(UUID userId);
+}
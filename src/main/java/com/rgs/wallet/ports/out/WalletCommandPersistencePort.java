@@ -0,0 +1,35 @@
+package com.rgs.wallet.ports.out;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import com.rgs.wallet.domain.model.WalletCommand;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface WalletCommandPersistencePort {
+    WalletCommand enqueue(WalletCommand command);
+
+    Optional<WalletCommand> findById(UUID commandId);
+
+    List<WalletCommand> claimBatch(int batchSize, long leaseSeconds);
+
+    /**
+     * Joins the caller's transaction. Status updates only apply to a command still PROCESSING, so a
+     * worker whose lease was taken over cannot overwrite the outcome of the one that took it.
+     *
+     * @return false when the command is no longer PROCESSING
+     */
+    boolean markCompleted(UUID commandId);
+
+    void markFailed(UUID commandId, ErrorCodeEnum errorCode);
+
+    void release(UUID commandId);
+
+    /**
+     * Deletes COMPLETED and FAILED commands last updated before {@code before}; their ids can then be
+     * reused.
+     */
+    int purgeFinished(Instant before);
+}
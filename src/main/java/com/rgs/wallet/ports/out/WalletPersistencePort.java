@@ -0,0 +1,46 @@
+package com.rgs.wallet.ports.out;
+
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.model.User;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletBalance;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface WalletPersistencePort {
+    Wallet save(Wallet wallet);
+
+    Optional<Wallet> findById(UUID walletId);
+
+    /**
+     * Reads only the balance and ledger sequence columns: no entity, owner or lock. Striped
+     * sub-balances are not included.
+     */
+    Optional<WalletBalance> findBalance(UUID walletId);
+
+    Optional<Wallet> findByIdForUpdate(UUID walletId);
+
+    List<Wallet> findAllByIdForUpdate(Collection<UUID> walletIds);
+
+    boolean existsByUser(User user);
+
+    Optional<WalletBalance> applyBalanceDelta(UUID walletId, BigDecimal delta, TransactionType type);
+
+    /**
+     * Applies a delta to the row of a striped wallet, whose ledger row then carries no running balance or
+     * sequence: the row leaves out the stripes.
+     */
+    Optional<BigDecimal> applyStripedWalletDelta(UUID walletId, BigDecimal delta, TransactionType type);
+
+    boolean updateBalanceWithVersionCheck(Wallet wallet);
+
+    Optional<BigDecimal> applyStripeDelta(UUID walletId, int stripe, BigDecimal delta, TransactionType type);
+
+    boolean foldBalanceStripes(UUID walletId);
+
+    BigDecimal sumBalanceStripes(UUID walletId);
+}
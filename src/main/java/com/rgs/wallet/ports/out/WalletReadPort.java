@@ -0,0 +1,23 @@
+package com.rgs.wallet.ports.out;
+
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.Wallet;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public interface WalletReadPort {
+    /**
+     * Wallet with its owner; the balance already includes any striped sub-balances.
+     */
+    Mono<Wallet> findById(UUID walletId);
+
+    Mono<BigDecimal> findBalanceAfter(UUID walletId, Instant timestamp);
+
+    Mono<BigDecimal> calculateBalanceUpTo(UUID walletId, Instant timestamp);
+
+    Flux<TransactionRecord> findByWalletIdAndPeriod(UUID walletId, Instant startDate, Instant endDate);
+}
@@ -0,0 +1,40 @@
+-- Journal entries for ledger rows written before the journal existed (V3), so balances summed over
+-- journal_postings include them. Deposits and withdrawals post against the external clearing account
+-- and the two legs of a transfer share one entry, as the application writes them. A transfer leg
+-- whose counterpart is missing is balanced against the clearing account. Postings keep the created_at
+-- of the ledger row they mirror.
+
+CREATE TEMP TABLE journal_backfill AS
+SELECT t.id AS transaction_id,
+	t.wallet_id,
+	t.created_at,
+	CASE WHEN t."type" IN ('DEPOSIT', 'TRANSFER_IN') THEN t.amount ELSE 0 - t.amount END AS delta,
+	CASE WHEN t."type" IN ('TRANSFER_OUT', 'TRANSFER_IN') THEN 'TRANSFER' ELSE t."type" END AS entry_type,
+	CASE WHEN t."type" = 'TRANSFER_IN' THEN COALESCE(t.related_transaction_id, t.id) ELSE t.id END AS entry_key
+FROM public.transactions t
+WHERE NOT EXISTS (SELECT 1 FROM public.journal_postings p WHERE p.transaction_id = t.id);
+
+CREATE TEMP TABLE journal_backfill_entries AS
+SELECT entry_key,
+	gen_random_uuid() AS entry_id,
+	MIN(entry_type) AS entry_type,
+	MIN(created_at) AS created_at,
+	SUM(delta) AS imbalance,
+	(array_agg(transaction_id ORDER BY created_at))[1] AS first_transaction_id
+FROM journal_backfill
+GROUP BY entry_key;
+
+INSERT INTO public.journal_entries (id, entry_type, created_at)
+SELECT entry_id, entry_type, created_at FROM journal_backfill_entries;
+
+INSERT INTO public.journal_postings (journal_entry_id, account_id, transaction_id, amount, created_at)
+SELECT e.entry_id, b.wallet_id, b.transaction_id, b.delta, b.created_at
+FROM journal_backfill b
+JOIN journal_backfill_entries e USING (entry_key)
+UNION ALL
+SELECT entry_id, '00000000-0000-0000-0000-000000000001'::uuid, first_transaction_id, 0 - imbalance, created_at
+FROM journal_backfill_entries
+WHERE imbalance <> 0;
+
+DROP TABLE journal_backfill_entries;
+DROP TABLE journal_backfill;
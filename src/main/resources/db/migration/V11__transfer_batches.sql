@@ -0,0 +1,14 @@
+-- public.transfer_batches definition
+-- One row per applied batch transfer; id is the client's X-Request-ID. Inserted in the batch's own
+-- transaction, so a repeated or concurrent batch with the same id waits on the primary key and is
+-- rejected once the first commits, while a batch that applied nothing rolls its row back.
+
+-- Drop table
+
+-- DROP TABLE public.transfer_batches;
+
+CREATE TABLE public.transfer_batches (
+	id uuid NOT NULL,
+	created_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
+	CONSTRAINT transfer_batches_pkey PRIMARY KEY (id)
+);
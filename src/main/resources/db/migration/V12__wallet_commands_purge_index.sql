@@ -0,0 +1,2 @@
+-- lets the command purge find finished commands without scanning the whole table
+CREATE INDEX idx_wallet_commands_finished ON public.wallet_commands USING btree (updated_at) WHERE ((status)::text = ANY ((ARRAY['COMPLETED'::character varying, 'FAILED'::character varying])::text[]));
@@ -0,0 +1,10 @@
+-- Timestamp of the wallet's latest ledger row. Ledger rows are read newest first by (created_at, sequence),
+-- so created_at must not go backwards as the sequence grows. Writers holding the wallet row lock stamp a
+-- row with GREATEST(ledger_at, clock_timestamp()) and store the result here. Backfilled from existing rows.
+
+ALTER TABLE public.wallets ADD COLUMN ledger_at timestamp NULL;
+
+UPDATE public.wallets w
+   SET ledger_at = t.latest
+  FROM (SELECT wallet_id, MAX(created_at) AS latest FROM public.transactions GROUP BY wallet_id) t
+ WHERE w.id = t.wallet_id;
@@ -1,3 +1,6 @@
+-- Baseline: schema as created by docker/sql/init-01.sql before migrations were introduced. Databases
+-- created by that script are baselined at this version and receive every later migration.
+
 -- public.users definition
 
 -- Drop table
@@ -60,15 +63,3 @@ CREATE INDEX idx_transactions_wallet ON public.transactions USING btree (wallet_
 
 ALTER TABLE public.transactions ADD CONSTRAINT fk_transactions_wallet FOREIGN KEY (wallet_id) REFERENCES public.wallets(id) ON DELETE CASCADE;
 ALTER TABLE public.transactions ADD CONSTRAINT transactions_wallet_id_fkey FOREIGN KEY (wallet_id) REFERENCES public.wallets(id) ON DELETE CASCADE;
-
-
-
-INSERT INTO public.users
-(id, "name", tax_id, created_at, updated_at)
-VALUES('7fec14cd-09b1-4d05-be31-c679a32b54df'::uuid, 'Roberto G santos', '00000000001', '2025-08-02 00:13:36.388', '2025-08-02 00:13:36.388');
-INSERT INTO public.users
-(id, "name", tax_id, created_at, updated_at)
-VALUES('dcfe55ad-1955-471a-88eb-3632edb1401e'::uuid, 'Carlos Abreu', '00000000002', '2025-08-02 00:19:31.010', '2025-08-02 00:19:31.010');
-INSERT INTO public.users
-(id, "name", tax_id, created_at, updated_at)
-VALUES('1d14403b-2f41-46f6-976f-b44f357f9564'::uuid, 'Bod', '1111111111111', '2025-08-03 18:58:21.472', '2025-08-03 18:58:21.472');
\ No newline at end of file
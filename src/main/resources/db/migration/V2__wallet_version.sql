@@ -0,0 +1,3 @@
+-- Optimistic writes check and bump this version; every other writer bumps it as well.
+
+ALTER TABLE public.wallets ADD COLUMN version int8 DEFAULT 0 NOT NULL;
@@ -0,0 +1,71 @@
+-- Double-entry journal: every ledger write posts a balanced entry.
+
+-- public.journal_entries definition
+
+-- Drop table
+
+-- DROP TABLE public.journal_entries;
+
+CREATE TABLE public.journal_entries (
+	id uuid DEFAULT gen_random_uuid() NOT NULL,
+	entry_type varchar(20) NOT NULL,
+	created_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
+	CONSTRAINT journal_entries_pkey PRIMARY KEY (id),
+	CONSTRAINT journal_entries_entry_type_check CHECK (((entry_type)::text = ANY ((ARRAY['DEPOSIT'::character varying, 'WITHDRAWAL'::character varying, 'TRANSFER'::character varying])::text[])))
+);
+
+-- public.journal_postings definition
+-- Signed amounts: credits are positive, debits negative. account_id is a wallet id or the
+-- external clearing account (00000000-0000-0000-0000-000000000001), which is never materialized.
+
+-- Drop table
+
+-- DROP TABLE public.journal_postings;
+
+CREATE TABLE public.journal_postings (
+	id uuid DEFAULT gen_random_uuid() NOT NULL,
+	journal_entry_id uuid NOT NULL,
+	account_id uuid NOT NULL,
+	transaction_id uuid NULL,
+	amount numeric(15, 2) NOT NULL,
+	created_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
+	CONSTRAINT journal_postings_pkey PRIMARY KEY (id)
+);
+CREATE INDEX idx_journal_postings_entry ON public.journal_postings USING btree (journal_entry_id);
+CREATE INDEX idx_journal_postings_account_created_at ON public.journal_postings USING btree (account_id, created_at) INCLUDE (amount);
+
+
+-- public.journal_postings foreign keys
+
+ALTER TABLE public.journal_postings ADD CONSTRAINT journal_postings_journal_entry_id_fkey FOREIGN KEY (journal_entry_id) REFERENCES public.journal_entries(id);
+
+
+-- journal integrity: entries must balance at commit and neither table can be rewritten
+
+CREATE FUNCTION public.check_journal_entry_balanced() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+	IF (SELECT SUM(amount) FROM public.journal_postings WHERE journal_entry_id = NEW.journal_entry_id) <> 0 THEN
+		RAISE EXCEPTION 'journal entry % does not balance', NEW.journal_entry_id;
+	END IF;
+	RETURN NULL;
+END;
+$$;
+
+CREATE CONSTRAINT TRIGGER journal_postings_balanced
+	AFTER INSERT ON public.journal_postings
+	DEFERRABLE INITIALLY DEFERRED
+	FOR EACH ROW EXECUTE FUNCTION public.check_journal_entry_balanced();
+
+CREATE FUNCTION public.reject_journal_mutation() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+	RAISE EXCEPTION '% is append-only', TG_TABLE_NAME;
+END;
+$$;
+
+CREATE TRIGGER journal_entries_append_only
+	BEFORE UPDATE OR DELETE ON public.journal_entries
+	FOR EACH ROW EXECUTE FUNCTION public.reject_journal_mutation();
+
+CREATE TRIGGER journal_postings_append_only
+	BEFORE UPDATE OR DELETE ON public.journal_postings
+	FOR EACH ROW EXECUTE FUNCTION public.reject_journal_mutation();
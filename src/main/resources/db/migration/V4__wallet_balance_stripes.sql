@@ -0,0 +1,18 @@
+-- public.wallet_balance_stripes definition
+-- Extra credit buckets for hot wallets: a wallet's balance is wallets.balance plus the sum of its
+-- stripes. Deposits to striped wallets land here without touching the wallet row; debits that a
+-- single stripe cannot cover fold every stripe back into wallets.balance.
+
+-- Drop table
+
+-- DROP TABLE public.wallet_balance_stripes;
+
+CREATE TABLE public.wallet_balance_stripes (
+	wallet_id uuid NOT NULL,
+	stripe int2 NOT NULL,
+	balance numeric(15, 2) DEFAULT 0.00 NOT NULL,
+	CONSTRAINT wallet_balance_stripes_balance_check CHECK ((balance >= (0)::numeric)),
+	CONSTRAINT wallet_balance_stripes_pkey PRIMARY KEY (wallet_id, stripe)
+);
+
+ALTER TABLE public.wallet_balance_stripes ADD CONSTRAINT wallet_balance_stripes_wallet_id_fkey FOREIGN KEY (wallet_id) REFERENCES public.wallets(id) ON DELETE CASCADE;
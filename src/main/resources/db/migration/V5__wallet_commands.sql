@@ -0,0 +1,24 @@
+-- public.wallet_commands definition
+-- Writes accepted asynchronously; id is the client's X-Request-ID. Workers claim PENDING rows
+-- with FOR UPDATE SKIP LOCKED and reclaim PROCESSING rows whose lease expired.
+
+-- Drop table
+
+-- DROP TABLE public.wallet_commands;
+
+CREATE TABLE public.wallet_commands (
+	id uuid NOT NULL,
+	command_type varchar(20) NOT NULL,
+	wallet_id uuid NOT NULL,
+	target_wallet_id uuid NULL,
+	amount numeric(15, 2) NOT NULL,
+	status varchar(20) DEFAULT 'PENDING'::character varying NOT NULL,
+	error_code varchar(20) NULL,
+	attempts int4 DEFAULT 0 NOT NULL,
+	created_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
+	updated_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL,
+	CONSTRAINT wallet_commands_pkey PRIMARY KEY (id),
+	CONSTRAINT wallet_commands_command_type_check CHECK (((command_type)::text = ANY ((ARRAY['DEPOSIT'::character varying, 'WITHDRAWAL'::character varying, 'TRANSFER'::character varying])::text[]))),
+	CONSTRAINT wallet_commands_status_check CHECK (((status)::text = ANY ((ARRAY['PENDING'::character varying, 'PROCESSING'::character varying, 'COMPLETED'::character varying, 'FAILED'::character varying])::text[])))
+);
+CREATE INDEX idx_wallet_commands_claimable ON public.wallet_commands USING btree (created_at) WHERE ((status)::text = ANY ((ARRAY['PENDING'::character varying, 'PROCESSING'::character varying])::text[]));
@@ -0,0 +1,17 @@
+-- public.wallet_balance_checkpoints definition
+-- balance = sum of the wallet's journal postings with created_at < checkpoint_at. Written by the
+-- checkpoint job and never updated, which is safe because postings are append-only.
+
+-- Drop table
+
+-- DROP TABLE public.wallet_balance_checkpoints;
+
+CREATE TABLE public.wallet_balance_checkpoints (
+	wallet_id uuid NOT NULL,
+	checkpoint_at timestamp NOT NULL,
+	balance numeric(15, 2) NOT NULL,
+	CONSTRAINT wallet_balance_checkpoints_pkey PRIMARY KEY (wallet_id, checkpoint_at)
+);
+
+-- lets the checkpoint job find the wallets active since its last run
+CREATE INDEX idx_journal_postings_created_at ON public.journal_postings USING btree (created_at);
@@ -0,0 +1,9 @@
+-- Per-wallet ledger position and the wallet balance after each row. The wallet keeps the last number it
+-- assigned. Rows written before this migration, and striped-wallet rows, keep both columns NULL; their
+-- balances are read from the journal. V8 indexes the rows for these reads.
+
+ALTER TABLE public.wallets ADD COLUMN ledger_sequence int8 DEFAULT 0 NOT NULL;
+
+ALTER TABLE public.transactions ADD COLUMN "sequence" int8 NULL;
+ALTER TABLE public.transactions ADD COLUMN balance_after numeric(15, 2) NULL;
+ALTER TABLE public.transactions ADD CONSTRAINT transactions_wallet_sequence_key UNIQUE (wallet_id, sequence);
@@ -0,0 +1,7 @@
+-- Transaction reads filter on wallet and time (period listing, running-balance lookup). One composite
+-- index serves them: both bounds seek on it and it returns a wallet's rows in (created_at, sequence)
+-- order. Built concurrently so writes to transactions are not blocked; Flyway runs this migration
+-- outside a transaction, and must not hold its lock in one (spring.flyway.postgresql.transactional-lock).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_wallet_created_at
+	ON public.transactions USING btree (wallet_id, created_at, "sequence") INCLUDE (amount, "type", balance_after);
@@ -0,0 +1,7 @@
+-- Superseded by idx_transactions_wallet_created_at (V8): wallet_id is its leading column and no query
+-- filters on created_at alone.
+DROP INDEX IF EXISTS public.idx_transactions_wallet;
+DROP INDEX IF EXISTS public.idx_transactions_created_at;
+
+-- transactions_wallet_id_fkey already enforces the same reference.
+ALTER TABLE public.transactions DROP CONSTRAINT IF EXISTS fk_transactions_wallet;
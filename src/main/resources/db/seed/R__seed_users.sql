@@ -0,0 +1,14 @@
+-- Development users (local and docker profiles only).
+
+INSERT INTO public.users
+(id, "name", tax_id, created_at, updated_at)
+VALUES('7fec14cd-09b1-4d05-be31-c679a32b54df'::uuid, 'Roberto G santos', '00000000001', '2025-08-02 00:13:36.388', '2025-08-02 00:13:36.388')
+ON CONFLICT (id) DO NOTHING;
+INSERT INTO public.users
+(id, "name", tax_id, created_at, updated_at)
+VALUES('dcfe55ad-1955-471a-88eb-3632edb1401e'::uuid, 'Carlos Abreu', '00000000002', '2025-08-02 00:19:31.010', '2025-08-02 00:19:31.010')
+ON CONFLICT (id) DO NOTHING;
+INSERT INTO public.users
+(id, "name", tax_id, created_at, updated_at)
+VALUES('1d14403b-2f41-46f6-976f-b44f357f9564'::uuid, 'Bod', '1111111111111', '2025-08-03 18:58:21.472', '2025-08-03 18:58:21.472')
+ON CONFLICT (id) DO NOTHING;
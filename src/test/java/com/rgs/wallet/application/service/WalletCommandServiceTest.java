@@ -0,0 +1,56 @@
+package com.rgs.wallet.application.service;
+
+import com.rgs.wallet.domain.exceptions.RequestIdReusedException;
+import com.rgs.wallet.domain.model.WalletCommand;
+import com.rgs.wallet.domain.model.WalletCommandStatus;
+import com.rgs.wallet.ports.out.WalletCommandPersistencePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+class WalletCommandServiceTest {
+
+    @Mock
+    private WalletCommandPersistencePort commandPersistence;
+
+    @InjectMocks
+    private WalletCommandService commandService;
+
+    private UUID requestId;
+    private UUID walletId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        requestId = UUID.randomUUID();
+        walletId = UUID.randomUUID();
+    }
+
+    @Test
+    void shouldReturnStoredCommandOnRetryOfSameRequest() {
+        WalletCommand retry = WalletCommand.deposit(requestId, walletId, new BigDecimal("10"));
+        WalletCommand stored = WalletCommand.deposit(requestId, walletId, new BigDecimal("10.00"));
+        stored.setStatus(WalletCommandStatus.COMPLETED);
+        when(commandPersistence.enqueue(retry)).thenReturn(stored);
+
+        assertThat(commandService.submit(retry)).isSameAs(stored);
+    }
+
+    @Test
+    void shouldRejectDifferentRequestReusingId() {
+        WalletCommand reused = WalletCommand.withdrawal(requestId, walletId, BigDecimal.TEN);
+        when(commandPersistence.enqueue(reused))
+                .thenReturn(WalletCommand.deposit(requestId, walletId, BigDecimal.TEN));
+
+        assertThrows(RequestIdReusedException.class, () -> commandService.submit(reused));
+    }
+}
@@ -0,0 +1,163 @@
+package com.rgs.wallet.application.service;
+
+import com.rgs.wallet.application.service.concurrency.WalletStriping;
+import com.rgs.wallet.application.service.history.HistoricalBalanceWindow;
+import com.rgs.wallet.domain.exceptions.WalletNotFoundException;
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.fixtures.TransactionFixture;
+import com.rgs.wallet.fixtures.WalletFixture;
+import com.rgs.wallet.infrastructure.idempotency.ReactiveCacheService;
+import com.rgs.wallet.ports.out.WalletReadPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WalletQueryServiceTest {
+
+    @InjectMocks
+    private WalletQueryService walletQueryService;
+
+    @Mock
+    private WalletReadPort walletRead;
+
+    @Mock
+    private ReactiveCacheService cacheService;
+
+    @Mock
+    private WalletStriping striping;
+
+    @Spy
+    private HistoricalBalanceWindow historicalWindow = new HistoricalBalanceWindow();
+
+    private UUID walletId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(historicalWindow, "settleMinutes", 5L);
+        walletId = UUID.randomUUID();
+    }
+
+    @Test
+    void shouldReturnCachedBalanceWithoutReadingDatabase() {
+        when(cacheService.getCachedBalance(walletId)).thenReturn(Mono.just(BigDecimal.TEN));
+
+        StepVerifier.create(walletQueryService.getBalance(walletId))
+                .expectNext(BigDecimal.TEN)
+                .verifyComplete();
+
+        verifyNoInteractions(walletRead);
+    }
+
+    @Test
+    void shouldLoadAndCacheBalanceOnMiss() {
+        Wallet wallet = WalletFixture.withParameters(walletId, UUID.randomUUID());
+        when(cacheService.getCachedBalance(walletId)).thenReturn(Mono.empty());
+        when(walletRead.findById(walletId)).thenReturn(Mono.just(wallet));
+        when(cacheService.cacheBalance(eq(walletId), any())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(walletQueryService.getBalance(walletId))
+                .expectNext(wallet.getBalance())
+                .verifyComplete();
+
+        verify(cacheService).cacheBalance(eq(walletId), argThat(cached -> cached.getBalance().equals(wallet.getBalance())
+                && cached.getSequence() == wallet.getLedgerSequence() && cached.getUpdatedAt() == wallet.getUpdatedAt()));
+    }
+
+    @Test
+    void shouldReadBalanceOfStripedWalletThroughCache() {
+        Wallet wallet = WalletFixture.withParameters(walletId, UUID.randomUUID());
+        when(striping.isStriped(walletId)).thenReturn(true);
+        when(walletRead.findById(walletId)).thenReturn(Mono.just(wallet));
+
+        StepVerifier.create(walletQueryService.getBalance(walletId))
+                .expectNext(wallet.getBalance())
+                .verifyComplete();
+
+        verifyNoInteractions(cacheService);
+    }
+
+    @Test
+    void shouldFailWithNotFoundForUnknownWallet() {
+        when(cacheService.getCachedWallet(walletId)).thenReturn(Mono.empty());
+        when(walletRead.findById(walletId)).thenReturn(Mono.empty());
+
+        StepVerifier.create(walletQueryService.getWallet(walletId))
+                .expectError(WalletNotFoundException.class)
+                .verify();
+
+        verify(cacheService, never()).cacheWallet(any(), any());
+    }
+
+    @Test
+    void shouldComputeAndCacheBucketedHistoricalBalance() {
+        ReflectionTestUtils.setField(historicalWindow, "bucketMillis", 1_000L);
+        Instant timestamp = Instant.parse("2025-08-01T00:00:00Z");
+        Wallet wallet = WalletFixture.withParameters(walletId, UUID.randomUUID());
+        when(cacheService.getCachedHistoricalBalance(walletId, timestamp)).thenReturn(Mono.empty());
+        when(walletRead.findById(walletId)).thenReturn(Mono.just(wallet));
+        when(walletRead.findBalanceAfter(walletId, timestamp)).thenReturn(Mono.empty());
+        when(walletRead.calculateBalanceUpTo(walletId, timestamp)).thenReturn(Mono.just(new BigDecimal("42.00")));
+        when(cacheService.cacheHistoricalBalance(walletId, timestamp, new BigDecimal("42.00"))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(walletQueryService.getHistoricalBalance(walletId, timestamp))
+                .expectNext(new BigDecimal("42.00"))
+                .verifyComplete();
+
+        verify(cacheService).cacheHistoricalBalance(walletId, timestamp, new BigDecimal("42.00"));
+    }
+
+    @Test
+    void shouldNotCacheHistoricalBalanceByExactInstant() {
+        Instant timestamp = Instant.parse("2025-08-01T00:00:00.123456Z");
+        Wallet wallet = WalletFixture.withParameters(walletId, UUID.randomUUID());
+        when(walletRead.findById(walletId)).thenReturn(Mono.just(wallet));
+        when(walletRead.findBalanceAfter(walletId, timestamp)).thenReturn(Mono.just(new BigDecimal("42.00")));
+
+        StepVerifier.create(walletQueryService.getHistoricalBalance(walletId, timestamp))
+                .expectNext(new BigDecimal("42.00"))
+                .verifyComplete();
+
+        verifyNoInteractions(cacheService);
+    }
+
+    @Test
+    void shouldListTransactionsOfExistingWallet() {
+        Wallet wallet = WalletFixture.withParameters(walletId, UUID.randomUUID());
+        TransactionRecord transaction = TransactionFixture.depositRecord();
+        when(walletRead.findById(walletId)).thenReturn(Mono.just(wallet));
+        when(walletRead.findByWalletIdAndPeriod(eq(walletId), eq(Instant.EPOCH), any()))
+                .thenReturn(Flux.just(transaction));
+
+        StepVerifier.create(walletQueryService.getTransactions(walletId, null, null))
+                .expectNext(transaction)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectInvertedPeriod() {
+        Instant now = Instant.now();
+
+        StepVerifier.create(walletQueryService.getTransactions(walletId, now, now.minusSeconds(60)))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(walletRead);
+    }
+}
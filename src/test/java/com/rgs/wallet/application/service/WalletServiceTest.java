@@ -3,29 +3,49 @@ package com.rgs.wallet.application.service;
 
 import com.rgs.wallet.domain.enums.ErrorCodeEnum;
 import com.rgs.wallet.domain.exceptions.BusinessException;
+import com.rgs.wallet.domain.exceptions.DuplicateRequestException;
 import com.rgs.wallet.domain.exceptions.InsufficientFundsException;
 import com.rgs.wallet.domain.exceptions.UserAlreadyHasWalletException;
 import com.rgs.wallet.domain.exceptions.WalletNotFoundException;
 import com.rgs.wallet.domain.model.*;
+import com.rgs.wallet.infrastructure.idempotency.CacheMissCoalescer;
 import com.rgs.wallet.infrastructure.idempotency.CacheService;
 import com.rgs.wallet.infrastructure.idempotency.IdempotencyService;
 import com.rgs.wallet.ports.out.TransactionPersistencePort;
+import com.rgs.wallet.ports.out.TransferBatchPersistencePort;
 import com.rgs.wallet.ports.out.UserPersistencePort;
+import com.rgs.wallet.ports.out.WalletCommandPersistencePort;
 import com.rgs.wallet.ports.out.WalletPersistencePort;
+import com.rgs.wallet.application.service.concurrency.WalletBalanceUpdater;
+import com.rgs.wallet.application.service.concurrency.WalletPartitionExecutor;
+import com.rgs.wallet.application.service.concurrency.WalletStriping;
 import com.rgs.wallet.application.service.fallback.WalletFallbackHandler;
+import com.rgs.wallet.application.service.history.HistoricalBalanceWindow;
+import com.rgs.wallet.fixtures.TransactionFixture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class WalletServiceTest {
@@ -42,15 +62,42 @@ class WalletServiceTest {
     @Mock
     private TransactionPersistencePort transactionPersistence;
 
+    @Mock
+    private TransferBatchPersistencePort batchPersistence;
+
+    @Mock
+    private WalletCommandPersistencePort commandPersistence;
+
     @Mock
     private IdempotencyService idempotencyService;
 
     @Mock
     private CacheService cacheService;
 
+    @Spy
+    private HistoricalBalanceWindow historicalWindow = new HistoricalBalanceWindow();
+
+    @Spy
+    @SuppressWarnings("unchecked")
+    private CacheMissCoalescer missCoalescer = new CacheMissCoalescer(mock(RedisTemplate.class), new SimpleMeterRegistry());
+
     @Mock
     private WalletFallbackHandler fallbackHandler;
 
+    @Mock
+    private WalletBalanceUpdater balanceUpdater;
+
+    @Mock
+    private WalletStriping striping;
+
+    @Mock
+    private WalletPartitionExecutor partitions;
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
     private UUID walletId;
     private UUID requestId;
     private Wallet wallet;
@@ -58,6 +105,9 @@ class WalletServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ReflectionTestUtils.setField(walletService, "maxPageSize", 2);
+        ReflectionTestUtils.setField(historicalWindow, "settleMinutes", 5L);
         walletId = UUID.randomUUID();
         requestId = UUID.randomUUID();
         wallet = Wallet.builder()
@@ -74,7 +124,6 @@ class WalletServiceTest {
     void shouldDepositSuccessfully() {
         BigDecimal amount = BigDecimal.valueOf(50);
 
-        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
         doAnswer(invocation -> {
             Runnable op = invocation.getArgument(1);
             op.run();
@@ -83,18 +132,37 @@ class WalletServiceTest {
 
         walletService.deposit(walletId, amount, requestId);
 
-        verify(walletPersistence).findById(walletId);
-        verify(walletPersistence).save(wallet);
-        verify(transactionPersistence).save(any(Transaction.class));
-        verify(cacheService).clearCache(walletId);
+        verify(balanceUpdater).apply(walletId, amount, TransactionType.DEPOSIT);
+        verifyNoInteractions(walletPersistence, transactionPersistence, cacheService);
         verifyNoInteractions(fallbackHandler);
     }
 
+    @Test
+    void shouldRunDepositOnWalletPartitionWithoutRequestLock() {
+        BigDecimal amount = BigDecimal.valueOf(50);
+        when(partitions.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            Runnable op = invocation.getArgument(0);
+            op.run();
+            return null;
+        }).when(partitions).execute(any(Runnable.class), eq(walletId));
+        doAnswer(invocation -> {
+            Runnable op = invocation.getArgument(1);
+            op.run();
+            return null;
+        }).when(idempotencyService).processSerialized(eq(requestId), any(Runnable.class));
+
+        walletService.deposit(walletId, amount, requestId);
+
+        verify(balanceUpdater).apply(walletId, amount, TransactionType.DEPOSIT);
+        verify(idempotencyService, never()).processWithIdempotency(any(), any());
+    }
+
     @Test
     void shouldInvokeFallbackOnWalletNotFound() {
         BigDecimal amount = BigDecimal.valueOf(50);
 
-        when(walletPersistence.findById(walletId)).thenReturn(Optional.empty());
+        doThrow(new WalletNotFoundException()).when(balanceUpdater).apply(walletId, amount, TransactionType.DEPOSIT);
         doAnswer(invocation -> {
             Runnable op = invocation.getArgument(1);
             op.run();
@@ -125,13 +193,6 @@ class WalletServiceTest {
         UUID walletId = UUID.randomUUID();
         UUID requestId = UUID.randomUUID();
         BigDecimal amount = new BigDecimal("50.00");
-        Wallet wallet = mock(Wallet.class);
-        Transaction transaction = mock(Transaction.class);
-
-        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
-        when(wallet.withdraw(amount)).thenReturn(transaction);
-        when(walletPersistence.save(wallet)).thenReturn(wallet);
-        when(transactionPersistence.save(transaction)).thenReturn(transaction);
 
         doAnswer(invocation -> {
             Runnable runnable = invocation.getArgument(1);
@@ -141,9 +202,8 @@ class WalletServiceTest {
 
         walletService.withdraw(walletId, amount, requestId);
 
-        verify(walletPersistence).save(wallet);
-        verify(transactionPersistence).save(transaction);
-        verify(cacheService).clearCache(walletId);
+        verify(balanceUpdater).apply(walletId, amount, TransactionType.WITHDRAWAL);
+        verifyNoInteractions(walletPersistence, transactionPersistence, cacheService);
     }
 
 
@@ -152,11 +212,8 @@ class WalletServiceTest {
         UUID walletId = UUID.randomUUID();
         UUID requestId = UUID.randomUUID();
         BigDecimal amount = new BigDecimal("100.00");
-        Wallet wallet = mock(Wallet.class);
 
-        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
-
-        when(wallet.withdraw(amount)).thenThrow(new InsufficientFundsException());
+        doThrow(new InsufficientFundsException()).when(balanceUpdater).apply(walletId, amount, TransactionType.WITHDRAWAL);
 
         doAnswer(invocation -> {
             Runnable runnable = invocation.getArgument(1);
@@ -167,8 +224,8 @@ class WalletServiceTest {
         doThrow(new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, ErrorCodeEnum.WS500001))
                 .when(fallbackHandler).handleWithdrawFallback(eq(walletId), eq(amount), eq(requestId), any(Throwable.class));
 
-        assertThrows(BusinessException.class, () -> walletService.withdraw(walletId, amount, requestId));
-
+        assertThrows(InsufficientFundsException.class, () -> walletService.withdraw(walletId, amount, requestId));
+        verifyNoInteractions(cacheService);
     }
 
 
@@ -199,20 +256,17 @@ class WalletServiceTest {
 
         Wallet fromWallet = mock(Wallet.class);
         Wallet toWallet = mock(Wallet.class);
-        Transaction outTransaction = mock(Transaction.class);
-        Transaction inTransaction = mock(Transaction.class);
 
+        when(fromWallet.getId()).thenReturn(fromWalletId);
+        when(toWallet.getId()).thenReturn(toWalletId);
         when(fromWallet.getBalance()).thenReturn(BigDecimal.valueOf(100));
         when(toWallet.getBalance()).thenReturn(BigDecimal.valueOf(50));
 
         doNothing().when(fromWallet).setBalance(any());
         doNothing().when(toWallet).setBalance(any());
 
-        when(walletPersistence.findById(fromWalletId)).thenReturn(Optional.of(fromWallet));
-        when(walletPersistence.findById(toWalletId)).thenReturn(Optional.of(toWallet));
-        when(transactionPersistence.save(any()))
-                .thenReturn(outTransaction)
-                .thenReturn(inTransaction);
+        when(walletPersistence.findAllByIdForUpdate(List.of(fromWalletId, toWalletId)))
+                .thenReturn(List.of(fromWallet, toWallet));
 
         doAnswer(invocation -> {
             Runnable runnable = invocation.getArgument(1);
@@ -222,10 +276,56 @@ class WalletServiceTest {
 
         walletService.transfer(fromWalletId, toWalletId, amount, requestId);
 
+        verify(walletPersistence).findAllByIdForUpdate(List.of(fromWalletId, toWalletId));
+        verify(walletPersistence, never()).findById(any());
         verify(walletPersistence).save(fromWallet);
         verify(walletPersistence).save(toWallet);
-        verify(cacheService).clearCache(fromWalletId);
-        verify(cacheService).clearCache(toWalletId);
+        verify(cacheService).walletChanged(eq(fromWalletId), any(WalletBalance.class));
+        verify(cacheService).walletChanged(eq(toWalletId), any(WalletBalance.class));
+        verify(cacheService, never()).clearCache(any(UUID.class));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> legs = ArgumentCaptor.forClass(List.class);
+        verify(transactionPersistence).saveAll(legs.capture());
+        verify(transactionPersistence, never()).save(any());
+
+        Transaction out = legs.getValue().get(0);
+        Transaction in = legs.getValue().get(1);
+        assertEquals(TransactionType.TRANSFER_OUT, out.getType());
+        assertEquals(TransactionType.TRANSFER_IN, in.getType());
+        assertEquals(in.getId(), out.getRelatedTransactionId());
+        assertEquals(out.getId(), in.getRelatedTransactionId());
+    }
+
+    @Test
+    void shouldRecordTransferLegOfStripedWalletWithoutRunningBalance() {
+        UUID requestId = UUID.randomUUID();
+        Wallet striped = Wallet.builder().id(UUID.randomUUID()).balance(new BigDecimal("100.00"))
+                .ledgerSequence(7).ledgerAt(Instant.parse("2025-01-01T10:00:00Z")).build();
+        Wallet plain = Wallet.builder().id(UUID.randomUUID()).balance(new BigDecimal("50.00"))
+                .ledgerSequence(3).ledgerAt(Instant.parse("2025-01-01T10:00:01Z")).build();
+        when(striping.isStriped(striped.getId())).thenReturn(true);
+        when(walletPersistence.findAllByIdForUpdate(List.of(striped.getId(), plain.getId())))
+                .thenReturn(List.of(striped, plain));
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(1);
+            runnable.run();
+            return null;
+        }).when(idempotencyService).processWithIdempotency(eq(requestId), any(Runnable.class));
+
+        walletService.transfer(striped.getId(), plain.getId(), new BigDecimal("30.00"), requestId);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> legs = ArgumentCaptor.forClass(List.class);
+        verify(transactionPersistence).saveAll(legs.capture());
+        Transaction out = legs.getValue().get(0);
+        Transaction in = legs.getValue().get(1);
+        assertNull(out.getBalanceAfter());
+        assertNull(out.getSequence());
+        assertEquals(Instant.parse("2025-01-01T10:00:00Z"), out.getCreatedAt());
+        assertEquals(7, striped.getLedgerSequence());
+        assertEquals(new BigDecimal("80.00"), in.getBalanceAfter());
+        assertEquals(4L, in.getSequence());
     }
 
     @Test
@@ -238,9 +338,11 @@ class WalletServiceTest {
         Wallet fromWallet = mock(Wallet.class);
         Wallet toWallet = mock(Wallet.class);
 
+        when(fromWallet.getId()).thenReturn(fromWalletId);
+        when(toWallet.getId()).thenReturn(toWalletId);
         when(fromWallet.getBalance()).thenReturn(BigDecimal.valueOf(50)); // insufficient
-        when(walletPersistence.findById(fromWalletId)).thenReturn(Optional.of(fromWallet));
-        when(walletPersistence.findById(toWalletId)).thenReturn(Optional.of(toWallet));
+        when(walletPersistence.findAllByIdForUpdate(List.of(fromWalletId, toWalletId)))
+                .thenReturn(List.of(toWallet, fromWallet));
 
         doAnswer(invocation -> {
             Runnable runnable = invocation.getArgument(1);
@@ -257,6 +359,187 @@ class WalletServiceTest {
 
     }
 
+    @Test
+    void shouldFoldStripesBeforeRejectingTransfer() {
+        UUID fromWalletId = UUID.randomUUID();
+        UUID toWalletId = UUID.randomUUID();
+        UUID requestId = UUID.randomUUID();
+        BigDecimal amount = new BigDecimal("100.00");
+
+        Wallet fromWallet = mock(Wallet.class);
+        Wallet foldedWallet = mock(Wallet.class);
+        Wallet toWallet = mock(Wallet.class);
+
+        when(fromWallet.getId()).thenReturn(fromWalletId);
+        when(toWallet.getId()).thenReturn(toWalletId);
+        when(fromWallet.getBalance()).thenReturn(BigDecimal.valueOf(50));
+        when(foldedWallet.getBalance()).thenReturn(BigDecimal.valueOf(120));
+        when(toWallet.getBalance()).thenReturn(BigDecimal.ZERO);
+        when(walletPersistence.findAllByIdForUpdate(List.of(fromWalletId, toWalletId)))
+                .thenReturn(List.of(fromWallet, toWallet));
+        when(walletPersistence.foldBalanceStripes(fromWalletId)).thenReturn(true);
+        when(walletPersistence.findByIdForUpdate(fromWalletId)).thenReturn(Optional.of(foldedWallet));
+
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(1);
+            runnable.run();
+            return null;
+        }).when(idempotencyService).processWithIdempotency(eq(requestId), any(Runnable.class));
+
+        walletService.transfer(fromWalletId, toWalletId, amount, requestId);
+
+        verify(foldedWallet).setBalance(BigDecimal.valueOf(20).setScale(2));
+        verify(walletPersistence).save(foldedWallet);
+        verify(walletPersistence, never()).save(fromWallet);
+        verifyNoInteractions(fallbackHandler);
+    }
+
+    @Test
+    void shouldThrowWhenTransferWalletIsMissing() {
+        UUID fromWalletId = UUID.randomUUID();
+        UUID toWalletId = UUID.randomUUID();
+        UUID requestId = UUID.randomUUID();
+        Wallet fromWallet = mock(Wallet.class);
+
+        when(fromWallet.getId()).thenReturn(fromWalletId);
+        when(walletPersistence.findAllByIdForUpdate(List.of(fromWalletId, toWalletId)))
+                .thenReturn(List.of(fromWallet));
+
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(1);
+            runnable.run();
+            return null;
+        }).when(idempotencyService).processWithIdempotency(eq(requestId), any(Runnable.class));
+
+        assertThrows(WalletNotFoundException.class, () ->
+                walletService.transfer(fromWalletId, toWalletId, BigDecimal.TEN, requestId));
+        verify(walletPersistence, never()).save(any());
+        verifyNoInteractions(transactionPersistence);
+    }
+
+    @Test
+    void shouldCommitValidLegsOfBestEffortBatch() {
+        Wallet payer = walletWithId(UUID.randomUUID(), "100.00");
+        Wallet first = walletWithId(UUID.randomUUID(), "0.00");
+        Wallet second = walletWithId(UUID.randomUUID(), "0.00");
+        List<TransferOrder> orders = List.of(
+                order(payer, first, "60.00"),
+                order(payer, second, "60.00"),
+                order(payer, second, "40.00"));
+        when(walletPersistence.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(payer, first, second));
+        List<Boolean> registered = runRecorded(requestId);
+
+        List<TransferLegResult> results = walletService.transferBatch(orders, BatchTransferMode.BEST_EFFORT, requestId);
+
+        assertEquals(List.of(true), registered);
+        verify(batchPersistence).register(requestId);
+
+        assertEquals(List.of(TransferLegStatus.COMPLETED, TransferLegStatus.REJECTED, TransferLegStatus.COMPLETED),
+                results.stream().map(TransferLegResult::getStatus).toList());
+        assertEquals(ErrorCodeEnum.WS400002, results.get(1).getErrorCode());
+        assertEquals(new BigDecimal("0.00"), payer.getBalance());
+        assertEquals(new BigDecimal("40.00"), second.getBalance());
+        verify(walletPersistence, times(1)).findAllByIdForUpdate(anyCollection());
+        verify(walletPersistence, times(3)).save(any(Wallet.class));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> ledger = ArgumentCaptor.forClass(List.class);
+        verify(transactionPersistence).saveAll(ledger.capture());
+        assertEquals(4, ledger.getValue().size());
+        ArgumentCaptor<WalletBalance> written = ArgumentCaptor.forClass(WalletBalance.class);
+        verify(cacheService).walletChanged(eq(payer.getId()), written.capture());
+        assertEquals(new BigDecimal("0.00"), written.getValue().getBalance());
+        assertEquals(payer.getLedgerSequence(), written.getValue().getSequence());
+        verify(cacheService).walletChanged(eq(first.getId()), any(WalletBalance.class));
+        verify(cacheService).walletChanged(eq(second.getId()), any(WalletBalance.class));
+    }
+
+    @Test
+    void shouldWriteNothingWhenAllOrNothingBatchHasRejectedLeg() {
+        Wallet payer = walletWithId(UUID.randomUUID(), "100.00");
+        Wallet payee = walletWithId(UUID.randomUUID(), "0.00");
+        UUID missingWalletId = UUID.randomUUID();
+        List<TransferOrder> orders = List.of(
+                order(payer, payee, "10.00"),
+                TransferOrder.builder().fromWalletId(payer.getId()).toWalletId(missingWalletId).amount(BigDecimal.ONE).build());
+        when(walletPersistence.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(payer, payee));
+        List<Boolean> registered = runRecorded(requestId);
+
+        List<TransferLegResult> results = walletService.transferBatch(orders, BatchTransferMode.ALL_OR_NOTHING, requestId);
+
+        // nothing applied: the batch id rolls back with the transaction and stays free for a corrected retry
+        assertEquals(List.of(false), registered);
+        ArgumentCaptor<TransactionStatus> transaction = ArgumentCaptor.forClass(TransactionStatus.class);
+        verify(transactionManager).commit(transaction.capture());
+        assertTrue(transaction.getValue().isRollbackOnly());
+
+        assertEquals(TransferLegStatus.NOT_EXECUTED, results.get(0).getStatus());
+        assertEquals(TransferLegStatus.REJECTED, results.get(1).getStatus());
+        assertEquals(ErrorCodeEnum.WS404001, results.get(1).getErrorCode());
+        verify(walletPersistence, never()).save(any());
+        verifyNoInteractions(transactionPersistence);
+        verifyNoInteractions(cacheService);
+    }
+
+    @Test
+    void shouldRunBatchThroughPartitionsOfEveryWalletItTouches() {
+        Wallet payer = walletWithId(UUID.randomUUID(), "100.00");
+        Wallet payee = walletWithId(UUID.randomUUID(), "0.00");
+        when(walletPersistence.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(payer, payee));
+        when(partitions.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            Runnable op = invocation.getArgument(0);
+            op.run();
+            return null;
+        }).when(partitions).execute(any(Runnable.class), any(UUID[].class));
+        List<Boolean> registered = runRecorded(requestId);
+
+        walletService.transferBatch(List.of(order(payer, payee, "10.00")), BatchTransferMode.BEST_EFFORT, requestId);
+
+        verify(partitions).execute(any(Runnable.class), eq(payer.getId()), eq(payee.getId()));
+        assertEquals(List.of(true), registered);
+        assertEquals(new BigDecimal("10.00"), payee.getBalance());
+    }
+
+    @Test
+    void shouldRejectBatchAlreadyRecordedInDatabase() {
+        Wallet payer = walletWithId(UUID.randomUUID(), "100.00");
+        Wallet payee = walletWithId(UUID.randomUUID(), "0.00");
+        runRecorded(requestId);
+        when(batchPersistence.register(requestId)).thenReturn(false);
+
+        assertThrows(DuplicateRequestException.class, () -> walletService.transferBatch(
+                List.of(order(payer, payee, "10.00")), BatchTransferMode.BEST_EFFORT, requestId));
+        verify(walletPersistence, never()).findAllByIdForUpdate(anyCollection());
+        verifyNoInteractions(transactionPersistence);
+    }
+
+    @Test
+    void shouldApplyCommandInTransactionThatCompletesIt() {
+        WalletCommand command = WalletCommand.deposit(requestId, walletId, BigDecimal.TEN);
+        when(commandPersistence.markCompleted(requestId)).thenReturn(true);
+
+        walletService.applyCommand(command);
+
+        InOrder inOrder = inOrder(transactionManager, commandPersistence, balanceUpdater);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(commandPersistence).markCompleted(requestId);
+        inOrder.verify(balanceUpdater).applyInTransaction(walletId, BigDecimal.TEN, TransactionType.DEPOSIT);
+        inOrder.verify(transactionManager).commit(any());
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    void shouldSkipCommandAlreadyCompletedByEarlierAttempt() {
+        UUID targetId = UUID.randomUUID();
+        when(commandPersistence.markCompleted(requestId)).thenReturn(false);
+
+        walletService.applyCommand(WalletCommand.transfer(requestId, walletId, targetId, BigDecimal.TEN));
+
+        verifyNoInteractions(balanceUpdater, transactionPersistence);
+        verify(walletPersistence, never()).findAllByIdForUpdate(anyCollection());
+    }
+
     @Test
     void shouldThrowWhenUserAlreadyHasWallet() {
         UUID userId = UUID.randomUUID();
@@ -326,6 +609,41 @@ class WalletServiceTest {
     }
 
 
+    private Wallet walletWithId(UUID id, String balance) {
+        return Wallet.builder()
+                .id(id)
+                .balance(new BigDecimal(balance))
+                .status(WalletStatus.ACTIVE)
+                .build();
+    }
+
+    private TransferOrder order(Wallet from, Wallet to, String amount) {
+        return TransferOrder.builder()
+                .fromWalletId(from.getId())
+                .toWalletId(to.getId())
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private List<Boolean> runRecorded(UUID requestId) {
+        when(batchPersistence.register(requestId)).thenReturn(true);
+        List<Boolean> registered = new ArrayList<>();
+        doAnswer(invocation -> {
+            BooleanSupplier operation = invocation.getArgument(1);
+            registered.add(operation.getAsBoolean());
+            return null;
+        }).when(idempotencyService).processRecorded(eq(requestId), any(BooleanSupplier.class));
+        return registered;
+    }
+
+    private void runIdempotently(UUID requestId) {
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(1);
+            runnable.run();
+            return null;
+        }).when(idempotencyService).processWithIdempotency(eq(requestId), any(Runnable.class));
+    }
+
     @Test
     void shouldCreateWalletSuccessfully() {
         UUID userId = UUID.randomUUID();
@@ -354,12 +672,46 @@ class WalletServiceTest {
     @Test
     void shouldGetBalanceFromPersistenceWhenNotInCache() {
         when(cacheService.getCachedBalance(walletId)).thenReturn(null);
-        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(walletPersistence.findBalance(walletId)).thenReturn(Optional.of(WalletBalance.of(wallet.getBalance(), 12, wallet.getUpdatedAt())));
 
         BigDecimal result = walletService.getBalance(walletId);
 
         assert result.equals(wallet.getBalance());
-        verify(cacheService).cacheBalance(walletId, wallet.getBalance());
+        verify(cacheService).cacheBalance(eq(walletId), argThat(cached -> cached.getBalance().equals(wallet.getBalance())
+                && cached.getSequence() == 12 && cached.getUpdatedAt() == wallet.getUpdatedAt()));
+        verify(walletPersistence, never()).findById(any());
+    }
+
+    @Test
+    void shouldThrowWhenBalanceOfMissingWalletIsRequested() {
+        when(walletPersistence.findBalance(walletId)).thenReturn(Optional.empty());
+
+        assertThrows(WalletNotFoundException.class, () -> walletService.getBalance(walletId));
+        verify(cacheService, never()).cacheBalance(any(), any());
+    }
+
+    @Test
+    void shouldReadBalanceOfStripedWalletThroughCache() {
+        when(walletPersistence.findBalance(walletId)).thenReturn(Optional.of(WalletBalance.of(wallet.getBalance(), 3, wallet.getUpdatedAt())));
+        when(striping.isStriped(walletId)).thenReturn(true);
+        when(walletPersistence.sumBalanceStripes(walletId)).thenReturn(BigDecimal.valueOf(25));
+
+        BigDecimal result = walletService.getBalance(walletId);
+
+        assertEquals(BigDecimal.valueOf(125), result);
+        verifyNoInteractions(cacheService);
+    }
+
+    @Test
+    void shouldReadStripedWalletThroughCache() {
+        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(striping.isStriped(walletId)).thenReturn(true);
+        when(walletPersistence.sumBalanceStripes(walletId)).thenReturn(BigDecimal.valueOf(25));
+
+        Wallet result = walletService.getWallet(walletId);
+
+        assertEquals(BigDecimal.valueOf(125), result.getBalance());
+        verifyNoInteractions(cacheService);
     }
 
     @Test
@@ -384,8 +736,9 @@ class WalletServiceTest {
     }
 
     @Test
-    void shouldGetHistoricalBalanceFromCache() {
-        Instant timestamp = Instant.now();
+    void shouldGetBucketedHistoricalBalanceFromCache() {
+        ReflectionTestUtils.setField(historicalWindow, "bucketMillis", 1_000L);
+        Instant timestamp = Instant.parse("2025-01-01T10:15:30Z");
         when(cacheService.getCachedHistoricalBalance(walletId, timestamp)).thenReturn(BigDecimal.ONE);
 
         BigDecimal result = walletService.getHistoricalBalance(walletId, timestamp);
@@ -395,10 +748,12 @@ class WalletServiceTest {
     }
 
     @Test
-    void shouldGetHistoricalBalanceFromPersistenceWhenNotInCache() {
-        Instant timestamp = Instant.now();
+    void shouldCacheBucketedHistoricalBalanceByBucket() {
+        ReflectionTestUtils.setField(historicalWindow, "bucketMillis", 1_000L);
+        Instant timestamp = Instant.parse("2025-01-01T10:15:30Z");
         when(cacheService.getCachedHistoricalBalance(walletId, timestamp)).thenReturn(null);
         when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(transactionPersistence.findLastUpTo(walletId, timestamp)).thenReturn(Optional.empty());
         when(transactionPersistence.calculateBalanceUpTo(walletId, timestamp)).thenReturn(BigDecimal.TEN);
 
         BigDecimal result = walletService.getHistoricalBalance(walletId, timestamp);
@@ -407,6 +762,80 @@ class WalletServiceTest {
         verify(cacheService).cacheHistoricalBalance(walletId, timestamp, BigDecimal.TEN);
     }
 
+    @Test
+    void shouldGetHistoricalBalanceFromRunningBalanceWithoutSummingJournal() {
+        Instant timestamp = Instant.parse("2025-01-01T10:15:30.123Z");
+        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(transactionPersistence.findLastUpTo(walletId, timestamp)).thenReturn(Optional.of(TransactionRecord.builder()
+                .id(UUID.randomUUID())
+                .balanceAfter(new BigDecimal("75.00"))
+                .build()));
+
+        BigDecimal result = walletService.getHistoricalBalance(walletId, timestamp);
+
+        assertEquals(new BigDecimal("75.00"), result);
+        verify(transactionPersistence, never()).calculateBalanceUpTo(any(), any());
+        verify(cacheService, never()).getCachedBalanceAfterEntry(any(), any());
+    }
+
+    @Test
+    void shouldCacheHistoricalBalanceOfStripedWalletByLedgerRow() {
+        Instant timestamp = Instant.parse("2025-01-01T10:15:30.123Z");
+        TransactionRecord last = TransactionFixture.depositRecord();
+        when(striping.isStriped(walletId)).thenReturn(true);
+        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(transactionPersistence.findLastUpTo(walletId, timestamp)).thenReturn(Optional.of(last));
+        when(transactionPersistence.calculateBalanceUpTo(walletId, timestamp)).thenReturn(BigDecimal.TEN);
+
+        BigDecimal result = walletService.getHistoricalBalance(walletId, timestamp);
+
+        assertEquals(BigDecimal.TEN, result);
+        verify(cacheService).cacheBalanceAfterEntry(walletId, last.getId(), BigDecimal.TEN);
+        verify(cacheService, never()).getCachedHistoricalBalance(any(), any());
+        verify(cacheService, never()).cacheHistoricalBalance(any(), any(), any());
+    }
+
+    @Test
+    void shouldServeOtherInstantsResolvingToSameLedgerRowFromCache() {
+        Instant timestamp = Instant.parse("2025-01-01T10:15:30.123Z");
+        TransactionRecord last = TransactionFixture.depositRecord();
+        when(striping.isStriped(walletId)).thenReturn(true);
+        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(transactionPersistence.findLastUpTo(walletId, timestamp)).thenReturn(Optional.of(last));
+        when(cacheService.getCachedBalanceAfterEntry(walletId, last.getId())).thenReturn(BigDecimal.ONE);
+
+        BigDecimal result = walletService.getHistoricalBalance(walletId, timestamp);
+
+        assertEquals(BigDecimal.ONE, result);
+        verify(transactionPersistence, never()).calculateBalanceUpTo(any(), any());
+    }
+
+    @Test
+    void shouldNotCacheHistoricalBalanceOfUnsettledInstant() {
+        Instant timestamp = Instant.now();
+        TransactionRecord last = TransactionFixture.depositRecord();
+        when(striping.isStriped(walletId)).thenReturn(true);
+        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(transactionPersistence.findLastUpTo(walletId, timestamp)).thenReturn(Optional.of(last));
+        when(transactionPersistence.calculateBalanceUpTo(walletId, timestamp)).thenReturn(BigDecimal.TEN);
+
+        BigDecimal result = walletService.getHistoricalBalance(walletId, timestamp);
+
+        assertEquals(BigDecimal.TEN, result);
+        verifyNoInteractions(cacheService);
+    }
+
+    @Test
+    void shouldLookUpHistoricalBalanceAtStartOfBucket() {
+        ReflectionTestUtils.setField(historicalWindow, "bucketMillis", 60_000L);
+        Instant bucket = Instant.parse("2025-01-01T10:15:00Z");
+        when(cacheService.getCachedHistoricalBalance(walletId, bucket)).thenReturn(BigDecimal.ONE);
+
+        BigDecimal result = walletService.getHistoricalBalance(walletId, Instant.parse("2025-01-01T10:15:30.123Z"));
+
+        assertEquals(BigDecimal.ONE, result);
+    }
+
     @Test
     void shouldGetTransactionsWithValidPeriod() {
         Instant start = Instant.parse("2023-01-01T00:00:00Z");
@@ -415,7 +844,7 @@ class WalletServiceTest {
         when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
         when(transactionPersistence.findByWalletIdAndPeriod(walletId, start, end)).thenReturn(List.of());
 
-        List<Transaction> result = walletService.getTransactions(walletId, start, end);
+        List<TransactionRecord> result = walletService.getTransactions(walletId, start, end);
 
         assert result.isEmpty();
     }
@@ -430,6 +859,34 @@ class WalletServiceTest {
         assertThrows(IllegalArgumentException.class, () -> walletService.getTransactions(walletId, start, end));
     }
 
+    @Test
+    void shouldReturnCursorOfLastRowWhenMoreTransactionsRemain() {
+        TransactionCursor after = TransactionCursor.builder().createdAt(Instant.now()).id(UUID.randomUUID()).build();
+        TransactionRecord newest = TransactionFixture.depositRecord();
+        TransactionRecord last = TransactionFixture.withdrawalRecord();
+        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(transactionPersistence.findPage(walletId, after, null, 3))
+                .thenReturn(List.of(newest, last, TransactionFixture.depositRecord()));
+
+        TransactionPage page = walletService.getTransactionPage(walletId, after, 2, null);
+
+        assertEquals(List.of(newest, last), page.getTransactions());
+        assertEquals(last.getId(), page.getNextCursor().getId());
+        assertEquals(last.getCreatedAt(), page.getNextCursor().getCreatedAt());
+    }
+
+    @Test
+    void shouldCapPageSizeAndOmitCursorOnLastPage() {
+        TransactionRecord only = TransactionFixture.depositRecord();
+        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(transactionPersistence.findPage(walletId, null, TransactionType.DEPOSIT, 3)).thenReturn(List.of(only));
+
+        TransactionPage page = walletService.getTransactionPage(walletId, null, 1_000, TransactionType.DEPOSIT);
+
+        assertEquals(List.of(only), page.getTransactions());
+        assertNull(page.getNextCursor());
+    }
+
 
 
 
@@ -0,0 +1,60 @@
+package com.rgs.wallet.application.service.checkpoint;
+
+import com.rgs.wallet.ports.out.BalanceCheckpointPersistencePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BalanceCheckpointJobTest {
+
+    @InjectMocks
+    private BalanceCheckpointJob job;
+
+    @Mock
+    private BalanceCheckpointPersistencePort checkpointPersistence;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(job, "settleMinutes", 5L);
+    }
+
+    @Test
+    void shouldCheckpointPreviousMidnightFromLatestCheckpoint() {
+        when(checkpointPersistence.findLatestCheckpoint())
+                .thenReturn(Optional.of(Instant.parse("2025-08-01T00:00:00Z")));
+
+        job.run(Instant.parse("2025-08-03T10:00:00Z"));
+
+        verify(checkpointPersistence).createCheckpoints(
+                Instant.parse("2025-08-01T00:00:00Z"), Instant.parse("2025-08-03T00:00:00Z"));
+    }
+
+    @Test
+    void shouldCheckpointFullHistoryOnFirstRun() {
+        when(checkpointPersistence.findLatestCheckpoint()).thenReturn(Optional.empty());
+
+        job.run(Instant.parse("2025-08-03T10:00:00Z"));
+
+        verify(checkpointPersistence).createCheckpoints(Instant.EPOCH, Instant.parse("2025-08-03T00:00:00Z"));
+    }
+
+    @Test
+    void shouldWaitForSettleWindowAfterMidnight() {
+        when(checkpointPersistence.findLatestCheckpoint())
+                .thenReturn(Optional.of(Instant.parse("2025-08-02T00:00:00Z")));
+
+        job.run(Instant.parse("2025-08-03T00:03:00Z"));
+
+        verify(checkpointPersistence, never()).createCheckpoints(any(), any());
+    }
+}
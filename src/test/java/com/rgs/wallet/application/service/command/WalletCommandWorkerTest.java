@@ -0,0 +1,121 @@
+package com.rgs.wallet.application.service.command;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import com.rgs.wallet.domain.exceptions.BusinessException;
+import com.rgs.wallet.domain.exceptions.InsufficientFundsException;
+import com.rgs.wallet.domain.model.WalletCommand;
+import com.rgs.wallet.ports.in.WalletServicePort;
+import com.rgs.wallet.ports.out.WalletCommandPersistencePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class WalletCommandWorkerTest {
+
+    @Mock
+    private WalletCommandPersistencePort commandPersistence;
+
+    @Mock
+    private WalletServicePort walletService;
+
+    private WalletCommandWorker worker;
+    private UUID walletId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        worker = new WalletCommandWorker(commandPersistence, walletService);
+        ReflectionTestUtils.setField(worker, "batchSize", 2);
+        ReflectionTestUtils.setField(worker, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        walletId = UUID.randomUUID();
+    }
+
+    @Test
+    void shouldLeaveCompletionToTheTransactionApplyingTheCommand() {
+        WalletCommand command = WalletCommand.deposit(UUID.randomUUID(), walletId, BigDecimal.TEN);
+
+        worker.process(command);
+
+        verify(walletService).applyCommand(command);
+        verify(commandPersistence, never()).markCompleted(any());
+        verify(commandPersistence, never()).markFailed(any(), any());
+        verify(commandPersistence, never()).release(any());
+    }
+
+    @Test
+    void shouldFailCommandOnBusinessRejection() {
+        WalletCommand command = WalletCommand.withdrawal(UUID.randomUUID(), walletId, BigDecimal.TEN);
+        doThrow(new InsufficientFundsException()).when(walletService).applyCommand(command);
+
+        worker.process(command);
+
+        verify(commandPersistence).markFailed(command.getId(), ErrorCodeEnum.WS400002);
+        verify(commandPersistence, never()).release(any());
+    }
+
+    @Test
+    void shouldReleaseCommandOnTransientFailure() {
+        WalletCommand command = WalletCommand.transfer(UUID.randomUUID(), walletId, UUID.randomUUID(), BigDecimal.TEN);
+        command.setAttempts(1);
+        doThrow(new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, ErrorCodeEnum.WS500001))
+                .when(walletService).applyCommand(command);
+
+        worker.process(command);
+
+        verify(commandPersistence).release(command.getId());
+    }
+
+    @Test
+    void shouldFailCommandAfterMaxAttempts() {
+        WalletCommand command = WalletCommand.deposit(UUID.randomUUID(), walletId, BigDecimal.TEN);
+        command.setAttempts(3);
+        doThrow(new IllegalStateException("connection reset")).when(walletService).applyCommand(command);
+
+        worker.process(command);
+
+        verify(commandPersistence).markFailed(command.getId(), ErrorCodeEnum.WS500001);
+    }
+
+    @Test
+    void shouldKeepClaimingWhileBatchesAreFull() {
+        WalletCommand first = WalletCommand.deposit(UUID.randomUUID(), walletId, BigDecimal.ONE);
+        WalletCommand second = WalletCommand.deposit(UUID.randomUUID(), walletId, BigDecimal.ONE);
+        WalletCommand third = WalletCommand.deposit(UUID.randomUUID(), walletId, BigDecimal.ONE);
+        when(commandPersistence.claimBatch(2, 60L))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third))
+                .thenReturn(Collections.emptyList());
+
+        worker.drain();
+
+        verify(commandPersistence, times(2)).claimBatch(2, 60L);
+        verify(walletService, times(3)).applyCommand(any());
+    }
+
+    @Test
+    void shouldPurgeCommandsFinishedBeforeRetention() {
+        ReflectionTestUtils.setField(worker, "retentionHours", 24L);
+
+        worker.purge();
+
+        ArgumentCaptor<Instant> before = ArgumentCaptor.forClass(Instant.class);
+        verify(commandPersistence).purgeFinished(before.capture());
+        assertThat(before.getValue()).isBetween(
+                Instant.now().minus(Duration.ofHours(24)).minusSeconds(5), Instant.now().minus(Duration.ofHours(24)));
+    }
+}
@@ -0,0 +1,149 @@
+package com.rgs.wallet.application.service.concurrency;
+
+import com.rgs.wallet.domain.exceptions.InsufficientFundsException;
+import com.rgs.wallet.domain.exceptions.WalletNotFoundException;
+import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.fixtures.WalletFixture;
+import com.rgs.wallet.infrastructure.idempotency.CacheService;
+import com.rgs.wallet.ports.out.TransactionPersistencePort;
+import com.rgs.wallet.ports.out.WalletPersistencePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class GroupCommitWriterTest {
+
+    @Mock
+    private WalletPersistencePort walletPersistence;
+
+    @Mock
+    private TransactionPersistencePort transactionPersistence;
+
+    @Mock
+    private CacheService cacheService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GroupCommitWriter writer;
+    private ExecutorService callers;
+    private UUID walletId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new GroupCommitWriter(walletPersistence, transactionPersistence,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, cacheService);
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        ReflectionTestUtils.setField(writer, "writerThreads", 1);
+        callers = Executors.newFixedThreadPool(3);
+        walletId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        writer.stop();
+    }
+
+    @Test
+    void shouldCommitFullBatchOnceAndReportEachOutcome() throws Exception {
+        configure(3, 10_000_000L);
+        Wallet wallet = WalletFixture.walletWithBalance(new BigDecimal("100.00"));
+        when(walletPersistence.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+
+        CompletableFuture<Void> deposit = submit(BigDecimal.TEN, TransactionType.DEPOSIT);
+        CompletableFuture<Void> withdrawal = submit(new BigDecimal("30.00"), TransactionType.WITHDRAWAL);
+        CompletableFuture<Void> overdraft = submit(new BigDecimal("500.00"), TransactionType.WITHDRAWAL);
+
+        deposit.get();
+        withdrawal.get();
+        ExecutionException rejected = assertThrows(ExecutionException.class, overdraft::get);
+        assertThat(rejected.getCause()).isInstanceOf(InsufficientFundsException.class);
+
+        assertThat(wallet.getBalance()).isEqualByComparingTo("80.00");
+        verify(walletPersistence, times(1)).findByIdForUpdate(walletId);
+        verify(walletPersistence, times(1)).save(wallet);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> ledger = ArgumentCaptor.forClass(List.class);
+        verify(transactionPersistence, times(1)).saveAll(ledger.capture());
+        assertThat(ledger.getValue()).hasSize(2);
+        assertThat(meterRegistry.summary("wallet.balance.batch.size").totalAmount()).isEqualTo(3.0);
+    }
+
+    @Test
+    void shouldFlushPartialBatchAfterMaxWait() {
+        configure(64, 1_000L);
+        Wallet wallet = WalletFixture.walletWithBalance(new BigDecimal("100.00"));
+        when(walletPersistence.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+
+        writer.apply(walletId, BigDecimal.TEN, TransactionType.DEPOSIT);
+
+        assertThat(wallet.getBalance()).isEqualByComparingTo("110.00");
+        verify(transactionPersistence).saveAll(anyList());
+    }
+
+    @Test
+    void shouldFailEveryWriteWhenWalletIsMissing() {
+        configure(64, 1_000L);
+        when(walletPersistence.findByIdForUpdate(walletId)).thenReturn(Optional.empty());
+
+        assertThrows(WalletNotFoundException.class,
+                () -> writer.apply(walletId, BigDecimal.TEN, TransactionType.DEPOSIT));
+        verifyNoInteractions(transactionPersistence);
+    }
+
+    @Test
+    void shouldCommitEveryBatchOfWalletOnItsOwnWriterThread() {
+        ReflectionTestUtils.setField(writer, "writerThreads", 4);
+        configure(1, 10_000_000L);
+        Wallet wallet = WalletFixture.walletWithBalance(new BigDecimal("100.00"));
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(walletPersistence.findByIdForUpdate(walletId)).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return Optional.of(wallet);
+        });
+
+        CompletableFuture.allOf(IntStream.range(0, 20)
+                .mapToObj(i -> submit(BigDecimal.ONE, TransactionType.DEPOSIT))
+                .toArray(CompletableFuture[]::new)).join();
+
+        assertThat(threads).containsExactly("wallet-group-commit-" + writer.writerIndexOf(walletId));
+        assertThat(wallet.getBalance()).isEqualByComparingTo("120.00");
+    }
+
+    private void configure(int maxBatchSize, long maxWaitMicros) {
+        ReflectionTestUtils.setField(writer, "maxBatchSize", maxBatchSize);
+        ReflectionTestUtils.setField(writer, "maxWaitMicros", maxWaitMicros);
+        writer.start();
+    }
+
+    private CompletableFuture<Void> submit(BigDecimal amount, TransactionType type) {
+        return CompletableFuture.runAsync(() -> writer.apply(walletId, amount, type), callers);
+    }
+}
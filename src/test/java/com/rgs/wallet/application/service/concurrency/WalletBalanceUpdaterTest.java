@@ -0,0 +1,222 @@
+package com.rgs.wallet.application.service.concurrency;
+
+import com.rgs.wallet.domain.exceptions.InsufficientFundsException;
+import com.rgs.wallet.domain.exceptions.WalletNotFoundException;
+import com.rgs.wallet.domain.exceptions.WalletUpdateConflictException;
+import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletBalance;
+import com.rgs.wallet.fixtures.WalletFixture;
+import com.rgs.wallet.infrastructure.idempotency.CacheService;
+import com.rgs.wallet.ports.out.TransactionPersistencePort;
+import com.rgs.wallet.ports.out.WalletPersistencePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class WalletBalanceUpdaterTest {
+
+    @Mock
+    private WalletPersistencePort walletPersistence;
+
+    @Mock
+    private TransactionPersistencePort transactionPersistence;
+
+    @Mock
+    private WalletStriping striping;
+
+    @Mock
+    private GroupCommitWriter groupCommitWriter;
+
+    @Mock
+    private CacheService cacheService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WalletBalanceUpdater updater;
+    private UUID walletId;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        updater = new WalletBalanceUpdater(walletPersistence, transactionPersistence, meterRegistry, striping,
+                groupCommitWriter, new TransactionTemplate(mock(PlatformTransactionManager.class)), cacheService);
+        ReflectionTestUtils.setField(updater, "optimisticMaxAttempts", 3);
+        ReflectionTestUtils.setField(updater, "optimisticBackoffMs", 0L);
+        walletId = UUID.randomUUID();
+    }
+
+    @Test
+    void shouldApplyAtomicDeltaWithoutLoadingWallet() {
+        useMode(ConcurrencyMode.ATOMIC_DELTA);
+        BigDecimal amount = BigDecimal.valueOf(50);
+        WalletBalance written = WalletBalance.of(BigDecimal.valueOf(150), 7, Instant.now());
+        when(walletPersistence.applyBalanceDelta(walletId, amount, TransactionType.DEPOSIT))
+                .thenReturn(Optional.of(written));
+
+        updater.apply(walletId, amount, TransactionType.DEPOSIT);
+
+        verify(walletPersistence).applyBalanceDelta(walletId, amount, TransactionType.DEPOSIT);
+        verify(walletPersistence, never()).findById(any());
+        verify(walletPersistence, never()).save(any());
+        verifyNoInteractions(transactionPersistence);
+        verify(cacheService).walletChanged(walletId, written);
+    }
+
+    @Test
+    void shouldReportInsufficientFundsWhenAtomicDeltaIsRejected() {
+        useMode(ConcurrencyMode.ATOMIC_DELTA);
+        BigDecimal amount = new BigDecimal("500.00");
+        when(walletPersistence.applyBalanceDelta(walletId, amount.negate(), TransactionType.WITHDRAWAL))
+                .thenReturn(Optional.empty());
+        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(WalletFixture.defaultWallet()));
+
+        assertThrows(InsufficientFundsException.class,
+                () -> updater.apply(walletId, amount, TransactionType.WITHDRAWAL));
+    }
+
+    @Test
+    void shouldReportWalletNotFoundWhenAtomicDeltaIsRejected() {
+        useMode(ConcurrencyMode.ATOMIC_DELTA);
+        BigDecimal amount = BigDecimal.TEN;
+        when(walletPersistence.applyBalanceDelta(walletId, amount, TransactionType.DEPOSIT))
+                .thenReturn(Optional.empty());
+        when(walletPersistence.findById(walletId)).thenReturn(Optional.empty());
+
+        assertThrows(WalletNotFoundException.class,
+                () -> updater.apply(walletId, amount, TransactionType.DEPOSIT));
+    }
+
+    @Test
+    void shouldLockWalletInPessimisticMode() {
+        useMode(ConcurrencyMode.PESSIMISTIC);
+        Wallet wallet = WalletFixture.walletWithBalance(new BigDecimal("100.00"));
+        when(walletPersistence.findByIdForUpdate(walletId)).thenReturn(Optional.of(wallet));
+
+        updater.apply(walletId, new BigDecimal("40.00"), TransactionType.WITHDRAWAL);
+
+        assertThat(wallet.getBalance()).isEqualByComparingTo("60.00");
+        verify(walletPersistence).save(wallet);
+        verify(transactionPersistence).save(any(Transaction.class));
+        verify(walletPersistence, never()).findById(any());
+        ArgumentCaptor<WalletBalance> written = ArgumentCaptor.forClass(WalletBalance.class);
+        verify(cacheService).walletChanged(eq(walletId), written.capture());
+        assertThat(written.getValue().getBalance()).isEqualByComparingTo("60.00");
+        assertThat(written.getValue().getSequence()).isEqualTo(wallet.getLedgerSequence());
+    }
+
+    @Test
+    void shouldRetryOptimisticUpdateOnVersionConflict() {
+        useMode(ConcurrencyMode.OPTIMISTIC);
+        when(walletPersistence.findById(walletId))
+                .thenReturn(Optional.of(WalletFixture.walletWithBalance(new BigDecimal("100.00"))))
+                .thenReturn(Optional.of(WalletFixture.walletWithBalance(new BigDecimal("120.00"))));
+        when(walletPersistence.updateBalanceWithVersionCheck(any(Wallet.class)))
+                .thenReturn(false)
+                .thenReturn(true);
+
+        updater.apply(walletId, BigDecimal.TEN, TransactionType.DEPOSIT);
+
+        ArgumentCaptor<Wallet> attempts = ArgumentCaptor.forClass(Wallet.class);
+        verify(walletPersistence, times(2)).updateBalanceWithVersionCheck(attempts.capture());
+        assertThat(attempts.getValue().getBalance()).isEqualByComparingTo("130.00");
+        verify(transactionPersistence, times(1)).save(any(Transaction.class));
+        assertThat(meterRegistry.counter("wallet.balance.conflicts", "mode", "OPTIMISTIC").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxOptimisticAttempts() {
+        useMode(ConcurrencyMode.OPTIMISTIC);
+        when(walletPersistence.findById(walletId))
+                .thenAnswer(invocation -> Optional.of(WalletFixture.walletWithBalance(new BigDecimal("100.00"))));
+        when(walletPersistence.updateBalanceWithVersionCheck(any(Wallet.class))).thenReturn(false);
+
+        assertThrows(WalletUpdateConflictException.class,
+                () -> updater.apply(walletId, BigDecimal.TEN, TransactionType.DEPOSIT));
+
+        verify(walletPersistence, times(3)).updateBalanceWithVersionCheck(any(Wallet.class));
+        verifyNoInteractions(transactionPersistence);
+        assertThat(meterRegistry.counter("wallet.balance.conflicts", "mode", "OPTIMISTIC").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void shouldCreditRandomStripeOfStripedWallet() {
+        when(striping.isStriped(walletId)).thenReturn(true);
+        when(striping.pickStripe()).thenReturn(3);
+        when(walletPersistence.applyStripeDelta(walletId, 3, BigDecimal.TEN, TransactionType.DEPOSIT))
+                .thenReturn(Optional.of(BigDecimal.TEN));
+
+        updater.apply(walletId, BigDecimal.TEN, TransactionType.DEPOSIT);
+
+        verify(walletPersistence, never()).applyBalanceDelta(any(), any(), any());
+        verify(walletPersistence, never()).foldBalanceStripes(any());
+        verifyNoInteractions(transactionPersistence);
+        verify(cacheService).clearCache(walletId);
+        verify(cacheService, never()).walletChanged(any(), any());
+    }
+
+    @Test
+    void shouldBorrowAcrossStripesWhenPickedStripeIsShort() {
+        BigDecimal amount = new BigDecimal("80.00");
+        when(striping.isStriped(walletId)).thenReturn(true);
+        when(striping.pickStripe()).thenReturn(1);
+        when(walletPersistence.applyStripeDelta(walletId, 1, amount.negate(), TransactionType.WITHDRAWAL))
+                .thenReturn(Optional.empty());
+        when(walletPersistence.applyStripedWalletDelta(walletId, amount.negate(), TransactionType.WITHDRAWAL))
+                .thenReturn(Optional.of(new BigDecimal("20.00")));
+
+        updater.apply(walletId, amount, TransactionType.WITHDRAWAL);
+
+        InOrder inOrder = inOrder(walletPersistence);
+        inOrder.verify(walletPersistence).foldBalanceStripes(walletId);
+        inOrder.verify(walletPersistence).applyStripedWalletDelta(walletId, amount.negate(), TransactionType.WITHDRAWAL);
+        verify(walletPersistence, never()).applyBalanceDelta(any(), any(), any());
+        assertThat(meterRegistry.counter("wallet.balance.stripe.folds", "mode", "STRIPED").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldRejectStripedWithdrawalWhenWholeWalletIsShort() {
+        BigDecimal amount = new BigDecimal("500.00");
+        when(striping.isStriped(walletId)).thenReturn(true);
+        when(walletPersistence.applyStripeDelta(eq(walletId), anyInt(), eq(amount.negate()), eq(TransactionType.WITHDRAWAL)))
+                .thenReturn(Optional.empty());
+        when(walletPersistence.applyStripedWalletDelta(walletId, amount.negate(), TransactionType.WITHDRAWAL))
+                .thenReturn(Optional.empty());
+        when(walletPersistence.findById(walletId)).thenReturn(Optional.of(WalletFixture.defaultWallet()));
+
+        assertThrows(InsufficientFundsException.class,
+                () -> updater.apply(walletId, amount, TransactionType.WITHDRAWAL));
+    }
+
+    @Test
+    void shouldHandOffToGroupCommitWhenEnabled() {
+        useMode(ConcurrencyMode.ATOMIC_DELTA);
+        when(groupCommitWriter.isEnabled()).thenReturn(true);
+
+        updater.apply(walletId, BigDecimal.TEN, TransactionType.DEPOSIT);
+
+        verify(groupCommitWriter).apply(walletId, BigDecimal.TEN, TransactionType.DEPOSIT);
+        verifyNoInteractions(walletPersistence, transactionPersistence);
+    }
+
+    private void useMode(ConcurrencyMode mode) {
+        ReflectionTestUtils.setField(updater, "mode", mode);
+    }
+}
@@ -0,0 +1,122 @@
+package com.rgs.wallet.application.service.concurrency;
+
+import com.rgs.wallet.domain.exceptions.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class WalletPartitionExecutorTest {
+
+    private WalletPartitionExecutor executor;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        executor = new WalletPartitionExecutor();
+        ReflectionTestUtils.setField(executor, "enabled", true);
+        ReflectionTestUtils.setField(executor, "partitions", 4);
+        executor.start();
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        executor.stop();
+    }
+
+    @Test
+    void shouldRunEveryWriteForWalletOnSameThread() {
+        UUID walletId = UUID.randomUUID();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<CompletableFuture<Void>> writes = IntStream.range(0, 50)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> executor.execute(
+                        () -> threads.add(Thread.currentThread().getName()), walletId), callers))
+                .toList();
+        writes.forEach(CompletableFuture::join);
+
+        assertThat(threads).containsExactly("wallet-writer-" + executor.partitionOf(walletId));
+    }
+
+    @Test
+    void shouldNotDeadlockOnOpposingCrossPartitionTransfers() {
+        UUID first = walletOnPartition(0);
+        UUID second = walletOnPartition(3);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            List<CompletableFuture<Void>> transfers = IntStream.range(0, 200)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        if (i % 2 == 0) {
+                            executor.execute(() -> { }, first, second);
+                        } else {
+                            executor.execute(() -> { }, second, first);
+                        }
+                    }, callers))
+                    .toList();
+            transfers.forEach(CompletableFuture::join);
+        });
+    }
+
+    @Test
+    void shouldRunPartitionsOnVirtualThreadsWhenEnabled() {
+        WalletPartitionExecutor virtualExecutor = new WalletPartitionExecutor();
+        ReflectionTestUtils.setField(virtualExecutor, "enabled", true);
+        ReflectionTestUtils.setField(virtualExecutor, "partitions", 4);
+        ReflectionTestUtils.setField(virtualExecutor, "virtualThreads", true);
+        virtualExecutor.start();
+        try {
+            UUID walletId = UUID.randomUUID();
+            AtomicBoolean virtual = new AtomicBoolean();
+
+            virtualExecutor.execute(() -> virtual.set(Thread.currentThread().isVirtual()), walletId);
+
+            assertThat(virtual).isTrue();
+        } finally {
+            virtualExecutor.stop();
+        }
+    }
+
+    @Test
+    void shouldPropagateBusinessExceptionToCaller() {
+        UUID walletId = UUID.randomUUID();
+
+        assertThrows(InsufficientFundsException.class, () -> executor.execute(() -> {
+            throw new InsufficientFundsException();
+        }, walletId));
+    }
+
+    @Test
+    void shouldRefuseToStartAlongsideGroupCommit() {
+        WalletPartitionExecutor combined = new WalletPartitionExecutor();
+        ReflectionTestUtils.setField(combined, "enabled", true);
+        ReflectionTestUtils.setField(combined, "partitions", 4);
+        ReflectionTestUtils.setField(combined, "groupCommit", true);
+
+        assertThrows(IllegalStateException.class, combined::start);
+    }
+
+    private UUID walletOnPartition(int partition) {
+        UUID walletId;
+        do {
+            walletId = UUID.randomUUID();
+        } while (executor.partitionOf(walletId) != partition);
+        return walletId;
+    }
+}
@@ -66,4 +66,17 @@ class WalletFallbackHandlerTest {
         assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
         assertEquals(ErrorCodeEnum.WS500001, ex.getErrorCode());
     }
+
+    @Test
+    void shouldThrowBusinessExceptionOnBatchTransferFallback() {
+        UUID batchId = UUID.randomUUID();
+        Throwable cause = new RuntimeException("Simulated failure");
+
+        BusinessException ex = assertThrows(BusinessException.class, () ->
+                fallbackHandler.handleBatchTransferFallback(batchId, 100, cause)
+        );
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+        assertEquals(ErrorCodeEnum.WS500001, ex.getErrorCode());
+    }
 }
@@ -0,0 +1,47 @@
+package com.rgs.wallet.application.service.history;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoricalBalanceWindowTest {
+
+    private HistoricalBalanceWindow window;
+
+    @BeforeEach
+    void setUp() {
+        window = new HistoricalBalanceWindow();
+        ReflectionTestUtils.setField(window, "settleMinutes", 5L);
+    }
+
+    @Test
+    void shouldKeepInstantWhenBucketingIsDisabled() {
+        Instant requested = Instant.parse("2025-03-01T12:34:56.789Z");
+
+        assertThat(window.resolve(requested)).isEqualTo(requested);
+        assertThat(window.isBucketed()).isFalse();
+    }
+
+    @Test
+    void shouldRoundDownToBucket() {
+        ReflectionTestUtils.setField(window, "bucketMillis", 1_000L);
+
+        assertThat(window.isBucketed()).isTrue();
+        assertThat(window.resolve(Instant.parse("2025-03-01T12:34:56.789Z")))
+                .isEqualTo(Instant.parse("2025-03-01T12:34:56Z"));
+        assertThat(window.resolve(Instant.parse("1969-12-31T23:59:59.500Z")))
+                .isEqualTo(Instant.parse("1969-12-31T23:59:59Z"));
+    }
+
+    @Test
+    void shouldTreatOnlyInstantsBeforeSettleWindowAsSettled() {
+        assertThat(window.isSettled(Instant.now().minus(Duration.ofMinutes(6)))).isTrue();
+        assertThat(window.isSettled(Instant.now().minus(Duration.ofMinutes(4)))).isFalse();
+        assertThat(window.isSettled(Instant.now().plus(Duration.ofDays(1)))).isFalse();
+    }
+}
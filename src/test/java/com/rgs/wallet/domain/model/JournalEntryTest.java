@@ -0,0 +1,80 @@
+package com.rgs.wallet.domain.model;
+
+import com.rgs.wallet.fixtures.TransactionFixture;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JournalEntryTest {
+
+    @Test
+    void shouldPostDepositAgainstExternalClearing() {
+        Transaction deposit = TransactionFixture.depositTransaction();
+
+        List<JournalEntry> entries = JournalEntry.fromTransactions(List.of(deposit));
+
+        assertThat(entries).hasSize(1);
+        JournalEntry entry = entries.get(0);
+        assertThat(entry.getType()).isEqualTo(JournalEntryType.DEPOSIT);
+        assertThat(entry.getPostings())
+                .extracting(JournalPosting::getAccountId, JournalPosting::getAmount)
+                .containsExactly(
+                        tuple(deposit.getWallet().getId(), new BigDecimal("100.00")),
+                        tuple(JournalEntry.EXTERNAL_CLEARING_ACCOUNT, new BigDecimal("-100.00")));
+    }
+
+    @Test
+    void shouldDebitWalletOnWithdrawal() {
+        Transaction withdrawal = TransactionFixture.withdrawalTransaction();
+
+        JournalEntry entry = JournalEntry.fromTransactions(List.of(withdrawal)).get(0);
+
+        assertThat(entry.getType()).isEqualTo(JournalEntryType.WITHDRAWAL);
+        assertThat(entry.getPostings().get(0).getAmount()).isEqualByComparingTo("-50.00");
+        assertThat(entry.getPostings().get(1).getAmount()).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void shouldCombineTransferLegsIntoSingleEntry() {
+        Transaction out = TransactionFixture.transferOutTransaction(null);
+        Transaction in = TransactionFixture.transferInTransaction(out.getId());
+        out.linkWithRelatedTransaction(in.getId());
+
+        List<JournalEntry> entries = JournalEntry.fromTransactions(List.of(out, in));
+
+        assertThat(entries).hasSize(1);
+        JournalEntry entry = entries.get(0);
+        assertThat(entry.getType()).isEqualTo(JournalEntryType.TRANSFER);
+        assertThat(entry.getPostings())
+                .extracting(JournalPosting::getAmount)
+                .containsExactly(new BigDecimal("-75.00"), new BigDecimal("75.00"));
+    }
+
+    @Test
+    void shouldRejectTransferWithMissingLeg() {
+        Transaction out = TransactionFixture.transferOutTransaction(UUID.randomUUID());
+
+        assertThrows(IllegalStateException.class, () -> JournalEntry.fromTransactions(List.of(out)));
+    }
+
+    @Test
+    void shouldRejectUnbalancedEntry() {
+        JournalEntry entry = JournalEntry.builder()
+                .id(UUID.randomUUID())
+                .type(JournalEntryType.TRANSFER)
+                .createdAt(Instant.now())
+                .postings(List.of(
+                        JournalPosting.builder().accountId(UUID.randomUUID()).amount(BigDecimal.TEN).build(),
+                        JournalPosting.builder().accountId(UUID.randomUUID()).amount(BigDecimal.ONE.negate()).build()))
+                .build();
+
+        assertThrows(IllegalStateException.class, entry::assertBalanced);
+    }
+}
@@ -0,0 +1,50 @@
+package com.rgs.wallet.domain.model;
+
+import com.rgs.wallet.domain.exceptions.InsufficientFundsException;
+import com.rgs.wallet.fixtures.WalletFixture;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WalletTest {
+
+    @Test
+    void shouldStampEachLedgerRowWithSequenceAndRunningBalance() {
+        Wallet wallet = WalletFixture.walletWithBalance(new BigDecimal("100.00"));
+
+        Transaction deposit = wallet.deposit(new BigDecimal("25.00"));
+        Transaction withdrawal = wallet.withdraw(new BigDecimal("40.00"));
+
+        assertEquals(1L, deposit.getSequence());
+        assertEquals(new BigDecimal("125.00"), deposit.getBalanceAfter());
+        assertEquals(2L, withdrawal.getSequence());
+        assertEquals(new BigDecimal("85.00"), withdrawal.getBalanceAfter());
+        assertEquals(2L, wallet.getLedgerSequence());
+    }
+
+    @Test
+    void shouldStampLedgerRowsWithInstantReadWithWalletRow() {
+        Wallet wallet = WalletFixture.walletWithBalance(new BigDecimal("100.00"));
+        Instant ledgerAt = Instant.parse("2025-03-01T12:00:00.123456Z");
+        wallet.setLedgerAt(ledgerAt);
+
+        Transaction deposit = wallet.deposit(new BigDecimal("25.00"));
+        Transaction withdrawal = wallet.withdraw(new BigDecimal("40.00"));
+
+        assertEquals(ledgerAt, deposit.getCreatedAt());
+        assertEquals(ledgerAt, withdrawal.getCreatedAt());
+    }
+
+    @Test
+    void shouldNotConsumeSequenceOnRejectedWithdrawal() {
+        Wallet wallet = WalletFixture.walletWithBalance(new BigDecimal("10.00"));
+
+        assertThrows(InsufficientFundsException.class, () -> wallet.withdraw(new BigDecimal("40.00")));
+
+        assertEquals(0L, wallet.getLedgerSequence());
+    }
+}
@@ -0,0 +1,38 @@
+package com.rgs.wallet.domain.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    void shouldGenerateVersion7Uuid() {
+        UUID uuid = TimeOrderedUuid.generate();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEmbedCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuid.generate();
+        long after = System.currentTimeMillis();
+
+        long embedded = uuid.getMostSignificantBits() >>> 16;
+
+        assertThat(embedded).isBetween(before, after);
+    }
+
+    @Test
+    void shouldSortByCreationTime() throws InterruptedException {
+        UUID first = TimeOrderedUuid.generate();
+        Thread.sleep(2);
+        UUID second = TimeOrderedUuid.generate();
+
+        assertThat(first.toString()).isLessThan(second.toString());
+    }
+}
@@ -1,6 +1,7 @@
 package com.rgs.wallet.fixtures;
 
 import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionRecord;
 import com.rgs.wallet.domain.model.TransactionType;
 
 import java.math.BigDecimal;
@@ -74,4 +75,22 @@ public class TransactionFixture {
                 .createdAt(Instant.now())
                 .build();
     }
+
+    public static TransactionRecord depositRecord() {
+        return recordOf(new BigDecimal("100.00"), TransactionType.DEPOSIT);
+    }
+
+    public static TransactionRecord withdrawalRecord() {
+        return recordOf(new BigDecimal("50.00"), TransactionType.WITHDRAWAL);
+    }
+
+    private static TransactionRecord recordOf(BigDecimal amount, TransactionType type) {
+        return TransactionRecord.builder()
+                .id(UUID.randomUUID())
+                .walletId(UUID.randomUUID())
+                .amount(amount)
+                .type(type)
+                .createdAt(Instant.now())
+                .build();
+    }
 }
@@ -2,29 +2,65 @@
 package com.rgs.wallet.infrastructure.api.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import com.rgs.wallet.domain.exceptions.TooManyExportsException;
+import com.rgs.wallet.domain.exceptions.WalletNotFoundException;
+import com.rgs.wallet.domain.model.BatchTransferMode;
+import com.rgs.wallet.domain.model.TransactionCursor;
+import com.rgs.wallet.domain.model.TransactionPage;
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.model.TransferLegResult;
 import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletCommand;
+import com.rgs.wallet.domain.model.WalletCommandStatus;
+import com.rgs.wallet.fixtures.TransactionFixture;
 import com.rgs.wallet.fixtures.WalletFixture;
+import com.rgs.wallet.infrastructure.api.dtos.BatchTransferRequest;
 import com.rgs.wallet.infrastructure.api.dtos.CreateWalletRequest;
 import com.rgs.wallet.infrastructure.api.dtos.SingleWalletOperationRequest;
+import com.rgs.wallet.infrastructure.api.dtos.TransactionCursorToken;
 import com.rgs.wallet.infrastructure.api.dtos.TransferBetweenWalletsRequest;
+import com.rgs.wallet.infrastructure.api.export.StatementExportLimiter;
+import com.rgs.wallet.ports.in.WalletCommandPort;
 import com.rgs.wallet.ports.in.WalletServicePort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(WalletController.class)
@@ -36,9 +72,15 @@ class WalletControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
-    @MockBean
+    @MockitoBean
     private WalletServicePort walletService;
 
+    @MockitoBean
+    private WalletCommandPort commandService;
+
+    @MockitoBean
+    private StatementExportLimiter exportLimiter;
+
     private UUID walletId;
     private UUID userId;
     private UUID requestId;
@@ -124,6 +166,74 @@ class WalletControllerTest {
                 .andExpect(status().isAccepted());
     }
 
+    @Test
+    void shouldTransferBatch() throws Exception {
+        UUID toWalletId = UUID.randomUUID();
+        UUID transactionId = UUID.randomUUID();
+        when(walletService.transferBatch(anyList(), eq(BatchTransferMode.BEST_EFFORT), eq(requestId)))
+                .thenReturn(List.of(
+                        TransferLegResult.completed(0, transactionId),
+                        TransferLegResult.rejected(1, ErrorCodeEnum.WS400002)));
+
+        BatchTransferRequest request = new BatchTransferRequest(BatchTransferMode.BEST_EFFORT, List.of(
+                new TransferBetweenWalletsRequest(walletId, toWalletId, BigDecimal.TEN),
+                new TransferBetweenWalletsRequest(walletId, toWalletId, new BigDecimal("1000"))));
+
+        mockMvc.perform(post("/api/v1/wallets/transfers/batch")
+                        .header("X-Request-ID", requestId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.batchId").value(requestId.toString()))
+                .andExpect(jsonPath("$.completed").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.legs[0].transactionId").value(transactionId.toString()))
+                .andExpect(jsonPath("$.legs[1].errorCode").value("WS400002"));
+    }
+
+    @Test
+    void shouldRejectEmptyTransferBatch() throws Exception {
+        BatchTransferRequest request = new BatchTransferRequest(null, List.of());
+
+        mockMvc.perform(post("/api/v1/wallets/transfers/batch")
+                        .header("X-Request-ID", requestId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldEnqueueDepositAndReturnStatusLocationWhenAsync() throws Exception {
+        when(commandService.isEnabled()).thenReturn(true);
+        when(commandService.submit(any(WalletCommand.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        SingleWalletOperationRequest request = new SingleWalletOperationRequest(walletId, BigDecimal.TEN);
+
+        mockMvc.perform(post("/api/v1/wallets/deposit")
+                        .header("X-Request-ID", requestId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/api/v1/wallets/commands/" + requestId)));
+
+        verify(walletService, never()).deposit(any(), any(), any());
+    }
+
+    @Test
+    void shouldGetCommandStatus() throws Exception {
+        WalletCommand command = WalletCommand.deposit(requestId, walletId, BigDecimal.TEN);
+        command.setStatus(WalletCommandStatus.FAILED);
+        command.setErrorCode(ErrorCodeEnum.WS404001);
+        when(commandService.getCommand(requestId)).thenReturn(command);
+
+        mockMvc.perform(get("/api/v1/wallets/commands/{commandId}", requestId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.errorCode").value("WS404001"))
+                .andExpect(jsonPath("$.walletId").value(walletId.toString()));
+    }
+
     @Test
     void shouldGetHistoricalBalance() throws Exception {
         Instant timestamp = Instant.now();
@@ -136,4 +246,112 @@ class WalletControllerTest {
                 .andExpect(jsonPath("$.queryTimestamp").value(timestamp.toString()))
                 .andExpect(jsonPath("$.walletId").value(walletId.toString()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetTransactionPageAndPassCursorThrough() throws Exception {
+        TransactionRecord transaction = TransactionFixture.depositRecord();
+        TransactionCursor next = TransactionCursor.of(transaction);
+        TransactionCursor after = TransactionCursor.builder()
+                .createdAt(Instant.parse("2024-05-01T10:00:00.123456Z"))
+                .id(UUID.randomUUID())
+                .build();
+        when(walletService.getTransactionPage(eq(walletId), any(), eq(1), eq(TransactionType.DEPOSIT)))
+                .thenReturn(TransactionPage.builder().transactions(List.of(transaction)).nextCursor(next).build());
+
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/transactions", walletId)
+                        .param("cursor", TransactionCursorToken.encode(after))
+                        .param("limit", "1")
+                        .param("type", "DEPOSIT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions[0].id").value(transaction.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").value(TransactionCursorToken.encode(next)));
+
+        verify(walletService).getTransactionPage(eq(walletId),
+                argThat(cursor -> cursor.getId().equals(after.getId()) && cursor.getCreatedAt().equals(after.getCreatedAt())),
+                eq(1), eq(TransactionType.DEPOSIT));
+    }
+
+    @Test
+    void shouldRejectMalformedTransactionCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/transactions", walletId)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("WS400003"));
+
+        verify(walletService, never()).getTransactionPage(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamStatementAsCsv() throws Exception {
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        Instant end = Instant.parse("2024-02-01T00:00:00Z");
+        TransactionRecord deposit = TransactionRecord.builder()
+                .id(UUID.randomUUID())
+                .walletId(walletId)
+                .amount(BigDecimal.TEN)
+                .type(TransactionType.DEPOSIT)
+                .createdAt(start)
+                .build();
+        StatementExportLimiter limiter = new StatementExportLimiter(1);
+        when(exportLimiter.acquire()).thenAnswer(invocation -> limiter.acquire());
+        when(walletService.getWallet(walletId)).thenReturn(WalletFixture.withParameters(walletId, userId));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionRecord>>getArgument(3).accept(deposit);
+            return null;
+        }).when(walletService).exportTransactions(eq(walletId), eq(start), eq(end), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/wallets/{walletId}/transactions/export", walletId)
+                        .param("startDate", start.toString())
+                        .param("endDate", end.toString())
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", startsWith("text/csv")))
+                .andExpect(header().string("Content-Disposition", containsString("wallet-" + walletId + ".csv")))
+                .andExpect(content().string(startsWith("id,wallet_id,")))
+                .andExpect(content().string(containsString(deposit.getId() + "," + walletId + ",DEPOSIT,10,")));
+        assertThatCode(limiter::acquire).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldAnswerNotFoundBeforeStreamingStatement() throws Exception {
+        when(walletService.getWallet(walletId)).thenThrow(new WalletNotFoundException());
+
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/transactions/export", walletId)
+                        .param("startDate", "2024-01-01T00:00:00Z")
+                        .param("endDate", "2024-02-01T00:00:00Z"))
+                .andExpect(status().isNotFound());
+
+        verify(walletService, never()).exportTransactions(any(), any(), any(), any());
+        verify(exportLimiter, never()).acquire();
+    }
+
+    @Test
+    void shouldRejectStatementPeriodEndingBeforeItStarts() throws Exception {
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/transactions/export", walletId)
+                        .param("startDate", "2024-02-01T00:00:00Z")
+                        .param("endDate", "2024-01-01T00:00:00Z"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("WS400004"));
+
+        verify(walletService, never()).exportTransactions(any(), any(), any(), any());
+    }
+
+    @Test
+    void shouldAnswerTooManyRequestsWhenExportsAreAtCapacity() throws Exception {
+        when(walletService.getWallet(walletId)).thenReturn(WalletFixture.withParameters(walletId, userId));
+        doThrow(new TooManyExportsException()).when(exportLimiter).acquire();
+
+        mockMvc.perform(get("/api/v1/wallets/{walletId}/transactions/export", walletId)
+                        .param("startDate", "2024-01-01T00:00:00Z")
+                        .param("endDate", "2024-02-01T00:00:00Z"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.error.code").value("WS429002"));
+
+        verify(walletService, never()).exportTransactions(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,84 @@
+package com.rgs.wallet.infrastructure.api.controllers;
+
+import com.rgs.wallet.domain.exceptions.WalletNotFoundException;
+import com.rgs.wallet.fixtures.TransactionFixture;
+import com.rgs.wallet.ports.in.WalletQueryPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = WalletQueryController.class, properties = "app.reactive-reads.enabled=true")
+class WalletQueryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private WalletQueryPort walletQuery;
+
+    private UUID walletId;
+
+    @BeforeEach
+    void setup() {
+        walletId = UUID.randomUUID();
+    }
+
+    @Test
+    void shouldGetBalance() throws Exception {
+        when(walletQuery.getBalance(walletId)).thenReturn(Mono.just(new BigDecimal("150.00")));
+
+        MvcResult result = mockMvc.perform(get("/api/v2/wallets/{walletId}/balance", walletId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(150.00))
+                .andExpect(jsonPath("$.walletId").value(walletId.toString()));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownWallet() throws Exception {
+        when(walletQuery.getWallet(walletId)).thenReturn(Mono.error(new WalletNotFoundException()));
+
+        MvcResult result = mockMvc.perform(get("/api/v2/wallets/{walletId}", walletId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldListTransactions() throws Exception {
+        when(walletQuery.getTransactions(eq(walletId), any(), any()))
+                .thenReturn(Flux.just(TransactionFixture.depositRecord(), TransactionFixture.withdrawalRecord()));
+
+        MvcResult result = mockMvc.perform(get("/api/v2/wallets/{walletId}/transactions", walletId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].type").value("DEPOSIT"));
+    }
+}
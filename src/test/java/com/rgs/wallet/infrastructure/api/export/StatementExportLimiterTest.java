@@ -0,0 +1,45 @@
+package com.rgs.wallet.infrastructure.api.export;
+
+import com.rgs.wallet.domain.exceptions.TooManyExportsException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatementExportLimiterTest {
+
+    @Test
+    void shouldRefuseExportsBeyondCapacityUntilOneIsReleased() {
+        StatementExportLimiter limiter = new StatementExportLimiter(2);
+        StatementExportLimiter.Permit permit = limiter.acquire();
+        limiter.acquire();
+
+        assertThatThrownBy(limiter::acquire).isInstanceOf(TooManyExportsException.class);
+
+        permit.release();
+        assertThatCode(limiter::acquire).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldReleasePermitWhenAsyncRequestEndsWithoutRunningBody() throws Exception {
+        StatementExportLimiter limiter = new StatementExportLimiter(1);
+        StatementExportLimiter.Permit permit = limiter.acquire();
+
+        permit.afterCompletion(null, null);
+
+        assertThatCode(limiter::acquire).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldGiveBackPermitOnlyOnce() throws Exception {
+        StatementExportLimiter limiter = new StatementExportLimiter(2);
+        StatementExportLimiter.Permit permit = limiter.acquire();
+        limiter.acquire();
+
+        permit.release();
+        permit.afterCompletion(null, null);
+        limiter.acquire();
+
+        assertThatThrownBy(limiter::acquire).isInstanceOf(TooManyExportsException.class);
+    }
+}
@@ -0,0 +1,76 @@
+package com.rgs.wallet.infrastructure.api.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementFormatTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final TransactionRecord deposit = TransactionRecord.builder()
+            .id(UUID.randomUUID())
+            .walletId(UUID.randomUUID())
+            .amount(new BigDecimal("10.50"))
+            .type(TransactionType.DEPOSIT)
+            .createdAt(Instant.parse("2024-03-01T12:00:00.250Z"))
+            .sequence(7L)
+            .balanceAfter(new BigDecimal("110.50"))
+            .build();
+
+    private final TransactionRecord transferOut = TransactionRecord.builder()
+            .id(UUID.randomUUID())
+            .walletId(deposit.getWalletId())
+            .amount(new BigDecimal("-3.00"))
+            .type(TransactionType.TRANSFER_OUT)
+            .createdAt(Instant.parse("2024-03-01T12:00:01Z"))
+            .relatedTransactionId(UUID.randomUUID())
+            .build();
+
+    @Test
+    void shouldWriteOneJsonDocumentPerLine() throws IOException {
+        List<String> lines = export(StatementFormat.NDJSON).lines().toList();
+
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("id").asText()).isEqualTo(deposit.getId().toString());
+        assertThat(first.get("walletId").asText()).isEqualTo(deposit.getWalletId().toString());
+        assertThat(first.get("createdAt").asText()).isEqualTo("2024-03-01T12:00:00.250Z");
+        assertThat(first.get("balanceAfter").decimalValue()).isEqualByComparingTo("110.50");
+        assertThat(objectMapper.readTree(lines.get(1)).get("amount").decimalValue()).isEqualByComparingTo("3.00");
+    }
+
+    @Test
+    void shouldWriteHeaderAndUnquotedCsvRows() throws IOException {
+        List<String> lines = export(StatementFormat.CSV).lines().toList();
+
+        assertThat(lines).containsExactly(
+                CsvStatementWriter.HEADER,
+                String.join(",", deposit.getId().toString(), deposit.getWalletId().toString(), "DEPOSIT", "10.50",
+                        "2024-03-01T12:00:00.250Z", "", "7", "110.50"),
+                String.join(",", transferOut.getId().toString(), transferOut.getWalletId().toString(), "TRANSFER_OUT",
+                        "3.00", "2024-03-01T12:00:01Z", transferOut.getRelatedTransactionId().toString(), "", ""));
+    }
+
+    private String export(StatementFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatementWriter writer = format.open(out, objectMapper);
+        writer.write(deposit);
+        writer.write(transferOut);
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
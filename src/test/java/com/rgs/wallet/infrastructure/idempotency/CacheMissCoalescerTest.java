@@ -0,0 +1,154 @@
+package com.rgs.wallet.infrastructure.idempotency;
+
+import com.rgs.wallet.domain.exceptions.WalletNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class CacheMissCoalescerTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheMissCoalescer coalescer;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new CacheMissCoalescer(redisTemplate, meterRegistry);
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void shouldLoadOnceForConcurrentMissesOnSameKey() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<BigDecimal> leader = CompletableFuture.supplyAsync(() -> coalescer.load("balance:1", () -> null, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return BigDecimal.TEN;
+        }), callers);
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<BigDecimal>> followers = IntStream.range(0, 5)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> coalescer.<BigDecimal>load("balance:1", () -> null, () -> {
+                    loads.incrementAndGet();
+                    return BigDecimal.ONE;
+                }), callers))
+                .toList();
+        waitForFollowers(5);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(BigDecimal.TEN);
+        for (CompletableFuture<BigDecimal> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(BigDecimal.TEN);
+        }
+        assertThat(loads).hasValue(1);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void shouldHandLoaderFailureToWaitingCallers() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> coalescer.load("wallet:1", () -> null, () -> {
+            loading.countDown();
+            await(release);
+            throw new WalletNotFoundException();
+        }), callers);
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(
+                () -> coalescer.load("wallet:1", () -> null, Object::new), callers);
+        waitForFollowers(1);
+        release.countDown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertThat(failure.getCause()).isInstanceOf(WalletNotFoundException.class);
+        assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldWaitForLeaseHolderToFillCache() {
+        ReflectionTestUtils.setField(coalescer, "leaseMillis", 1_000L);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        AtomicReference<BigDecimal> cache = new AtomicReference<>();
+        AtomicInteger reads = new AtomicInteger();
+
+        BigDecimal result = coalescer.load("balance:2", () -> {
+            if (reads.incrementAndGet() == 3) {
+                cache.set(new BigDecimal("7.00"));
+            }
+            return cache.get();
+        }, () -> {
+            throw new AssertionError("lease holder is loading");
+        });
+
+        assertThat(result).isEqualByComparingTo("7.00");
+        verify(valueOperations).setIfAbsent(CacheMissCoalescer.LEASE_PREFIX + "balance:2", "1", Duration.ofMillis(1_000));
+    }
+
+    @Test
+    void shouldLoadWhenLeaseHolderNeverFillsCache() {
+        ReflectionTestUtils.setField(coalescer, "leaseMillis", 30L);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        BigDecimal result = coalescer.load("balance:3", () -> null, () -> BigDecimal.ONE);
+
+        assertThat(result).isEqualTo(BigDecimal.ONE);
+        assertThat(meterRegistry.counter("wallet.cache.miss.loads", "role", "loader").count()).isEqualTo(1.0);
+    }
+
+    private void waitForFollowers(int followers) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.counter("wallet.cache.miss.loads", "role", "follower").count() < followers
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
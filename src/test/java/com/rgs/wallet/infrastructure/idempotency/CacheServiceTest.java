@@ -0,0 +1,184 @@
+package com.rgs.wallet.infrastructure.idempotency;
+
+import com.rgs.wallet.domain.model.WalletBalance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class CacheServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private HashOperations<String, String, String> hashOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheService cacheService;
+    private UUID walletId;
+    private String entryKey;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.<String, String>opsForHash()).thenReturn(hashOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new CacheService(redisTemplate, meterRegistry);
+        ReflectionTestUtils.setField(cacheService, "walletTtl", 300L);
+        ReflectionTestUtils.setField(cacheService, "localMaximumSize", 100L);
+        ReflectionTestUtils.setField(cacheService, "localTtlMillis", 60_000L);
+        ReflectionTestUtils.setField(cacheService, "historicalTtl", 86_400L);
+        ReflectionTestUtils.setField(cacheService, "historicalMaximumSize", 100L);
+        cacheService.init();
+        walletId = UUID.randomUUID();
+        entryKey = WalletCacheEntry.key(walletId);
+        when(redisTemplate.execute(eq(WalletCacheEntry.PUT_IF_NOT_OLDER), anyList(), any(Object[].class))).thenReturn(1L);
+    }
+
+    @Test
+    void shouldServeRepeatedBalanceReadsFromLocalTier() {
+        when(hashOperations.get(entryKey, WalletCacheEntry.BALANCE)).thenReturn("42.50");
+
+        assertThat(cacheService.getCachedBalance(walletId)).isEqualByComparingTo("42.50");
+        assertThat(cacheService.getCachedBalance(walletId)).isEqualByComparingTo("42.50");
+
+        verify(hashOperations, times(1)).get(entryKey, WalletCacheEntry.BALANCE);
+    }
+
+    @Test
+    void shouldEvictLocallyAndBroadcastOnClear() {
+        cacheService.cacheBalance(walletId, WalletBalance.of(BigDecimal.TEN, 1, Instant.now()));
+
+        cacheService.clearCache(walletId);
+
+        assertThat(cacheService.getCachedBalance(walletId)).isNull();
+        verify(redisTemplate).delete(List.of(entryKey));
+        verify(redisTemplate).convertAndSend(CacheService.INVALIDATION_CHANNEL, walletId.toString());
+    }
+
+    @Test
+    void shouldDropLocalEntryWhenAnotherNodeWritesTheWallet() {
+        cacheService.cacheBalance(walletId, WalletBalance.of(BigDecimal.TEN, 1, Instant.now()));
+
+        cacheService.evictLocal(List.of(walletId));
+
+        assertThat(cacheService.getCachedBalance(walletId)).isNull();
+        verify(hashOperations).get(entryKey, WalletCacheEntry.BALANCE);
+    }
+
+    @Test
+    void shouldNotKeepLocallyValueReadWhileInvalidationArrived() {
+        when(hashOperations.get(entryKey, WalletCacheEntry.BALANCE)).thenAnswer(invocation -> {
+            cacheService.evictLocal(List.of(walletId));
+            return "10.00";
+        });
+
+        assertThat(cacheService.getCachedBalance(walletId)).isEqualByComparingTo("10.00");
+        cacheService.getCachedBalance(walletId);
+
+        verify(hashOperations, times(2)).get(entryKey, WalletCacheEntry.BALANCE);
+    }
+
+    @Test
+    void shouldNotCacheLocallyWhenNewerEntryIsStored() {
+        when(redisTemplate.execute(eq(WalletCacheEntry.PUT_IF_NOT_OLDER), anyList(), any(Object[].class))).thenReturn(0L);
+
+        cacheService.cacheBalance(walletId, WalletBalance.of(BigDecimal.TEN, 1, Instant.now()));
+        cacheService.getCachedBalance(walletId);
+
+        verify(hashOperations).get(entryKey, WalletCacheEntry.BALANCE);
+    }
+
+    @Test
+    void shouldMissWalletWhenEntryHoldsOnlyBalance() {
+        when(hashOperations.multiGet(entryKey, WalletCacheEntry.WALLET_FIELDS))
+                .thenReturn(Arrays.asList("7", "10.00", "1735689600000000", null, null, null, null, null, null, null));
+
+        assertThat(cacheService.getCachedWallet(walletId)).isNull();
+    }
+
+    @Test
+    void shouldWriteBalanceThroughOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheService.walletChanged(walletId, WalletBalance.of(new BigDecimal("55.00"), 8,
+                    Instant.parse("2025-01-01T00:00:00.000123Z")));
+
+            verify(redisTemplate, never()).execute(eq(WalletCacheEntry.PUT_IF_NOT_OLDER), anyList(), any(Object[].class));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(redisTemplate).execute(WalletCacheEntry.PUT_IF_NOT_OLDER, List.of(entryKey),
+                "8", "300000", WalletCacheEntry.BALANCE, "55.00", WalletCacheEntry.UPDATED_AT, "1735689600000123");
+        verify(redisTemplate, never()).delete(anyCollection());
+        verify(redisTemplate).convertAndSend(CacheService.INVALIDATION_CHANNEL, walletId.toString());
+    }
+
+    @Test
+    void shouldDropMaintenanceOfRolledBackTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheService.clearCache(walletId);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(redisTemplate, never()).delete(anyCollection());
+        verify(redisTemplate, never()).convertAndSend(any(), any());
+    }
+
+    @Test
+    void shouldKeepSettledHistoricalBalanceLocallyAfterFirstRedisHit() {
+        Instant timestamp = Instant.parse("2025-01-01T00:00:00Z");
+        String key = CacheService.HISTORICAL_PREFIX + walletId + ":" + timestamp;
+        when(valueOperations.get(key)).thenReturn("12.50");
+
+        assertThat(cacheService.getCachedHistoricalBalance(walletId, timestamp)).isEqualByComparingTo("12.50");
+        assertThat(cacheService.getCachedHistoricalBalance(walletId, timestamp)).isEqualByComparingTo("12.50");
+
+        verify(valueOperations, times(1)).get(key);
+        assertThat(meterRegistry.counter("wallet.cache.historical.lookups", "key", "instant", "result", "redis").count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.counter("wallet.cache.historical.lookups", "key", "instant", "result", "local").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldCacheBalanceAfterLedgerRowInBothTiers() {
+        UUID transactionId = UUID.randomUUID();
+
+        cacheService.cacheBalanceAfterEntry(walletId, transactionId, new BigDecimal("8.00"));
+
+        assertThat(cacheService.getCachedBalanceAfterEntry(walletId, transactionId)).isEqualByComparingTo("8.00");
+        verify(valueOperations).set(CacheService.HISTORICAL_PREFIX + walletId + ":" + CacheService.ENTRY_SEGMENT + transactionId,
+                "8.00", Duration.ofSeconds(86_400));
+        verify(valueOperations, never()).get(anyString());
+    }
+}
@@ -0,0 +1,127 @@
+package com.rgs.wallet.infrastructure.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.rgs.wallet.domain.model.User;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the cache's hash entry against Jackson JSON of the same wallet. Jackson binds
+ * a mirror record and builds the Wallet from it, so both sides pay for the domain object. Not part of the
+ * test suite: after {@code mvn test-compile}, run {@link #main} on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WalletCacheEntryBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private Wallet wallet;
+    private List<String> values;
+    private String json;
+
+    @Setup
+    public void setUp() throws Exception {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .name("John Doe")
+                .taxId("123456789")
+                .createdAt(Instant.parse("2024-06-01T10:15:30.123456Z"))
+                .updatedAt(Instant.parse("2024-06-02T10:15:30Z"))
+                .build();
+        wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .balance(new BigDecimal("100.50"))
+                .status(WalletStatus.ACTIVE)
+                .createdAt(Instant.parse("2024-06-01T10:15:31.000001Z"))
+                .updatedAt(Instant.parse("2025-01-15T18:00:00.5Z"))
+                .ledgerSequence(12)
+                .build();
+        List<String> args = WalletCacheEntry.walletArgs(wallet, 300);
+        Map<String, String> entry = new HashMap<>();
+        entry.put(WalletCacheEntry.SEQUENCE, args.get(0));
+        for (int i = 2; i < args.size(); i += 2) {
+            entry.put(args.get(i), args.get(i + 1));
+        }
+        values = WalletCacheEntry.WALLET_FIELDS.stream().map(entry::get).toList();
+        json = objectMapper.writeValueAsString(WalletJson.of(wallet));
+    }
+
+    @Benchmark
+    public List<String> entryEncode() {
+        return WalletCacheEntry.walletArgs(wallet, 300);
+    }
+
+    @Benchmark
+    public Wallet entryDecode() {
+        return WalletCacheEntry.decode(wallet.getId(), values);
+    }
+
+    @Benchmark
+    public String jsonEncode() throws Exception {
+        return objectMapper.writeValueAsString(WalletJson.of(wallet));
+    }
+
+    @Benchmark
+    public Wallet jsonDecode() throws Exception {
+        return objectMapper.readValue(json, WalletJson.class).toWallet();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(WalletCacheEntryBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    record UserJson(UUID id, String name, String taxId, Instant createdAt, Instant updatedAt) {
+    }
+
+    record WalletJson(UUID id, UserJson user, BigDecimal balance, WalletStatus status, Instant createdAt,
+                      Instant updatedAt, long ledgerSequence) {
+
+        static WalletJson of(Wallet wallet) {
+            User user = wallet.getUser();
+            return new WalletJson(wallet.getId(),
+                    new UserJson(user.getId(), user.getName(), user.getTaxId(), user.getCreatedAt(), user.getUpdatedAt()),
+                    wallet.getBalance(), wallet.getStatus(), wallet.getCreatedAt(), wallet.getUpdatedAt(),
+                    wallet.getLedgerSequence());
+        }
+
+        Wallet toWallet() {
+            return Wallet.builder()
+                    .id(id)
+                    .user(User.builder().id(user.id()).name(user.name()).taxId(user.taxId())
+                            .createdAt(user.createdAt()).updatedAt(user.updatedAt()).build())
+                    .balance(balance)
+                    .status(status)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .ledgerSequence(ledgerSequence)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.rgs.wallet.infrastructure.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.rgs.wallet.domain.model.User;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletBalance;
+import com.rgs.wallet.domain.model.WalletStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WalletCacheEntryTest {
+
+    private final UUID walletId = UUID.randomUUID();
+
+    @Test
+    void shouldReadBackWalletItWrote() {
+        Wallet wallet = wallet();
+
+        Wallet decoded = WalletCacheEntry.decode(walletId, read(hash(WalletCacheEntry.walletArgs(wallet, 300))));
+
+        assertThat(decoded).usingRecursiveComparison()
+                .ignoringFields("version", "transactions")
+                .isEqualTo(wallet);
+    }
+
+    @Test
+    void shouldServeWalletWithBalanceWrittenThroughOverIt() {
+        Map<String, String> entry = hash(WalletCacheEntry.walletArgs(wallet(), 300));
+        Instant updatedAt = Instant.parse("2025-02-01T08:00:00.654321Z");
+
+        entry.putAll(hash(WalletCacheEntry.balanceArgs(WalletBalance.of(new BigDecimal("75.25"), 13, updatedAt), 300)));
+        Wallet decoded = WalletCacheEntry.decode(walletId, read(entry));
+
+        assertThat(decoded.getBalance()).isEqualByComparingTo("75.25");
+        assertThat(decoded.getLedgerSequence()).isEqualTo(13);
+        assertThat(decoded.getUpdatedAt()).isEqualTo(updatedAt);
+        assertThat(decoded.getUser().getName()).isEqualTo("John Doe");
+    }
+
+    @Test
+    void shouldNotServeWalletFromBalanceOnlyEntry() {
+        Map<String, String> entry = hash(WalletCacheEntry.balanceArgs(
+                WalletBalance.of(BigDecimal.TEN, 1, Instant.now()), 300));
+
+        assertThat(WalletCacheEntry.balance(entry.get(WalletCacheEntry.BALANCE))).isEqualByComparingTo("10");
+        assertThat(WalletCacheEntry.decode(walletId, read(entry))).isNull();
+    }
+
+    @Test
+    void shouldTakeFewerBytesThanJacksonJson() throws Exception {
+        Wallet wallet = wallet();
+        String json = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(wallet);
+
+        int entryBytes = hash(WalletCacheEntry.walletArgs(wallet, 300)).entrySet().stream()
+                .mapToInt(field -> utf8Length(field.getKey()) + utf8Length(field.getValue()))
+                .sum();
+
+        assertThat(entryBytes).isLessThan(utf8Length(json) / 2);
+    }
+
+    private Wallet wallet() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .name("John Doe")
+                .taxId("123456789")
+                .createdAt(Instant.parse("2024-06-01T10:15:30.123456Z"))
+                .updatedAt(Instant.parse("2024-06-02T10:15:30Z"))
+                .build();
+        return Wallet.builder()
+                .id(walletId)
+                .user(user)
+                .balance(new BigDecimal("100.50"))
+                .status(WalletStatus.ACTIVE)
+                .createdAt(Instant.parse("2024-06-01T10:15:31.000001Z"))
+                .updatedAt(Instant.parse("2025-01-15T18:00:00.5Z"))
+                .ledgerSequence(12)
+                .build();
+    }
+
+    // what the script's HSET leaves in the hash
+    private static Map<String, String> hash(List<String> args) {
+        Map<String, String> entry = new HashMap<>();
+        entry.put(WalletCacheEntry.SEQUENCE, args.get(0));
+        for (int i = 2; i < args.size(); i += 2) {
+            entry.put(args.get(i), args.get(i + 1));
+        }
+        return entry;
+    }
+
+    private static List<String> read(Map<String, String> entry) {
+        return WalletCacheEntry.WALLET_FIELDS.stream().map(entry::get).toList();
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,135 @@
+package com.rgs.wallet.infrastructure.persistence;
+
+import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.infrastructure.persistence.mapper.JournalEntryMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.TransactionMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.UserMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.WalletMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Delta statements and locked read-modify-write transactions racing on one wallet must leave ledger rows
+ * whose (created_at, sequence) order is the sequence order, so the latest row carries the wallet balance.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({WalletJpaAdapter.class, TransactionJpaAdapter.class, WalletMapper.class, TransactionMapper.class,
+        UserMapper.class, JournalEntryMapper.class})
+class LedgerTimestampConcurrencyTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17");
+
+    private static final int WRITERS = 8;
+    private static final int WRITES_PER_WRITER = 50;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private WalletJpaAdapter walletAdapter;
+
+    @Autowired
+    private TransactionJpaAdapter transactionAdapter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID walletId;
+
+    @BeforeEach
+    void seed() {
+        UUID userId = UUID.randomUUID();
+        walletId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, name, tax_id) VALUES (?, 'ledger timestamps', ?)",
+                userId, UUID.randomUUID().toString().substring(0, 11));
+        jdbcTemplate.update("INSERT INTO wallets (id, user_id, balance, status) VALUES (?, ?, 0, 'ACTIVE')",
+                walletId, userId);
+    }
+
+    @Test
+    void shouldKeepLatestRunningBalanceEqualToWalletBalanceUnderConcurrentWrites() throws Exception {
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        try {
+            for (int writer = 0; writer < WRITERS; writer++) {
+                boolean atomic = writer % 2 == 0;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < WRITES_PER_WRITER; i++) {
+                        if (atomic) {
+                            walletAdapter.applyBalanceDelta(walletId, BigDecimal.ONE, TransactionType.DEPOSIT);
+                        } else {
+                            transactions.executeWithoutResult(status -> {
+                                Wallet wallet = walletAdapter.findByIdForUpdate(walletId).orElseThrow();
+                                Transaction deposit = wallet.deposit(BigDecimal.ONE);
+                                walletAdapter.save(wallet);
+                                transactionAdapter.save(deposit);
+                            });
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BigDecimal balance = jdbcTemplate.queryForObject(
+                "SELECT balance FROM wallets WHERE id = ?", BigDecimal.class, walletId);
+        TransactionRecord latest = transactionAdapter.findLastUpTo(walletId, Instant.now().plusSeconds(3600))
+                .orElseThrow();
+        List<Long> sequences = jdbcTemplate.queryForList(
+                "SELECT sequence FROM transactions WHERE wallet_id = ? ORDER BY created_at, sequence",
+                Long.class, walletId);
+
+        assertThat(balance).isEqualByComparingTo(BigDecimal.valueOf(WRITERS * WRITES_PER_WRITER));
+        assertThat(latest.getBalanceAfter()).isEqualByComparingTo(balance);
+        assertThat(sequences).isSorted().doesNotHaveDuplicates().hasSize(WRITERS * WRITES_PER_WRITER);
+    }
+}
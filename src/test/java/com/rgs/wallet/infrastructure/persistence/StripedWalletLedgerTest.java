@@ -0,0 +1,126 @@
+package com.rgs.wallet.infrastructure.persistence;
+
+import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.utils.TimeOrderedUuid;
+import com.rgs.wallet.infrastructure.persistence.mapper.JournalEntryMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.TransactionMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.UserMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.WalletMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every ledger row of a striped wallet, whether a stripe write, a write to the wallet row after a fold or
+ * a transfer leg, is stored without a running balance or sequence: the wallet row leaves out the stripes.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WalletJpaAdapter.class, TransactionJpaAdapter.class, WalletMapper.class, TransactionMapper.class,
+        UserMapper.class, JournalEntryMapper.class})
+class StripedWalletLedgerTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private WalletJpaAdapter walletAdapter;
+
+    @Autowired
+    private TransactionJpaAdapter transactionAdapter;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID stripedId;
+    private UUID plainId;
+
+    @BeforeEach
+    void seed() {
+        stripedId = wallet("100.00");
+        plainId = wallet("0.00");
+    }
+
+    @Test
+    void shouldStoreRowsOfStripedWalletWithoutRunningBalance() {
+        walletAdapter.applyStripeDelta(stripedId, 0, new BigDecimal("50.00"), TransactionType.DEPOSIT);
+        walletAdapter.applyStripedWalletDelta(stripedId, new BigDecimal("-20.00"), TransactionType.WITHDRAWAL);
+        transfer(new BigDecimal("30.00"));
+
+        List<Map<String, Object>> striped = jdbcTemplate.queryForList(
+                "SELECT type, balance_after, sequence FROM transactions WHERE wallet_id = ?", stripedId);
+        Map<String, Object> plain = jdbcTemplate.queryForMap(
+                "SELECT balance_after, sequence FROM transactions WHERE wallet_id = ?", plainId);
+
+        assertThat(striped).extracting(row -> row.get("type"))
+                .containsExactlyInAnyOrder("DEPOSIT", "WITHDRAWAL", "TRANSFER_OUT");
+        assertThat(striped).allSatisfy(row -> {
+            assertThat(row.get("balance_after")).isNull();
+            assertThat(row.get("sequence")).isNull();
+        });
+        assertThat((BigDecimal) plain.get("balance_after")).isEqualByComparingTo("30.00");
+        assertThat(plain.get("sequence")).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT ledger_sequence FROM wallets WHERE id = ?", Long.class, stripedId)).isZero();
+    }
+
+    // the striped wallet's leg as WalletService writes it
+    private void transfer(BigDecimal amount) {
+        Wallet source = walletAdapter.findByIdForUpdate(stripedId).orElseThrow();
+        Wallet target = walletAdapter.findByIdForUpdate(plainId).orElseThrow();
+        Transaction out = Transaction.builder().id(TimeOrderedUuid.generate()).wallet(source)
+                .amount(amount).type(TransactionType.TRANSFER_OUT).build();
+        Transaction in = Transaction.builder().id(TimeOrderedUuid.generate()).wallet(target)
+                .amount(amount).type(TransactionType.TRANSFER_IN).build();
+        out.linkWithRelatedTransaction(in.getId());
+        in.linkWithRelatedTransaction(out.getId());
+        source.setBalance(source.getBalance().subtract(amount));
+        target.setBalance(target.getBalance().add(amount));
+        source.recordUnsequenced(out);
+        target.record(in);
+        walletAdapter.save(source);
+        walletAdapter.save(target);
+        transactionAdapter.saveAll(List.of(out, in));
+        entityManager.flush();
+    }
+
+    private UUID wallet(String balance) {
+        UUID userId = UUID.randomUUID();
+        UUID walletId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, name, tax_id) VALUES (?, 'striped ledger', ?)",
+                userId, UUID.randomUUID().toString().substring(0, 11));
+        jdbcTemplate.update("INSERT INTO wallets (id, user_id, balance, status) VALUES (?, ?, ?, 'ACTIVE')",
+                walletId, userId, new BigDecimal(balance));
+        return walletId;
+    }
+}
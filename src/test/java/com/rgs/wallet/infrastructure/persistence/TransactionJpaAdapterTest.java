@@ -1,18 +1,33 @@
 package com.rgs.wallet.infrastructure.persistence;
 
+import com.rgs.wallet.domain.model.JournalEntry;
+import com.rgs.wallet.domain.model.JournalEntryType;
 import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionCursor;
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.TransactionType;
 import com.rgs.wallet.fixtures.TransactionFixture;
+import com.rgs.wallet.infrastructure.persistence.entity.JournalEntryEntity;
 import com.rgs.wallet.infrastructure.persistence.entity.TransactionEntity;
+import com.rgs.wallet.infrastructure.persistence.mapper.JournalEntryMapper;
 import com.rgs.wallet.infrastructure.persistence.mapper.TransactionMapper;
+import com.rgs.wallet.infrastructure.persistence.projection.TransactionRow;
+import com.rgs.wallet.infrastructure.persistence.repository.JournalPostingJpaRepository;
 import com.rgs.wallet.infrastructure.persistence.repository.TransactionJpaRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -25,12 +40,23 @@ class TransactionJpaAdapterTest {
     @Mock
     private TransactionMapper mapper;
 
+    @Mock
+    private JournalPostingJpaRepository journalPostingRepository;
+
+    @Mock
+    private JournalEntryMapper journalMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private TransactionJpaAdapter adapter;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(adapter, "batchSize", 50);
+        when(journalMapper.toEntity(any())).thenAnswer(invocation -> new JournalEntryEntity());
     }
 
     @Test
@@ -52,6 +78,55 @@ class TransactionJpaAdapterTest {
         verify(mapper).toEntity(transaction);
         verify(transactionRepository).save(entity);
         verify(mapper).toDomain(savedEntity);
+        verify(journalMapper).toEntity(any(JournalEntry.class));
+        verify(entityManager).persist(any(JournalEntryEntity.class));
+    }
+
+    @Test
+    void shouldSaveAllTransactionsInSingleRepositoryCall() {
+        Transaction out = TransactionFixture.transferOutTransaction(UUID.randomUUID());
+        Transaction in = TransactionFixture.transferInTransaction(out.getId());
+        TransactionEntity outEntity = new TransactionEntity();
+        TransactionEntity inEntity = new TransactionEntity();
+
+        when(mapper.toEntity(out)).thenReturn(outEntity);
+        when(mapper.toEntity(in)).thenReturn(inEntity);
+        when(transactionRepository.saveAll(List.of(outEntity, inEntity))).thenReturn(List.of(outEntity, inEntity));
+        when(mapper.toDomain(outEntity)).thenReturn(out);
+        when(mapper.toDomain(inEntity)).thenReturn(in);
+
+        List<Transaction> result = adapter.saveAll(List.of(out, in));
+
+        assertThat(result).containsExactly(out, in);
+        verify(transactionRepository).saveAll(List.of(outEntity, inEntity));
+        verify(transactionRepository, never()).save(any());
+        verify(entityManager, times(2)).flush();
+
+        ArgumentCaptor<JournalEntry> journal = ArgumentCaptor.forClass(JournalEntry.class);
+        verify(journalMapper).toEntity(journal.capture());
+        assertThat(journal.getValue().getType()).isEqualTo(JournalEntryType.TRANSFER);
+        assertThat(journal.getValue().getPostings()).hasSize(2);
+    }
+
+    @Test
+    void shouldFlushAndDetachEveryBatch() {
+        ReflectionTestUtils.setField(adapter, "batchSize", 2);
+        List<Transaction> transactions = List.of(
+                TransactionFixture.depositTransaction(),
+                TransactionFixture.depositTransaction(),
+                TransactionFixture.withdrawalTransaction());
+        transactions.forEach(transaction -> when(mapper.toEntity(transaction)).thenReturn(new TransactionEntity()));
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mapper.toDomain(any(TransactionEntity.class))).thenReturn(TransactionFixture.defaultTransaction());
+
+        List<Transaction> result = adapter.saveAll(transactions);
+
+        assertThat(result).hasSize(3);
+        verify(transactionRepository, times(2)).saveAll(anyList());
+        verify(entityManager, times(4)).flush();
+        verify(entityManager, times(3)).detach(any(TransactionEntity.class));
+        verify(entityManager, times(3)).persist(any(JournalEntryEntity.class));
+        verify(entityManager, times(3)).detach(any(JournalEntryEntity.class));
     }
 
     @Test
@@ -60,20 +135,74 @@ class TransactionJpaAdapterTest {
         Instant start = Instant.parse("2024-01-01T00:00:00Z");
         Instant end = Instant.parse("2025-01-01T00:00:00Z");
 
-        TransactionEntity entity = new TransactionEntity();
-        Transaction transaction = TransactionFixture.defaultTransaction();
+        TransactionRow row = new TransactionRow(UUID.randomUUID(), walletId, BigDecimal.TEN,
+                TransactionType.DEPOSIT, start, null, 1L, BigDecimal.TEN);
+        TransactionRecord transaction = TransactionFixture.depositRecord();
 
-        when(transactionRepository.findByWalletIdAndCreatedAtBetween(walletId, start, end))
-                .thenReturn(List.of(entity));
-        when(mapper.toDomain(entity)).thenReturn(transaction);
+        when(transactionRepository.findRowsByWalletIdAndPeriod(walletId, start, end))
+                .thenReturn(List.of(row));
+        when(mapper.toRecord(row)).thenReturn(transaction);
 
         // Act
-        List<Transaction> results = adapter.findByWalletIdAndPeriod(walletId, start, end);
+        List<TransactionRecord> results = adapter.findByWalletIdAndPeriod(walletId, start, end);
 
         // Assert
         assertThat(results).hasSize(1).contains(transaction);
-        verify(transactionRepository).findByWalletIdAndCreatedAtBetween(walletId, start, end);
-        verify(mapper).toDomain(entity);
+        verify(transactionRepository).findRowsByWalletIdAndPeriod(walletId, start, end);
+        verify(mapper, never()).toDomain(any());
+    }
+
+    @Test
+    void shouldHandEveryStreamedRowToActionAndCloseCursor() {
+        UUID walletId = UUID.randomUUID();
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        Instant end = Instant.parse("2025-01-01T00:00:00Z");
+        TransactionRow row = new TransactionRow(UUID.randomUUID(), walletId, BigDecimal.TEN,
+                TransactionType.DEPOSIT, start, null, 1L, BigDecimal.TEN);
+        TransactionRecord record = TransactionRecord.builder().id(row.id()).walletId(walletId).build();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        when(transactionRepository.streamByWalletIdAndPeriod(walletId, start, end))
+                .thenReturn(Stream.of(row).onClose(() -> closed.set(true)));
+        when(mapper.toRecord(row)).thenReturn(record);
+
+        List<TransactionRecord> exported = new ArrayList<>();
+        adapter.forEachInPeriod(walletId, start, end, exported::add);
+
+        assertThat(exported).containsExactly(record);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void shouldSeekPastCursorWithTypeFilter() {
+        UUID walletId = UUID.randomUUID();
+        TransactionCursor after = TransactionCursor.builder()
+                .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .id(UUID.randomUUID())
+                .build();
+        TransactionRow row = new TransactionRow(UUID.randomUUID(), walletId, BigDecimal.ONE,
+                TransactionType.WITHDRAWAL, after.getCreatedAt(), null, 2L, BigDecimal.ZERO);
+        TransactionRecord transaction = TransactionFixture.withdrawalRecord();
+
+        when(transactionRepository.findPageAfter(walletId, TransactionType.WITHDRAWAL, after.getCreatedAt(),
+                after.getId(), PageRequest.ofSize(51)))
+                .thenReturn(List.of(row));
+        when(mapper.toRecord(row)).thenReturn(transaction);
+
+        List<TransactionRecord> results = adapter.findPage(walletId, after, TransactionType.WITHDRAWAL, 51);
+
+        assertThat(results).containsExactly(transaction);
+        verify(transactionRepository, never()).findFirstPage(any(), any(), any());
+    }
+
+    @Test
+    void shouldReadFirstPageWithoutCursor() {
+        UUID walletId = UUID.randomUUID();
+
+        when(transactionRepository.findFirstPage(walletId, null, PageRequest.ofSize(51))).thenReturn(List.of());
+
+        assertThat(adapter.findPage(walletId, null, null, 51)).isEmpty();
+        verify(transactionRepository, never()).findPageAfter(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -82,11 +211,25 @@ class TransactionJpaAdapterTest {
         Instant timestamp = Instant.now();
         BigDecimal expected = new BigDecimal("123.45");
 
-        when(transactionRepository.calculateBalanceUpTo(walletId, timestamp)).thenReturn(expected);
+        when(journalPostingRepository.balanceUpTo(walletId, timestamp)).thenReturn(expected);
 
         BigDecimal result = adapter.calculateBalanceUpTo(walletId, timestamp);
 
         assertThat(result).isEqualTo(expected);
-        verify(transactionRepository).calculateBalanceUpTo(walletId, timestamp);
+        verify(journalPostingRepository).balanceUpTo(walletId, timestamp);
+    }
+
+    @Test
+    void shouldResolveLastLedgerRowUpToTimestamp() {
+        UUID walletId = UUID.randomUUID();
+        Instant timestamp = Instant.now();
+        TransactionRow row = new TransactionRow(UUID.randomUUID(), walletId, BigDecimal.TEN, TransactionType.DEPOSIT,
+                timestamp, null, 3L, new BigDecimal("30.00"));
+        TransactionRecord record = TransactionFixture.depositRecord();
+
+        when(transactionRepository.findLatestUpTo(walletId, timestamp, PageRequest.ofSize(1))).thenReturn(List.of(row));
+        when(mapper.toRecord(row)).thenReturn(record);
+
+        assertThat(adapter.findLastUpTo(walletId, timestamp)).contains(record);
     }
 }
@@ -0,0 +1,220 @@
+package com.rgs.wallet.infrastructure.persistence;
+
+import com.rgs.wallet.domain.model.TransactionCursor;
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.infrastructure.persistence.mapper.JournalEntryMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.TransactionMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.UserMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.WalletMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans of the statements Hibernate sends for the wallet/time-bounded reads, on a few hundred thousand
+ * seeded ledger rows. The journal sum is answered from idx_journal_postings_account_created_at alone. The
+ * transaction reads return whole rows, whose id and related_transaction_id are not in
+ * idx_transactions_wallet_created_at: they seek on it and fetch only the matching rows from the table.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.rgs.wallet.infrastructure.persistence.TransactionQueryPlanTest$CapturedStatements")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TransactionJpaAdapter.class, TransactionMapper.class, WalletMapper.class, UserMapper.class,
+        JournalEntryMapper.class})
+class TransactionQueryPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17");
+
+    private static final int WALLETS = 500;
+    private static final int TRANSACTIONS_PER_WALLET = 400;
+    private static final Instant FROM = Instant.parse("2024-01-03T00:00:00Z");
+    private static final Instant TO = Instant.parse("2024-01-05T00:00:00Z");
+
+    private static UUID walletId;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TransactionJpaAdapter adapter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seedOnce() {
+        if (walletId == null) {
+            jdbcTemplate.execute("""
+                    INSERT INTO users (id, name, tax_id)
+                    SELECT gen_random_uuid(), 'user ' || g, lpad(g::text, 11, '0')
+                    FROM generate_series(1, %d) g
+                    """.formatted(WALLETS));
+            jdbcTemplate.execute("INSERT INTO wallets (user_id, balance) SELECT id, 0 FROM users");
+            jdbcTemplate.execute("""
+                    INSERT INTO transactions (id, wallet_id, amount, type, created_at, sequence, balance_after)
+                    SELECT gen_random_uuid(), w.id, 1.00, 'DEPOSIT',
+                           timestamp '2024-01-01' + g * interval '1 hour', g, g
+                    FROM wallets w, generate_series(1, %d) g
+                    """.formatted(TRANSACTIONS_PER_WALLET));
+            jdbcTemplate.execute("""
+                    CREATE TEMP TABLE seeded AS
+                    SELECT gen_random_uuid() AS entry_id, wallet_id, amount, created_at FROM transactions
+                    """);
+            jdbcTemplate.execute("INSERT INTO journal_entries (id, entry_type, created_at) SELECT entry_id, 'DEPOSIT', created_at FROM seeded");
+            jdbcTemplate.execute("""
+                    INSERT INTO journal_postings (journal_entry_id, account_id, amount, created_at)
+                    SELECT entry_id, wallet_id, amount, created_at FROM seeded
+                    UNION ALL
+                    SELECT entry_id, '00000000-0000-0000-0000-000000000001', -amount, created_at FROM seeded
+                    """);
+            // index-only scans need an up-to-date visibility map
+            jdbcTemplate.execute("VACUUM ANALYZE transactions");
+            jdbcTemplate.execute("VACUUM ANALYZE journal_postings");
+            walletId = jdbcTemplate.queryForObject("SELECT id FROM wallets LIMIT 1", UUID.class);
+        }
+        CapturedStatements.SQL.clear();
+    }
+
+    @Test
+    void shouldListPeriodFromCompositeIndex() {
+        adapter.findByWalletIdAndPeriod(walletId, FROM, TO);
+
+        List<String> plan = explainCaptured("uuid, timestamp, timestamp", walletId, FROM, TO);
+
+        assertThat(plan).anyMatch(line -> line.contains("Index Scan") && line.contains("idx_transactions_wallet_created_at"));
+        assertThat(plan).anyMatch(line -> line.contains("Index Cond") && line.contains("created_at <="));
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+    }
+
+    @Test
+    void shouldStreamPeriodFromCompositeIndex() {
+        transactionTemplate.executeWithoutResult(status -> adapter.forEachInPeriod(walletId, FROM, TO, row -> { }));
+
+        List<String> plan = explainCaptured("uuid, timestamp, timestamp", walletId, FROM, TO);
+
+        assertThat(plan).anyMatch(line -> line.contains("Index Scan") && line.contains("idx_transactions_wallet_created_at"));
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+    }
+
+    @Test
+    void shouldPageFromCompositeIndex() {
+        List<TransactionRecord> first = adapter.findPage(walletId, null, null, 51);
+        List<String> firstPage = explainCaptured("uuid, varchar, varchar, int4", walletId, null, null, 51);
+
+        TransactionCursor cursor = TransactionCursor.of(first.get(first.size() - 1));
+        adapter.findPage(walletId, cursor, null, 51);
+        List<String> nextPage = explainCaptured("uuid, varchar, varchar, timestamp, timestamp, uuid, int4",
+                walletId, null, null, cursor.getCreatedAt(), cursor.getCreatedAt(), cursor.getId(), 51);
+
+        // the index returns rows newest first; only ties on created_at are sorted by id
+        assertThat(firstPage).anyMatch(line -> line.contains("Index Scan Backward using idx_transactions_wallet_created_at"));
+        assertThat(firstPage).anyMatch(line -> line.contains("Presorted Key: created_at"));
+        assertThat(nextPage).anyMatch(line -> line.contains("Index Scan Backward using idx_transactions_wallet_created_at"));
+        assertThat(nextPage).anyMatch(line -> line.contains("Index Cond") && line.contains("created_at <="));
+        assertThat(nextPage).anyMatch(line -> line.contains("Presorted Key: created_at"));
+    }
+
+    @Test
+    void shouldFindRunningBalanceFromCompositeIndex() {
+        adapter.findLastUpTo(walletId, TO);
+
+        List<String> plan = explainCaptured("uuid, timestamp, int4", walletId, TO, 1);
+
+        assertThat(plan).anyMatch(line -> line.contains("Index Scan Backward using idx_transactions_wallet_created_at"));
+        assertThat(plan).noneMatch(line -> line.contains("Sort"));
+    }
+
+    @Test
+    void shouldSumJournalFromIndexOnly() {
+        adapter.calculateBalanceUpTo(walletId, TO);
+
+        List<String> plan = explainCaptured("uuid, timestamp, uuid, timestamp", walletId, TO, walletId, TO);
+
+        assertThat(plan).anyMatch(line -> line.contains("Index Only Scan using idx_journal_postings_account_created_at"));
+    }
+
+    /**
+     * Plan of the one statement the adapter call sent, prepared with the given parameter types and executed
+     * with the values the adapter bound, in placeholder order.
+     */
+    private List<String> explainCaptured(String types, Object... values) {
+        assertThat(CapturedStatements.SQL).hasSize(1);
+        Matcher placeholders = Pattern.compile("\\?").matcher(CapturedStatements.SQL.remove(0));
+        StringBuilder sql = new StringBuilder();
+        int parameter = 0;
+        while (placeholders.find()) {
+            placeholders.appendReplacement(sql, "\\$" + ++parameter);
+        }
+        placeholders.appendTail(sql);
+        String arguments = Arrays.stream(values).map(TransactionQueryPlanTest::literal).collect(Collectors.joining(", "));
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PREPARE captured(" + types + ") AS " + sql);
+                List<String> plan = new ArrayList<>();
+                try (ResultSet rs = statement.executeQuery("EXPLAIN EXECUTE captured(" + arguments + ")")) {
+                    while (rs.next()) {
+                        plan.add(rs.getString(1));
+                    }
+                }
+                statement.execute("DEALLOCATE captured");
+                return plan;
+            }
+        });
+    }
+
+    private static String literal(Object value) {
+        if (value == null) return "NULL";
+        if (value instanceof Number) return value.toString();
+        if (value instanceof Instant instant) return "'" + Timestamp.from(instant) + "'";
+        return "'" + value + "'";
+    }
+
+    public static class CapturedStatements implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.rgs.wallet.infrastructure.persistence;
+
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.infrastructure.persistence.mapper.JournalEntryMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.TransactionMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.UserMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.WalletMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listing transactions must cost one statement however many rows come back: no wallet or user is
+ * loaded per row.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TransactionJpaAdapter.class, TransactionMapper.class, WalletMapper.class, UserMapper.class,
+        JournalEntryMapper.class})
+class TransactionReadStatementCountTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17");
+
+    private static final int TRANSACTIONS = 1_000;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private TransactionJpaAdapter adapter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID walletId;
+
+    @BeforeEach
+    void seed() {
+        UUID userId = UUID.randomUUID();
+        walletId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, name, tax_id) VALUES (?, 'statement count', ?)",
+                userId, UUID.randomUUID().toString().substring(0, 11));
+        jdbcTemplate.update("INSERT INTO wallets (id, user_id, balance) VALUES (?, ?, 0)", walletId, userId);
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, wallet_id, amount, type, created_at, sequence, balance_after)
+                SELECT gen_random_uuid(), ?, 1.00, 'DEPOSIT', timestamp '2024-01-01' + g * interval '1 minute', g, g
+                FROM generate_series(1, ?) g
+                """, walletId, TRANSACTIONS);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldListPeriodWithSingleStatement() {
+        List<TransactionRecord> transactions = adapter.findByWalletIdAndPeriod(walletId,
+                Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-02-01T00:00:00Z"));
+
+        assertThat(transactions).hasSize(TRANSACTIONS).allMatch(transaction -> walletId.equals(transaction.getWalletId()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void shouldPageWithSingleStatement() {
+        List<TransactionRecord> page = adapter.findPage(walletId, null, null, TRANSACTIONS);
+
+        assertThat(page).hasSize(TRANSACTIONS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
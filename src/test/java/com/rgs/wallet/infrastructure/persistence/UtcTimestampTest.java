@@ -0,0 +1,151 @@
+package com.rgs.wallet.infrastructure.persistence;
+
+import com.rgs.wallet.domain.model.Transaction;
+import com.rgs.wallet.domain.model.TransactionRecord;
+import com.rgs.wallet.domain.model.TransactionType;
+import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.utils.TimeOrderedUuid;
+import com.rgs.wallet.infrastructure.persistence.mapper.JournalEntryMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.TransactionMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.UserMapper;
+import com.rgs.wallet.infrastructure.persistence.mapper.WalletMapper;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With the JVM in a zone other than UTC, timestamps written through JPA and by SQL clock functions are
+ * stored as UTC and read back unchanged over both JDBC and R2DBC.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(R2dbcAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DataSourceConfig.class, WalletJpaAdapter.class, TransactionJpaAdapter.class, WalletMapper.class,
+        TransactionMapper.class, UserMapper.class, JournalEntryMapper.class})
+class UtcTimestampTest {
+
+    private static final TimeZone DEFAULT_ZONE = TimeZone.getDefault();
+
+    static {
+        // UTC-3 all year: off by three hours wherever a zone is taken from the JVM
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+    }
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + POSTGRES.getHost() + ":"
+                + POSTGRES.getFirstMappedPort() + "/" + POSTGRES.getDatabaseName());
+        registry.add("spring.r2dbc.username", POSTGRES::getUsername);
+        registry.add("spring.r2dbc.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private WalletJpaAdapter walletAdapter;
+
+    @Autowired
+    private TransactionJpaAdapter transactionAdapter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    private DatabaseClient databaseClient;
+    private WalletR2dbcAdapter readAdapter;
+    private UUID walletId;
+
+    @AfterAll
+    static void restoreZone() {
+        TimeZone.setDefault(DEFAULT_ZONE);
+    }
+
+    @BeforeEach
+    void seed() {
+        databaseClient = DatabaseClient.create(connectionFactory);
+        readAdapter = new WalletR2dbcAdapter(databaseClient);
+        UUID userId = UUID.randomUUID();
+        walletId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, name, tax_id) VALUES (?, 'utc timestamps', ?)",
+                userId, UUID.randomUUID().toString().substring(0, 11));
+        jdbcTemplate.update("INSERT INTO wallets (id, user_id, balance, status) VALUES (?, ?, 0, 'ACTIVE')",
+                walletId, userId);
+    }
+
+    @Test
+    void shouldOpenSessionsInUtc() {
+        assertThat(jdbcTemplate.queryForObject("SHOW TimeZone", String.class)).isEqualTo("UTC");
+        assertThat(databaseClient.sql("SHOW TimeZone").map(row -> row.get(0, String.class)).one().block())
+                .isEqualTo("UTC");
+    }
+
+    @Test
+    void shouldStoreInstantWrittenThroughJpaAsUtc() {
+        Instant at = Instant.parse("2024-06-01T12:00:00.123456Z");
+        transactionTemplate.executeWithoutResult(status -> {
+            Wallet wallet = walletAdapter.findById(walletId).orElseThrow();
+            transactionAdapter.save(Transaction.builder().id(TimeOrderedUuid.generate()).wallet(wallet)
+                    .amount(BigDecimal.TEN).type(TransactionType.DEPOSIT).createdAt(at).build());
+        });
+
+        List<TransactionRecord> overR2dbc = readAdapter.findByWalletIdAndPeriod(walletId, at, at).collectList().block();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT created_at::text FROM transactions WHERE wallet_id = ?", String.class, walletId))
+                .isEqualTo("2024-06-01 12:00:00.123456");
+        assertThat(transactionAdapter.findByWalletIdAndPeriod(walletId, at, at))
+                .extracting(TransactionRecord::getCreatedAt).containsExactly(at);
+        assertThat(overR2dbc).extracting(TransactionRecord::getCreatedAt).containsExactly(at);
+    }
+
+    @Test
+    void shouldStampSqlWritesInUtc() {
+        Instant before = Instant.now();
+        transactionTemplate.executeWithoutResult(status ->
+                walletAdapter.applyBalanceDelta(walletId, BigDecimal.TEN, TransactionType.DEPOSIT));
+        Instant after = Instant.now();
+
+        Wallet wallet = readAdapter.findById(walletId).block();
+        List<TransactionRecord> ledger = readAdapter
+                .findByWalletIdAndPeriod(walletId, before.minusSeconds(5), after.plusSeconds(5)).collectList().block();
+
+        assertThat(wallet.getUpdatedAt()).isBetween(before.minusSeconds(5), after.plusSeconds(5));
+        assertThat(ledger).hasSize(1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.rgs.wallet.infrastructure.persistence;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import com.rgs.wallet.domain.model.WalletCommand;
+import com.rgs.wallet.domain.model.WalletCommandStatus;
+import com.rgs.wallet.infrastructure.persistence.entity.WalletCommandEntity;
+import com.rgs.wallet.infrastructure.persistence.mapper.WalletCommandMapper;
+import com.rgs.wallet.infrastructure.persistence.repository.WalletCommandJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class WalletCommandJpaAdapterTest {
+
+    @Mock
+    private WalletCommandJpaRepository commandRepository;
+
+    @Mock
+    private WalletCommandMapper mapper;
+
+    @InjectMocks
+    private WalletCommandJpaAdapter adapter;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldInsertIfAbsentAndReturnStoredCommand() {
+        UUID walletId = UUID.randomUUID();
+        WalletCommand submitted = WalletCommand.deposit(UUID.randomUUID(), walletId, BigDecimal.TEN);
+        WalletCommandEntity stored = new WalletCommandEntity();
+        WalletCommand existing = WalletCommand.deposit(submitted.getId(), walletId, BigDecimal.TEN);
+        existing.setStatus(WalletCommandStatus.COMPLETED);
+
+        when(commandRepository.findById(submitted.getId())).thenReturn(Optional.of(stored));
+        when(mapper.toDomain(stored)).thenReturn(existing);
+
+        WalletCommand result = adapter.enqueue(submitted);
+
+        assertThat(result).isSameAs(existing);
+        verify(commandRepository).insertIfAbsent(submitted.getId(), "DEPOSIT", walletId, null, BigDecimal.TEN);
+    }
+
+    @Test
+    void shouldMapClaimedBatch() {
+        WalletCommandEntity entity = new WalletCommandEntity();
+        WalletCommand command = WalletCommand.deposit(UUID.randomUUID(), UUID.randomUUID(), BigDecimal.ONE);
+        when(commandRepository.claimBatch(50, 60L)).thenReturn(List.of(entity));
+        when(mapper.toDomain(entity)).thenReturn(command);
+
+        assertThat(adapter.claimBatch(50, 60L)).containsExactly(command);
+    }
+
+    @Test
+    void shouldRecordTerminalAndRetryStatuses() {
+        UUID commandId = UUID.randomUUID();
+        when(commandRepository.updateStatus(commandId, WalletCommandStatus.COMPLETED, null)).thenReturn(1, 0);
+
+        assertThat(adapter.markCompleted(commandId)).isTrue();
+        assertThat(adapter.markCompleted(commandId)).isFalse();
+        adapter.markFailed(commandId, ErrorCodeEnum.WS400002);
+        adapter.release(commandId);
+
+        verify(commandRepository, times(2)).updateStatus(commandId, WalletCommandStatus.COMPLETED, null);
+        verify(commandRepository).updateStatus(commandId, WalletCommandStatus.FAILED, ErrorCodeEnum.WS400002);
+        verify(commandRepository).updateStatus(commandId, WalletCommandStatus.PENDING, null);
+    }
+}
@@ -1,20 +1,31 @@
 package com.rgs.wallet.infrastructure.persistence;
 
+import com.rgs.wallet.domain.model.JournalEntry;
+import com.rgs.wallet.domain.model.TransactionType;
 import com.rgs.wallet.domain.model.User;
 import com.rgs.wallet.domain.model.Wallet;
+import com.rgs.wallet.domain.model.WalletBalance;
 import com.rgs.wallet.fixtures.UserFixture;
 import com.rgs.wallet.fixtures.WalletFixture;
 import com.rgs.wallet.infrastructure.persistence.entity.WalletEntity;
 import com.rgs.wallet.infrastructure.persistence.mapper.WalletMapper;
+import com.rgs.wallet.infrastructure.persistence.projection.BalanceRow;
 import com.rgs.wallet.infrastructure.persistence.repository.WalletJpaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -82,6 +93,58 @@ class WalletJpaAdapterTest {
         verify(mapper, never()).toDomain(any());
     }
 
+    @Test
+    void shouldReadBalanceWithoutMappingWallet() {
+        UUID walletId = UUID.randomUUID();
+
+        when(walletRepository.findBalanceById(walletId)).thenReturn(Optional.of(balanceRow("42.00", 9L)));
+
+        WalletBalance balance = adapter.findBalance(walletId).orElseThrow();
+        assertThat(balance.getBalance()).isEqualByComparingTo("42.00");
+        assertThat(balance.getSequence()).isEqualTo(9L);
+        assertThat(balance.getUpdatedAt()).isEqualTo(ROW_UPDATED_AT);
+        verify(walletRepository, never()).findById(any());
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void shouldLockWalletsInSingleQuery() {
+        UUID firstId = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+        UUID secondId = UUID.fromString("f0000000-0000-0000-0000-000000000000");
+        WalletEntity first = new WalletEntity();
+        WalletEntity second = new WalletEntity();
+        Wallet firstWallet = WalletFixture.defaultWallet();
+        Wallet secondWallet = WalletFixture.defaultWallet();
+
+        when(walletRepository.findAllByIdInOrderByIdWithLock(List.of(firstId, secondId)))
+                .thenReturn(List.of(first, second));
+        when(mapper.toDomain(first)).thenReturn(firstWallet);
+        when(mapper.toDomain(second)).thenReturn(secondWallet);
+
+        List<Wallet> result = adapter.findAllByIdForUpdate(List.of(secondId, firstId));
+
+        assertThat(result).containsExactly(firstWallet, secondWallet);
+        verify(walletRepository).findAllByIdInOrderByIdWithLock(List.of(firstId, secondId));
+        verify(walletRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldLockLargeWalletSetsInOrderedChunks() {
+        List<UUID> walletIds = IntStream.range(0, 1_500)
+                .mapToObj(i -> UUID.randomUUID())
+                .toList();
+        when(walletRepository.findAllByIdInOrderByIdWithLock(anyCollection())).thenReturn(List.of());
+
+        adapter.findAllByIdForUpdate(walletIds);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UUID>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(walletRepository, times(2)).findAllByIdInOrderByIdWithLock(chunks.capture());
+        List<UUID> lockOrder = chunks.getAllValues().stream().flatMap(Collection::stream).toList();
+        assertThat(lockOrder).hasSize(1_500);
+        assertThat(lockOrder).isSortedAccordingTo(Comparator.comparing(UUID::toString));
+    }
+
     @Test
     void shouldReturnTrueIfWalletExistsByUser() {
         User user = UserFixture.createUser(UUID.randomUUID());
@@ -106,4 +169,110 @@ class WalletJpaAdapterTest {
         assertThat(exists).isFalse();
         verify(walletRepository).findByUserId(user.getId());
     }
+
+    @Test
+    void shouldApplyBalanceDeltaWithAbsoluteLedgerAmount() {
+        UUID walletId = UUID.randomUUID();
+        BigDecimal delta = new BigDecimal("-25.00");
+
+        when(walletRepository.applyBalanceDelta(
+                any(UUID.class), any(UUID.class), eq(JournalEntry.EXTERNAL_CLEARING_ACCOUNT), eq(walletId), eq(delta), eq(new BigDecimal("25.00")), eq("WITHDRAWAL"), eq(true)))
+                .thenReturn(Optional.of(balanceRow("75.00", 5L)));
+
+        Optional<WalletBalance> result = adapter.applyBalanceDelta(walletId, delta, TransactionType.WITHDRAWAL);
+
+        assertThat(result).get().extracting(WalletBalance::getBalance).isEqualTo(new BigDecimal("75.00"));
+        assertThat(result).get().extracting(WalletBalance::getSequence).isEqualTo(5L);
+        verify(walletRepository).applyBalanceDelta(
+                any(UUID.class), any(UUID.class), eq(JournalEntry.EXTERNAL_CLEARING_ACCOUNT), eq(walletId), eq(delta), eq(new BigDecimal("25.00")), eq("WITHDRAWAL"), eq(true));
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void shouldApplyStripedWalletDeltaWithoutRunningBalance() {
+        UUID walletId = UUID.randomUUID();
+        BigDecimal delta = new BigDecimal("-25.00");
+
+        when(walletRepository.applyBalanceDelta(
+                any(UUID.class), any(UUID.class), eq(JournalEntry.EXTERNAL_CLEARING_ACCOUNT), eq(walletId), eq(delta), eq(new BigDecimal("25.00")), eq("WITHDRAWAL"), eq(false)))
+                .thenReturn(Optional.of(balanceRow("75.00", null)));
+
+        Optional<BigDecimal> result = adapter.applyStripedWalletDelta(walletId, delta, TransactionType.WITHDRAWAL);
+
+        assertThat(result).contains(new BigDecimal("75.00"));
+    }
+
+    @Test
+    void shouldReturnEmptyWhenBalanceDeltaIsRejected() {
+        UUID walletId = UUID.randomUUID();
+        BigDecimal delta = new BigDecimal("-500.00");
+
+        when(walletRepository.applyBalanceDelta(
+                any(UUID.class), any(UUID.class), eq(JournalEntry.EXTERNAL_CLEARING_ACCOUNT), eq(walletId), eq(delta), eq(new BigDecimal("500.00")), eq("WITHDRAWAL"), eq(true)))
+                .thenReturn(Optional.empty());
+
+        Optional<WalletBalance> result = adapter.applyBalanceDelta(walletId, delta, TransactionType.WITHDRAWAL);
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void shouldUpsertStripeForCredits() {
+        UUID walletId = UUID.randomUUID();
+        BigDecimal delta = new BigDecimal("10.00");
+
+        when(walletRepository.creditBalanceStripe(
+                any(UUID.class), any(UUID.class), eq(JournalEntry.EXTERNAL_CLEARING_ACCOUNT), eq(walletId), eq((short) 2), eq(delta), eq(delta), eq("DEPOSIT")))
+                .thenReturn(Optional.of(balanceRow("30.00", null)));
+
+        Optional<BigDecimal> result = adapter.applyStripeDelta(walletId, 2, delta, TransactionType.DEPOSIT);
+
+        assertThat(result).contains(new BigDecimal("30.00"));
+        verify(walletRepository, never()).debitBalanceStripe(any(), any(), any(), any(), anyShort(), any(), any(), any());
+    }
+
+    @Test
+    void shouldDebitStripeWithAbsoluteLedgerAmount() {
+        UUID walletId = UUID.randomUUID();
+        BigDecimal delta = new BigDecimal("-10.00");
+
+        when(walletRepository.debitBalanceStripe(
+                any(UUID.class), any(UUID.class), eq(JournalEntry.EXTERNAL_CLEARING_ACCOUNT), eq(walletId), eq((short) 0), eq(delta), eq(new BigDecimal("10.00")), eq("WITHDRAWAL")))
+                .thenReturn(Optional.empty());
+
+        Optional<BigDecimal> result = adapter.applyStripeDelta(walletId, 0, delta, TransactionType.WITHDRAWAL);
+
+        assertThat(result).isEmpty();
+        verify(walletRepository, never()).creditBalanceStripe(any(), any(), any(), any(), anyShort(), any(), any(), any());
+    }
+
+    @Test
+    void shouldReportWhetherStripesWereFolded() {
+        UUID walletId = UUID.randomUUID();
+        when(walletRepository.foldBalanceStripes(walletId)).thenReturn(1, 0);
+
+        assertThat(adapter.foldBalanceStripes(walletId)).isTrue();
+        assertThat(adapter.foldBalanceStripes(walletId)).isFalse();
+    }
+
+    private static final Instant ROW_UPDATED_AT = Instant.parse("2025-03-01T12:00:00Z");
+
+    private static BalanceRow balanceRow(String balance, Long sequence) {
+        return new BalanceRow() {
+            @Override
+            public BigDecimal getBalance() {
+                return new BigDecimal(balance);
+            }
+
+            @Override
+            public Long getSequence() {
+                return sequence;
+            }
+
+            @Override
+            public Instant getUpdatedAt() {
+                return sequence == null ? null : ROW_UPDATED_AT;
+            }
+        };
+    }
 }
@@ -0,0 +1,65 @@
+package com.rgs.wallet.infrastructure.persistence.mapper;
+
+import com.rgs.wallet.domain.model.JournalEntry;
+import com.rgs.wallet.domain.model.JournalEntryType;
+import com.rgs.wallet.domain.model.JournalPosting;
+import com.rgs.wallet.infrastructure.persistence.entity.JournalEntryEntity;
+import com.rgs.wallet.infrastructure.persistence.entity.JournalPostingEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class JournalEntryMapperTest {
+
+    private final JournalEntryMapper journalEntryMapper = new JournalEntryMapper();
+
+    @Test
+    void testToEntity() {
+        UUID entryId = UUID.randomUUID();
+        UUID walletId = UUID.randomUUID();
+        UUID transactionId = UUID.randomUUID();
+        Instant createdAt = Instant.now();
+
+        JournalEntry entry = JournalEntry.builder()
+                .id(entryId)
+                .type(JournalEntryType.DEPOSIT)
+                .createdAt(createdAt)
+                .postings(List.of(
+                        JournalPosting.builder()
+                                .id(UUID.randomUUID())
+                                .accountId(walletId)
+                                .transactionId(transactionId)
+                                .amount(BigDecimal.TEN)
+                                .createdAt(createdAt)
+                                .build(),
+                        JournalPosting.builder()
+                                .id(UUID.randomUUID())
+                                .accountId(JournalEntry.EXTERNAL_CLEARING_ACCOUNT)
+                                .transactionId(transactionId)
+                                .amount(BigDecimal.TEN.negate())
+                                .createdAt(createdAt)
+                                .build()))
+                .build();
+
+        JournalEntryEntity entity = journalEntryMapper.toEntity(entry);
+
+        assertEquals(entryId, entity.getId());
+        assertEquals(JournalEntryType.DEPOSIT, entity.getType());
+        assertEquals(createdAt, entity.getCreatedAt());
+        assertEquals(2, entity.getPostings().size());
+
+        JournalPostingEntity walletPosting = entity.getPostings().get(0);
+        assertSame(entity, walletPosting.getJournalEntry());
+        assertEquals(walletId, walletPosting.getAccountId());
+        assertEquals(transactionId, walletPosting.getTransactionId());
+        assertEquals(BigDecimal.TEN, walletPosting.getAmount());
+        assertEquals(createdAt, walletPosting.getCreatedAt());
+        assertEquals(JournalEntry.EXTERNAL_CLEARING_ACCOUNT, entity.getPostings().get(1).getAccountId());
+    }
+}
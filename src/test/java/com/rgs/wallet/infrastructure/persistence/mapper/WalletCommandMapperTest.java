@@ -0,0 +1,48 @@
+package com.rgs.wallet.infrastructure.persistence.mapper;
+
+import com.rgs.wallet.domain.enums.ErrorCodeEnum;
+import com.rgs.wallet.domain.model.WalletCommand;
+import com.rgs.wallet.domain.model.WalletCommandStatus;
+import com.rgs.wallet.domain.model.WalletCommandType;
+import com.rgs.wallet.infrastructure.persistence.entity.WalletCommandEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WalletCommandMapperTest {
+
+    private final WalletCommandMapper walletCommandMapper = new WalletCommandMapper();
+
+    @Test
+    void testToDomain() {
+        Instant now = Instant.now();
+        WalletCommandEntity entity = WalletCommandEntity.builder()
+                .id(UUID.randomUUID())
+                .type(WalletCommandType.TRANSFER)
+                .walletId(UUID.randomUUID())
+                .targetWalletId(UUID.randomUUID())
+                .amount(BigDecimal.TEN)
+                .status(WalletCommandStatus.FAILED)
+                .errorCode(ErrorCodeEnum.WS400002)
+                .attempts(2)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        WalletCommand command = walletCommandMapper.toDomain(entity);
+
+        assertEquals(entity.getId(), command.getId());
+        assertEquals(WalletCommandType.TRANSFER, command.getType());
+        assertEquals(entity.getWalletId(), command.getWalletId());
+        assertEquals(entity.getTargetWalletId(), command.getTargetWalletId());
+        assertEquals(BigDecimal.TEN, command.getAmount());
+        assertEquals(WalletCommandStatus.FAILED, command.getStatus());
+        assertEquals(ErrorCodeEnum.WS400002, command.getErrorCode());
+        assertEquals(2, command.getAttempts());
+        assertEquals(now, command.getUpdatedAt());
+    }
+}
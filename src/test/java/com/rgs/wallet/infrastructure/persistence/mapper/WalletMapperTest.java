@@ -40,6 +40,9 @@ class WalletMapperTest {
                 .status(com.rgs.wallet.domain.model.WalletStatus.ACTIVE)
                 .createdAt(now)
                 .updatedAt(now)
+                .version(3L)
+                .ledgerAt(now.minusSeconds(60))
+                .nextLedgerAt(now)
                 .build();
 
         User userDomain = User.builder().id(userId).build();
@@ -54,6 +57,8 @@ class WalletMapperTest {
         assertEquals(com.rgs.wallet.domain.model.WalletStatus.ACTIVE, wallet.getStatus());
         assertEquals(now, wallet.getCreatedAt());
         assertEquals(now, wallet.getUpdatedAt());
+        assertEquals(3L, wallet.getVersion());
+        assertEquals(now, wallet.getLedgerAt());
 
         verify(userMapper).toDomain(userEntity);
     }
@@ -72,6 +77,8 @@ class WalletMapperTest {
                 .status(com.rgs.wallet.domain.model.WalletStatus.ACTIVE)
                 .createdAt(now)
                 .updatedAt(now)
+                .version(3L)
+                .ledgerAt(now)
                 .build();
 
         UserEntity userEntity = UserEntity.builder().id(userId).build();
@@ -86,6 +93,8 @@ class WalletMapperTest {
         assertEquals(com.rgs.wallet.domain.model.WalletStatus.ACTIVE, entity.getStatus());
         assertEquals(now, entity.getCreatedAt());
         assertEquals(now, entity.getUpdatedAt());
+        assertEquals(3L, entity.getVersion());
+        assertEquals(now, entity.getLedgerAt());
 
         verify(userMapper).toEntity(userDomain);
     }
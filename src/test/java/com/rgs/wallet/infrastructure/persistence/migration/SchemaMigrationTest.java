@@ -0,0 +1,139 @@
+package com.rgs.wallet.infrastructure.persistence.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applies the migrations to an empty Postgres and to a database created by the original init script. The
+ * plans of the reads the indexes serve are checked against the statements Hibernate sends, in
+ * TransactionQueryPlanTest.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17");
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+    }
+
+    @Test
+    void shouldBringDatabaseCreatedByInitScriptUpToDate() throws Exception {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE legacy");
+        }
+        String url = POSTGRES.getJdbcUrl().replace("/" + POSTGRES.getDatabaseName(), "/legacy");
+        try (InputStream initScript = SchemaMigrationTest.class.getResourceAsStream("/db/migration/V1__baseline.sql");
+             Connection connection = DriverManager.getConnection(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute(new String(initScript.readAllBytes(), StandardCharsets.UTF_8));
+            statement.execute("""
+                    INSERT INTO users (id, name, tax_id) VALUES
+                        ('00000000-0000-0000-0000-0000000000a1', 'legacy a', '1'),
+                        ('00000000-0000-0000-0000-0000000000b1', 'legacy b', '2');
+                    INSERT INTO wallets (id, user_id, balance) VALUES
+                        ('00000000-0000-0000-0000-0000000000a2', '00000000-0000-0000-0000-0000000000a1', 50.00),
+                        ('00000000-0000-0000-0000-0000000000b2', '00000000-0000-0000-0000-0000000000b1', 20.00);
+                    INSERT INTO transactions (id, wallet_id, amount, type, related_transaction_id, created_at) VALUES
+                        ('00000000-0000-0000-0000-000000000001', '00000000-0000-0000-0000-0000000000a2', 100.00, 'DEPOSIT', NULL, '2025-01-01 10:00'),
+                        ('00000000-0000-0000-0000-000000000002', '00000000-0000-0000-0000-0000000000a2', 30.00, 'WITHDRAWAL', NULL, '2025-01-02 10:00'),
+                        ('00000000-0000-0000-0000-000000000003', '00000000-0000-0000-0000-0000000000a2', 20.00, 'TRANSFER_OUT',
+                         '00000000-0000-0000-0000-000000000004', '2025-01-03 10:00'),
+                        ('00000000-0000-0000-0000-000000000004', '00000000-0000-0000-0000-0000000000b2', 20.00, 'TRANSFER_IN',
+                         '00000000-0000-0000-0000-000000000003', '2025-01-03 10:00');
+                    """);
+        }
+
+        Flyway.configure()
+                .dataSource(url, POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+
+        List<String> columns = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT table_name || '.' || column_name FROM information_schema.columns WHERE table_schema = 'public'")) {
+            while (rs.next()) {
+                columns.add(rs.getString(1));
+            }
+        }
+        assertThat(columns).contains("wallets.version", "wallets.ledger_sequence", "wallets.ledger_at",
+                "transactions.sequence", "transactions.balance_after", "journal_postings.amount",
+                "wallet_balance_stripes.balance", "wallet_balance_checkpoints.balance", "wallet_commands.status");
+
+        List<String> journal = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url, POSTGRES.getUsername(), POSTGRES.getPassword());
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     SELECT account_id || '=' || SUM(amount) FROM journal_postings
+                     WHERE created_at <= '2025-01-02 12:00' OR account_id = '00000000-0000-0000-0000-0000000000b2'
+                     GROUP BY account_id
+                     UNION ALL
+                     SELECT 'entries=' || COUNT(*) FROM journal_entries
+                     """)) {
+            while (rs.next()) {
+                journal.add(rs.getString(1));
+            }
+        }
+        // a's balance on Jan 2 was 70, b received 20; deposit, withdrawal and the transfer are 3 entries
+        assertThat(journal).contains("00000000-0000-0000-0000-0000000000a2=70.00",
+                "00000000-0000-0000-0000-0000000000b2=20.00", "entries=3");
+    }
+
+    @Test
+    void shouldDropRedundantIndexesAndDuplicateForeignKey() throws SQLException {
+        assertThat(column("SELECT indexname FROM pg_indexes WHERE tablename = 'transactions'"))
+                .contains("idx_transactions_wallet_created_at")
+                .doesNotContain("idx_transactions_wallet", "idx_transactions_created_at");
+        assertThat(column("""
+                SELECT conname FROM pg_constraint
+                WHERE conrelid = 'transactions'::regclass AND contype = 'f'
+                """))
+                .containsExactly("transactions_wallet_id_fkey");
+    }
+
+    private static List<String> column(String sql) throws SQLException {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            List<String> values = new ArrayList<>();
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
+            return values;
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}